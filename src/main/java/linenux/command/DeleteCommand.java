@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import linenux.command.result.CommandResult;
 import linenux.command.result.PromptResults;
 import linenux.command.result.SearchResults;
+import linenux.command.util.TaskSearchResult;
 import linenux.model.Schedule;
 import linenux.model.Task;
 import linenux.util.ArrayListUtil;
@@ -51,17 +52,26 @@ public class DeleteCommand extends AbstractCommand {
             return makeNoKeywordsResult();
         }
 
-        ArrayList<Task> tasks = this.schedule.searchTasks(keywords);
+        TaskSearchResult found = this.schedule.searchTasks(keywords, task -> true, PromptResults.MAX_CHOICES);
+        ArrayList<Task> tasks = found.getTasks();
+
+        //Close matches are offered when nothing matches exactly, but never deleted without asking
+        boolean isFuzzy = tasks.isEmpty();
+        if (isFuzzy) {
+            tasks = this.schedule.fuzzySearchTasks(keywords);
+        }
+        int matchCount = Math.max(found.getMatchCount(), tasks.size());
+        tasks = ArrayListUtil.take(PromptResults.MAX_CHOICES, tasks);
 
         if (tasks.size() == 0) {
             return SearchResults.makeNotFoundResult(keywords);
-        } else if (tasks.size() == 1) {
+        } else if (tasks.size() == 1 && !isFuzzy) {
             Task task = tasks.get(0);
             this.schedule.deleteTask(task);
             return makeDeletedTask(task);
         } else {
             setResponse(true, tasks);
-            return PromptResults.makePromptIndexResult(tasks);
+            return PromptResults.makePromptIndexResult(tasks, matchCount);
         }
     }
 
@@ -52,16 +52,20 @@ public class DeleteReminderCommand extends AbstractCommand {
             return makeNoKeywordsResult();
         }
 
-        ArrayList<ReminderSearchResult> results = new ArrayListUtil.ChainableArrayListUtil<>(
-                this.schedule.getTaskList()).map(task -> new ReminderSearchResult(task, task.searchReminder(keywords)))
-                        .filter(result -> result.getReminders().size() > 0).value();
+        ArrayList<ReminderSearchResult> results = this.schedule.findReminders(keywords);
+
+        //Reminders with notes close to the keywords are offered instead, always through the prompt
+        boolean isFuzzy = results.isEmpty();
+        if (isFuzzy) {
+            results = this.schedule.fuzzyFindReminders(keywords);
+        }
 
         int totalResults = new ArrayListUtil.ChainableArrayListUtil<>(results).map(ReminderSearchResult::getReminders)
                 .map(ArrayList::size).foldr((a, b) -> a + b, 0);
 
         if (totalResults == 0) {
             return SearchResults.makeReminderNotFoundResult(keywords);
-        } else if (totalResults == 1) {
+        } else if (totalResults == 1 && !isFuzzy) {
             ReminderSearchResult result = results.get(0);
             this.schedule.deleteReminder(result);
             return makeDeletedReminder(result);
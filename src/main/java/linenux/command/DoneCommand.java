@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import linenux.command.result.CommandResult;
 import linenux.command.result.PromptResults;
 import linenux.command.result.SearchResults;
+import linenux.command.util.TaskSearchResult;
 import linenux.model.Schedule;
 import linenux.model.Task;
 import linenux.util.ArrayListUtil;
@@ -51,19 +52,28 @@ public class DoneCommand extends AbstractCommand {
             return makeNoKeywordsResult();
         }
 
-        ArrayList<Task> tasks = new ArrayListUtil.ChainableArrayListUtil<>(this.schedule.searchTasks(keywords))
-                .filter(Task::isNotDone)
-                .value();
+        TaskSearchResult found = this.schedule.searchTasks(keywords, Task::isNotDone, PromptResults.MAX_CHOICES);
+        ArrayList<Task> tasks = found.getTasks();
+
+        //Fall back to close matches, which are always confirmed before being marked as done
+        boolean isFuzzy = tasks.isEmpty();
+        if (isFuzzy) {
+            tasks = new ArrayListUtil.ChainableArrayListUtil<>(this.schedule.fuzzySearchTasks(keywords))
+                    .filter(Task::isNotDone)
+                    .value();
+        }
+        int matchCount = Math.max(found.getMatchCount(), tasks.size());
+        tasks = ArrayListUtil.take(PromptResults.MAX_CHOICES, tasks);
 
         if (tasks.size() == 0) {
             return SearchResults.makeNotFoundResult(keywords);
-        } else if (tasks.size() == 1) {
+        } else if (tasks.size() == 1 && !isFuzzy) {
             Task task = tasks.get(0);
             this.schedule.updateTask(task, task.markAsDone());
             return makeDoneTask(task);
         } else {
             setResponse(true, tasks);
-            return PromptResults.makePromptIndexResult(tasks);
+            return PromptResults.makePromptIndexResult(tasks, matchCount);
         }
     }
 
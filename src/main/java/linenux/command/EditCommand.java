@@ -7,6 +7,7 @@ import linenux.command.parser.GenericParser;
 import linenux.command.result.CommandResult;
 import linenux.command.result.PromptResults;
 import linenux.command.result.SearchResults;
+import linenux.command.util.TaskSearchResult;
 import linenux.control.TimeParserManager;
 import linenux.model.Schedule;
 import linenux.model.Task;
@@ -66,16 +67,26 @@ public class EditCommand extends AbstractCommand {
             return makeNoKeywordsResult();
         }
 
-        ArrayList<Task> tasks = this.schedule.searchTasks(result.getKeywords());
+        TaskSearchResult found = this.schedule.searchTasks(result.getKeywords(), task -> true,
+                PromptResults.MAX_CHOICES);
+        ArrayList<Task> tasks = found.getTasks();
+
+        //Typos fall back to close matches, which the user picks from even if there is only one
+        boolean isFuzzy = tasks.isEmpty();
+        if (isFuzzy) {
+            tasks = this.schedule.fuzzySearchTasks(result.getKeywords());
+        }
+        int matchCount = Math.max(found.getMatchCount(), tasks.size());
+        tasks = ArrayListUtil.take(PromptResults.MAX_CHOICES, tasks);
 
         if (tasks.size() == 0) {
             return SearchResults.makeNotFoundResult(result.getKeywords());
-        } else if (tasks.size() == 1) {
+        } else if (tasks.size() == 1 && !isFuzzy) {
             Task task = tasks.get(0);
             return implementEdit(task, result);
         } else {
             setResponse(true, tasks, result);
-            return PromptResults.makePromptIndexResult(tasks);
+            return PromptResults.makePromptIndexResult(tasks, matchCount);
         }
     }
 
@@ -70,10 +70,12 @@ public class EditReminderCommand extends AbstractCommand {
             return makeNoKeywordsResult();
         }
 
-        ArrayList<ReminderSearchResult> results = new ArrayListUtil.ChainableArrayListUtil<>(this.schedule.getTaskList())
-                .map(task -> new ReminderSearchResult(task, task.searchReminder(result.getKeywords())))
-                .filter(r -> r.getReminders().size() > 0)
-                .value();
+        ArrayList<ReminderSearchResult> results = this.schedule.findReminders(result.getKeywords());
+
+        boolean isFuzzy = results.isEmpty();
+        if (isFuzzy) {
+            results = this.schedule.fuzzyFindReminders(result.getKeywords());
+        }
 
         int totalResults = new ArrayListUtil.ChainableArrayListUtil<>(results)
                 .map(ReminderSearchResult::getReminders)
@@ -82,7 +84,7 @@ public class EditReminderCommand extends AbstractCommand {
 
         if (totalResults == 0) {
             return SearchResults.makeReminderNotFoundResult(result.getKeywords());
-        } else if (totalResults == 1) {
+        } else if (totalResults == 1 && !isFuzzy) {
             ReminderSearchResult searchResult = results.get(0);
             return implementEditr(searchResult.getTask(), searchResult.getReminders().get(0), result);
         } else {
@@ -9,6 +9,7 @@ import linenux.command.parser.FreeTimeArgumentParser;
 import linenux.command.result.CommandResult;
 import linenux.control.TimeParserManager;
 import linenux.model.Schedule;
+import linenux.model.State;
 import linenux.model.Task;
 import linenux.time.parser.ISODateWithTimeParser;
 import linenux.time.parser.StandardDateWithTimeParser;
@@ -106,7 +107,7 @@ public class FreeTimeCommand extends AbstractCommand {
      * @return An {@code ArrayList} of free time represented by {@code TimeInterval}.
      */
     private ArrayList<TimeInterval> getFreeTime(TimeInterval queryInterval) {
-        ArrayList<TimeInterval> eventIntervals = eventIntervals(queryInterval, this.schedule.getTaskList());
+        ArrayList<TimeInterval> eventIntervals = eventIntervals(queryInterval, this.schedule.getSnapshot());
         ArrayList<TimeInterval> busyIntervals = flattenIntervals(eventIntervals);
         return timeIntervalSubtraction(queryInterval, busyIntervals);
     }
@@ -115,17 +116,12 @@ public class FreeTimeCommand extends AbstractCommand {
      * Return the time intervals of all events happening within {@code queryInterval}. It is guaranteed that all
      * intervals are bounded by queryInterval, that is, for all x in output, x intersect queryInterval == x.
      * @param queryInterval The {@code TimeInterval} to bound the query.
-     * @param tasks The {@code ArrayList} of tasks.
+     * @param state The {@code State} of the schedule.
      * @return An {@code ArrayList} of {@code TimeInterval} for the events.
      */
-    private ArrayList<TimeInterval> eventIntervals(TimeInterval queryInterval, ArrayList<Task> tasks) {
-        return new ArrayListUtil.ChainableArrayListUtil<>(tasks)
-                .filter(Task::isEvent)
-                .filter(task -> {
-                    boolean endsBefore = task.getEndTime().compareTo(queryInterval.getFrom()) <= 0;
-                    boolean startsAfter = task.getStartTime().compareTo(queryInterval.getTo()) >= 0;
-                    return !(endsBefore || startsAfter);
-                })
+    private ArrayList<TimeInterval> eventIntervals(TimeInterval queryInterval, State state) {
+        ArrayList<Task> events = state.getEventsOverlapping(queryInterval.getFrom(), queryInterval.getTo());
+        return new ArrayListUtil.ChainableArrayListUtil<>(events)
                 .map(task -> {
                     LocalDateTime startTime = LocalDateTimeUtil.max(queryInterval.getFrom(), task.getStartTime());
                     LocalDateTime endTime = LocalDateTimeUtil.min(queryInterval.getTo(), task.getEndTime());
@@ -1,15 +1,21 @@
 package linenux.command;
 
+import java.util.ArrayList;
+
 import linenux.command.result.CommandResult;
 import linenux.control.ControlUnit;
-import linenux.util.StringsSimilarity;
+import linenux.util.BKTree;
 
 //@@author A0144915A
 /**
  * Act as a fail-safe for invalid or unrecognized commands.
  */
 public class InvalidCommand extends AbstractCommand {
+    private static final int MAX_DISTANCE_PER_CHARACTER = 2;
+
     private ControlUnit controlUnit;
+    private ArrayList<String> triggerWords = new ArrayList<>();
+    private BKTree triggerWordTree = new BKTree();
 
     private CommandResult lastCommandResult = null;
     private String lastCorrectedCommand = null;
@@ -48,18 +54,8 @@ public class InvalidCommand extends AbstractCommand {
 
         String userCommand = extractCommand(userInput);
         String userArgument = parseArgument(userInput);
-        String suggestion = null;
-        int bestScore = Integer.MAX_VALUE;
-
-        for (Command command: this.controlUnit.getCommandList()) {
-            for (String triggerWord: command.getTriggerWords()) {
-                int similarity = StringsSimilarity.compute(userCommand, command.getTriggerWord());
-                if (similarity < bestScore) {
-                    suggestion = triggerWord;
-                    bestScore = similarity;
-                }
-            }
-        }
+        String suggestion = getTriggerWordTree().findNearest(userCommand,
+                MAX_DISTANCE_PER_CHARACTER * Math.max(userCommand.length(), 1));
 
         if (suggestion == null) {
             this.lastCommandResult = this.makeResponse();
@@ -100,6 +96,26 @@ public class InvalidCommand extends AbstractCommand {
         return null;
     }
 
+    //@@author A0135788M
+    /**
+     * Aliases may have been added or removed since the last invalid command, so the tree is rebuilt whenever the
+     * trigger words of the commands differ from the ones it holds.
+     * @return A {@code BKTree} holding the trigger words and aliases of every command, in command order.
+     */
+    private BKTree getTriggerWordTree() {
+        ArrayList<String> triggerWords = new ArrayList<>();
+        for (Command command : this.controlUnit.getCommandList()) {
+            triggerWords.addAll(command.getTriggerWords());
+        }
+
+        if (!triggerWords.equals(this.triggerWords)) {
+            this.triggerWords = triggerWords;
+            this.triggerWordTree = new BKTree(triggerWords);
+        }
+        return this.triggerWordTree;
+    }
+
+    //@@author A0144915A
     /**
      * Extract the command trigger word from {@code userInput}.
      * @param userInput A {@code String} representing the user input.
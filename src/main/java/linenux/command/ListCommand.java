@@ -1,14 +1,20 @@
 package linenux.command;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.function.BiFunction;
 
 import linenux.command.filter.ListArgumentFilter;
 import linenux.command.parser.GenericParser;
 import linenux.command.result.CommandResult;
 import linenux.control.TimeParserManager;
+import linenux.model.DateRangeQuery;
 import linenux.model.Reminder;
 import linenux.model.Schedule;
+import linenux.model.State;
 import linenux.model.Task;
+import linenux.model.TaskTable;
 import linenux.time.parser.ISODateWithTimeParser;
 import linenux.time.parser.StandardDateWithTimeParser;
 import linenux.time.parser.TodayWithTimeParser;
@@ -23,7 +29,7 @@ import linenux.util.Either;
 public class ListCommand extends AbstractCommand {
     private static final String TRIGGER_WORD = "list";
     private static final String DESCRIPTION = "Lists tasks and reminders.";
-    private static final String COMMAND_FORMAT = "list [KEYWORDS] [st/START_TIME] [et/END_TIME] [#/TAG] [d/DONE]";
+    private static final String COMMAND_FORMAT = "list [KEYWORDS] [st/START_TIME] [et/END_TIME] [#/TAG[|TAG]]... [d/DONE]";
     private static final String VIEW_DONE_ONLY = "yes";
     private static final String VIEW_DONE = "all";
 
@@ -49,31 +55,52 @@ public class ListCommand extends AbstractCommand {
         assert userInput.matches(getPattern());
         assert this.schedule != null;
 
-        ArrayList<Task> tasks = this.schedule.getTaskList();
-        ArrayList<Reminder> reminders = this.schedule.getReminderList();
-
-        if (tasks.isEmpty() && reminders.isEmpty()) {
-            return makeEmptyTaskListResult();
-        }
+        State state = this.schedule.getSnapshot();
+        ArrayList<Task> tasks = state.getTaskList();
+        ArrayList<Reminder> reminders = state.getReminderList();
 
         String arguments = extractArgument(userInput);
         GenericParser parser = new GenericParser();
         GenericParser.GenericParserResult result = parser.parse(arguments);
         Either<String, CommandResult> viewDone = extractViewDone(result);
 
+        //Archived tasks are only read if done tasks are requested
+        boolean includesArchive = viewDone.isLeft() && !viewDone.getLeft().isEmpty();
+        ArrayList<Task> archivedTasks = new ArrayList<>();
+        if (includesArchive) {
+            archivedTasks = this.schedule.getArchive().getTaskList();
+        }
+
+        if (tasks.isEmpty() && reminders.isEmpty() && archivedTasks.isEmpty()) {
+            return makeEmptyTaskListResult();
+        }
+
         if (viewDone.isRight()) {
             return viewDone.getRight();
         }
 
+        TaskTable table = state.getTaskTable();
+        BiFunction<LocalDateTime, LocalDateTime, BitSet> inRange = state::inRange;
         if (!result.getKeywords().isEmpty()) {
             tasks = this.schedule.searchTasks(result.getKeywords());
             reminders = this.schedule.searchReminders(result.getKeywords());
+            if (includesArchive) {
+                tasks.addAll(this.schedule.getArchive().searchTasks(result.getKeywords()));
+            }
+            table = new TaskTable(tasks);
+            inRange = table::inRange;
+        } else if (!archivedTasks.isEmpty()) {
+            tasks = new ArrayList<>(tasks);
+            tasks.addAll(archivedTasks);
+            table = new TaskTable(tasks);
+            inRange = table::inRange;
         }
 
         String actualViewDone = viewDone.getLeft();
         Boolean doneOnly = actualViewDone.equals(VIEW_DONE_ONLY);
 
-        Either<ArrayList<Task>, CommandResult> filterTasks = this.listArgumentFilter.filter(arguments, tasks, doneOnly);
+        Either<ArrayList<Task>, CommandResult> filterTasks = this.listArgumentFilter.filter(arguments, table, inRange,
+                doneOnly);
         if (filterTasks.isRight()) {
             return filterTasks.getRight();
         }
@@ -83,7 +110,10 @@ public class ListCommand extends AbstractCommand {
 
         //If users request for done tasks only, we will not show any reminders
         if (!doneOnly) {
-            Either<ArrayList<Reminder>, CommandResult> filterReminders = this.listArgumentFilter.filterReminders(arguments, reminders);
+            //Reminders of the whole schedule are already indexed by time
+            Either<ArrayList<Reminder>, CommandResult> filterReminders = result.getKeywords().isEmpty()
+                    ? this.listArgumentFilter.filterReminders(arguments, state)
+                    : this.listArgumentFilter.filterReminders(arguments, reminders);
             if (filterReminders.isRight()) {
                 return filterReminders.getRight();
             }
@@ -105,6 +135,37 @@ public class ListCommand extends AbstractCommand {
         }
     }
 
+    //@@author A0135788M
+    /**
+     * Lists the tasks and reminders within {@code query} which are not done, as {@code execute} does for a list
+     * command with the same start and end time, but without formatting the times into a command and parsing them
+     * back. Only the calendar days within {@code query} are visited.
+     * @param query The range of time to list.
+     * @return A {@code CommandResult} representing the result of the command.
+     */
+    public CommandResult execute(DateRangeQuery query) {
+        assert this.schedule != null;
+
+        State state = this.schedule.getSnapshot();
+        if (state.getTaskList().isEmpty() && state.getReminderList().isEmpty()) {
+            return makeEmptyTaskListResult();
+        }
+
+        TaskTable table = state.getTaskTable();
+        BitSet rows = table.notDone();
+        rows.and(state.inRange(query));
+        ArrayList<Task> tasks = table.select(rows);
+        ArrayList<Reminder> reminders = state.getReminders(query);
+
+        if (tasks.isEmpty() && reminders.isEmpty()) {
+            this.schedule.addFilterTasks(new ArrayList<>());
+            return makeNoTasksAndRemindersFoundResult();
+        } else {
+            return makeResult(tasks, reminders);
+        }
+    }
+
+    //@@author A0140702X
     /**
      * @return A {@code String} representing the default command word.
      */
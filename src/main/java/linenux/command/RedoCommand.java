@@ -0,0 +1,72 @@
+package linenux.command;
+
+import linenux.command.result.CommandResult;
+import linenux.model.Schedule;
+
+//@@author A0135788M
+/**
+ * Redo the last command that was undone.
+ */
+public class RedoCommand extends AbstractCommand {
+    private static final String TRIGGER_WORD = "redo";
+    private static final String DESCRIPTION = "Redo the last undone command.";
+    private static final String COMMAND_FORMAT = "redo";
+
+    private Schedule schedule;
+
+    public RedoCommand(Schedule schedule) {
+        this.schedule = schedule;
+        this.TRIGGER_WORDS.add(TRIGGER_WORD);
+    }
+
+    /**
+     * Executes the command based on {@code userInput}. This method operates under the assumption that
+     * {@code respondTo(userInput)} is {@code true}.
+     * @param userInput A {@code String} representing the user input.
+     * @return A {@code CommandResult} representing the result of the command.
+     */
+    @Override
+    public CommandResult execute(String userInput) {
+        assert userInput.matches(getPattern());
+        assert this.schedule != null;
+
+        if (this.schedule.redo()) {
+            return makeRedoSuccessfulMessage();
+        } else {
+            return makeRedoUnsuccessfulMessage();
+        }
+    }
+
+    /**
+     * @return A {@code String} representing the default command word.
+     */
+    @Override
+    public String getTriggerWord() {
+        return TRIGGER_WORD;
+    }
+
+    /**
+     * @return A {@code String} describing what this {@code Command} does.
+     */
+    @Override
+    public String getDescription() {
+        return DESCRIPTION;
+    }
+
+    /**
+     * @return A {@code String} describing the format that this {@code Command} expects.
+     */
+    @Override
+    public String getCommandFormat() {
+        return COMMAND_FORMAT;
+    }
+
+    private CommandResult makeRedoSuccessfulMessage() {
+        return () -> "Successfully redo last undone command.";
+    }
+
+    private CommandResult makeRedoUnsuccessfulMessage() {
+        return () -> "No more commands to redo!";
+    }
+
+}
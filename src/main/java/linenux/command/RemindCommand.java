@@ -8,6 +8,7 @@ import linenux.command.parser.ReminderArgumentParser;
 import linenux.command.result.CommandResult;
 import linenux.command.result.PromptResults;
 import linenux.command.result.SearchResults;
+import linenux.command.util.TaskSearchResult;
 import linenux.control.TimeParserManager;
 import linenux.model.Reminder;
 import linenux.model.Schedule;
@@ -64,7 +65,10 @@ public class RemindCommand extends AbstractCommand {
             return makeNoKeywordsResult();
         }
 
-        ArrayList<Task> tasks = this.schedule.searchTasks(result.getKeywords());
+        TaskSearchResult found = this.schedule.searchTasks(result.getKeywords(), task -> true,
+                PromptResults.MAX_CHOICES);
+        ArrayList<Task> tasks = found.getTasks();
+        int matchCount = found.getMatchCount();
 
         if (tasks.size() == 0) {
             return SearchResults.makeNotFoundResult(result.getKeywords());
@@ -73,7 +77,7 @@ public class RemindCommand extends AbstractCommand {
             return implementRemind(task, result);
         } else {
             setResponse(true, tasks, result);
-            return PromptResults.makePromptIndexResult(tasks);
+            return PromptResults.makePromptIndexResult(tasks, matchCount);
         }
     }
 
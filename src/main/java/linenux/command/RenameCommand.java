@@ -69,13 +69,14 @@ public class RenameCommand extends AbstractCommand {
 
         for (Task t : original) {
             assert (t.hasTag(originalName));
-            for (int i = 0; i < t.getTags().size(); i++) {
-                if (t.getTags().get(i).equalsIgnoreCase(originalName)) {
-                    t.getTags().set(i, newName);
+            ArrayList<String> tags = t.getTags();
+            for (int i = 0; i < tags.size(); i++) {
+                if (tags.get(i).equalsIgnoreCase(originalName)) {
+                    tags.set(i, newName);
                     break;
                 }
             }
-            modifiedTasks.add(t);
+            modifiedTasks.add(t.setTags(tags));
         }
 
         this.schedule.updateTask(originalTasks, modifiedTasks);
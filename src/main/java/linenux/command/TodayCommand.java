@@ -1,10 +1,10 @@
 package linenux.command;
 
 import java.time.Clock;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
 
 import linenux.command.result.CommandResult;
+import linenux.model.DateRangeQuery;
 import linenux.model.Schedule;
 
 //@@author A0127694U
@@ -36,11 +36,8 @@ public class TodayCommand extends AbstractCommand {
      */
     @Override
     public CommandResult execute(String userInput) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-M-d h.mma");
-        LocalDateTime now = LocalDateTime.now(this.clock);
-        LocalDateTime endOfToday = now.withHour(23).withMinute(59).withSecond(59);
-
-        return this.listCommand.execute("list et/" + endOfToday.format(formatter));
+        LocalDate today = LocalDate.now(this.clock);
+        return this.listCommand.execute(DateRangeQuery.untilEndOf(today));
     }
 
     /**
@@ -1,10 +1,10 @@
 package linenux.command;
 
 import java.time.Clock;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
 
 import linenux.command.result.CommandResult;
+import linenux.model.DateRangeQuery;
 import linenux.model.Schedule;
 
 //@@author A0127694U
@@ -36,12 +36,8 @@ public class TomorrowCommand extends AbstractCommand {
      */
     @Override
     public CommandResult execute(String userInput) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-M-d h.mma");
-        LocalDateTime now = LocalDateTime.now(this.clock);
-        LocalDateTime startOfTomorrow = now.withHour(0).withMinute(0).withSecond(0).plusDays(1);
-        LocalDateTime endOfTomorrow = now.withHour(23).withMinute(59).withSecond(59).plusDays(1);
-
-        return this.listCommand.execute("list st/" + startOfTomorrow.format(formatter) + " et/" + endOfTomorrow.format(formatter));
+        LocalDate tomorrow = LocalDate.now(this.clock).plusDays(1);
+        return this.listCommand.execute(DateRangeQuery.onDay(tomorrow));
     }
 
     /**
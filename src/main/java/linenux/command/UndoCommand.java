@@ -30,7 +30,7 @@ public class UndoCommand extends AbstractCommand {
         assert userInput.matches(getPattern());
         assert this.schedule != null;
 
-        if (this.schedule.popState()) {
+        if (this.schedule.undo()) {
             return makeUndoSuccessfulMessage();
         } else {
             return makeUndoUnsuccessfulMessage();
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import linenux.command.result.CommandResult;
 import linenux.command.result.PromptResults;
 import linenux.command.result.SearchResults;
+import linenux.command.util.TaskSearchResult;
 import linenux.model.Schedule;
 import linenux.model.Task;
 import linenux.util.ArrayListUtil;
@@ -38,8 +39,9 @@ public class UndoneCommand extends AbstractCommand {
             return makeNoKeywordsResult();
         }
 
-        ArrayList<Task> tasks = new ArrayListUtil.ChainableArrayListUtil<>(this.schedule.searchTasks(keywords))
-                .filter(Task::isDone).value();
+        TaskSearchResult found = this.schedule.searchTasks(keywords, Task::isDone, PromptResults.MAX_CHOICES);
+        ArrayList<Task> tasks = found.getTasks();
+        int matchCount = found.getMatchCount();
 
         if (tasks.size() == 0) {
             return SearchResults.makeNotFoundResult(keywords);
@@ -49,7 +51,7 @@ public class UndoneCommand extends AbstractCommand {
             return makeUndoneTask(task);
         } else {
             setResponse(true, tasks);
-            return PromptResults.makePromptIndexResult(tasks);
+            return PromptResults.makePromptIndexResult(tasks, matchCount);
         }
 
     }
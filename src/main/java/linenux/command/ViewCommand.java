@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import linenux.command.result.CommandResult;
 import linenux.command.result.PromptResults;
 import linenux.command.result.SearchResults;
+import linenux.command.util.TaskSearchResult;
 import linenux.model.Reminder;
 import linenux.model.Schedule;
 import linenux.model.Task;
@@ -48,7 +49,16 @@ public class ViewCommand extends AbstractCommand {
             return makeNoKeywordsResult();
         }
 
-        ArrayList<Task> tasks = this.schedule.searchTasks(keywords);
+        TaskSearchResult found = this.schedule.searchTasks(keywords, task -> true, PromptResults.MAX_CHOICES);
+        ArrayList<Task> tasks = found.getTasks();
+        if (tasks.isEmpty()) {
+            tasks = this.schedule.getArchive().searchTasks(keywords);
+        }
+        if (tasks.isEmpty()) {
+            tasks = this.schedule.fuzzySearchTasks(keywords);
+        }
+        int matchCount = Math.max(found.getMatchCount(), tasks.size());
+        tasks = ArrayListUtil.take(PromptResults.MAX_CHOICES, tasks);
 
         if (tasks.size() == 0) {
             return SearchResults.makeNotFoundResult(keywords);
@@ -57,7 +67,7 @@ public class ViewCommand extends AbstractCommand {
             return makeResult(task);
         } else {
             setResponse(true, tasks);
-            return PromptResults.makePromptIndexResult(tasks);
+            return PromptResults.makePromptIndexResult(tasks, matchCount);
         }
     }
 
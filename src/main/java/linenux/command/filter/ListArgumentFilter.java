@@ -2,13 +2,17 @@ package linenux.command.filter;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.function.BiFunction;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import linenux.command.result.CommandResult;
 import linenux.control.TimeParserManager;
 import linenux.model.Reminder;
+import linenux.model.State;
 import linenux.model.Task;
+import linenux.model.TaskTable;
 import linenux.util.ArrayListUtil;
 import linenux.util.Either;
 
@@ -43,8 +47,34 @@ public class ListArgumentFilter {
      * Otherwise, the right slot will contain a {@code CommandResult} describing the failure.
      */
     public Either<ArrayList<Task>, CommandResult> filter(String argument, ArrayList<Task> tasks, Boolean doneOnly) {
-        ArrayList<Task> filteredTasks = tasks;
+        return filter(argument, new TaskTable(tasks), doneOnly);
+    }
 
+    //@@author A0135788M
+    /**
+     * Filter the tasks of {@code table} based on argument specified by the user.
+     * @param argument The argument, which is part of the user input.
+     * @param table The search space.
+     * @param doneOnly Set this to true if and only if we are interested in only done tasks.
+     * @return An {@code Either}. If search was successful, the left slot will contain the list of filtered tasks.
+     * Otherwise, the right slot will contain a {@code CommandResult} describing the failure.
+     */
+    public Either<ArrayList<Task>, CommandResult> filter(String argument, TaskTable table, Boolean doneOnly) {
+        return filter(argument, table, table::inRange, doneOnly);
+    }
+
+    /**
+     * Filter the tasks of {@code table} based on argument specified by the user.
+     * @param argument The argument, which is part of the user input.
+     * @param table The search space.
+     * @param inRange Finds the rows of {@code table} between two times, as {@code TaskTable.inRange} does.
+     * @param doneOnly Set this to true if and only if we are interested in only done tasks.
+     * @return An {@code Either}. If search was successful, the left slot will contain the list of filtered tasks.
+     * Otherwise, the right slot will contain a {@code CommandResult} describing the failure.
+     */
+    public Either<ArrayList<Task>, CommandResult> filter(String argument, TaskTable table,
+                                                         BiFunction<LocalDateTime, LocalDateTime, BitSet> inRange,
+                                                         Boolean doneOnly) {
         Either<LocalDateTime, CommandResult> startTime = extractStartTime(argument);
         if (startTime.isRight()) {
             return Either.right(startTime.getRight());
@@ -69,56 +99,22 @@ public class ListArgumentFilter {
             return Either.right(makeEndTimeBeforeStartTimeResult());
         }
 
-        if (doneOnly) {
-            filteredTasks = new ArrayListUtil.ChainableArrayListUtil<>(filteredTasks)
-                .filter(Task::isDone)
-                .value();
-        }
+        BitSet rows = doneOnly ? table.done() : table.all();
 
         //filter the tasks by the time parameters
-        if (actualStartTime != null && actualEndTime != null) {
-            filteredTasks = new ArrayListUtil.ChainableArrayListUtil<>(filteredTasks).filter(task -> {
-                            boolean checker = task.isTodo()
-                                    || task.getEndTime().isEqual(actualStartTime) || task.getEndTime().isEqual(actualEndTime)
-                                    || (task.getEndTime().isAfter(actualStartTime) && task.getEndTime().isBefore(actualEndTime));
-                            if (task.isEvent()) {
-                                LocalDateTime taskStartTime = task.getStartTime();
-                                return checker || taskStartTime.isEqual(actualStartTime) || taskStartTime.isEqual(actualEndTime)
-                            || (taskStartTime.isAfter(actualStartTime) && taskStartTime.isBefore(actualEndTime))
-                            || (taskStartTime.isBefore(actualStartTime) && task.getEndTime().isAfter(actualEndTime));
-                            }
-                            return checker; })
-                        .value();
-        } else if (actualStartTime != null) {
-            filteredTasks = new ArrayListUtil.ChainableArrayListUtil<>(filteredTasks)
-                    .filter(task -> task.isTodo() || task.getEndTime().isAfter(actualStartTime)
-                            || task.getEndTime().isEqual(actualStartTime))
-                    .value();
-        } else if (actualEndTime != null) {
-            filteredTasks = new ArrayListUtil.ChainableArrayListUtil<>(filteredTasks)
-                    .filter(task -> {
-                        boolean checker = task.isTodo() || task.getEndTime().isBefore(actualEndTime)
-                            || task.getEndTime().isEqual(actualEndTime);
-                        if (task.isEvent()) {
-                            return checker || task.getStartTime().isBefore(actualEndTime) || task.getStartTime().isEqual(actualEndTime);
-                        };
-
-                        return checker; })
-                    .value();
+        if (actualStartTime != null || actualEndTime != null) {
+            rows.and(inRange.apply(actualStartTime, actualEndTime));
         }
 
-        //filter tasks by tags
-        if (!actualTags.isEmpty()) {
-            for (String tag : actualTags) {
-                filteredTasks = new ArrayListUtil.ChainableArrayListUtil<>(filteredTasks)
-                        .filter(task -> task.hasTag(tag)).value();
-
-            }
+        //filter tasks by tags. Each #/ argument must match, and may hold alternatives separated by |.
+        for (String tag : actualTags) {
+            rows.and(table.withTags(tag));
         }
 
-        return Either.left(filteredTasks);
+        return Either.left(table.select(rows));
     }
 
+    //@@author A0140702X
     /**
      * Filter the list of reminders based on user argument.
      * @param argument A {@code String} representing the argument given by the user.
@@ -127,10 +123,61 @@ public class ListArgumentFilter {
      * right slot is a {@code CommandResult} describing the failure.
      */
     public Either<ArrayList<Reminder>, CommandResult> filterReminders(String argument, ArrayList<Reminder> reminders) {
-        ArrayList<Reminder> filteredReminders = new ArrayListUtil.ChainableArrayListUtil<>(reminders)
+        ArrayList<Reminder> sortedReminders = new ArrayListUtil.ChainableArrayListUtil<>(reminders)
                             .sortBy(Reminder::getTimeOfReminder)
                             .value();
 
+        return filterReminders(argument, (actualStartTime, actualEndTime) -> {
+            ArrayList<Reminder> filteredReminders = sortedReminders;
+
+            //filter the reminders by the time parameters
+            if (actualStartTime != null && actualEndTime != null) {
+                filteredReminders = new ArrayListUtil.ChainableArrayListUtil<>(filteredReminders)
+                        .filter(reminder -> reminder.getTimeOfReminder().isEqual(actualStartTime)
+                        || (reminder.getTimeOfReminder().isAfter(actualStartTime) && reminder.getTimeOfReminder().isBefore(actualEndTime)))
+                        .value();
+            } else if (actualStartTime != null) {
+                filteredReminders = new ArrayListUtil.ChainableArrayListUtil<>(filteredReminders)
+                        .filter(reminder -> reminder.getTimeOfReminder().isAfter(actualStartTime)
+                                || reminder.getTimeOfReminder().isEqual(actualStartTime))
+                        .value();
+            } else if (actualEndTime != null) {
+                filteredReminders = new ArrayListUtil.ChainableArrayListUtil<>(filteredReminders)
+                        .filter(reminder -> reminder.getTimeOfReminder().isBefore(actualEndTime)
+                                || reminder.getTimeOfReminder().isEqual(actualEndTime))
+                        .value();
+            }
+
+            return filteredReminders;
+        });
+    }
+
+    //@@author A0135788M
+    /**
+     * Filter the reminders of {@code state} based on user argument, using its index of reminders by time instead of
+     * sorting them.
+     * @param argument A {@code String} representing the argument given by the user.
+     * @param state The {@code State} whose reminders form the search space.
+     * @return An {@Either}. If search is successful, its left slot is a list of {@code Reminder}. Otherwise, its
+     * right slot is a {@code CommandResult} describing the failure.
+     */
+    public Either<ArrayList<Reminder>, CommandResult> filterReminders(String argument, State state) {
+        // Ranges with both ends exclude the end time, while ranges with only an end time include it.
+        return filterReminders(argument, (actualStartTime, actualEndTime) -> state.getRemindersBetween(
+                actualStartTime, true, actualEndTime, actualStartTime == null));
+    }
+
+    //@@author A0140702X
+    /**
+     * Parses the time and tag arguments of the user, and finds the reminders between the times.
+     * @param argument A {@code String} representing the argument given by the user.
+     * @param remindersBetween Finds the reminders, sorted by time, between a start time and an end time. Either may
+     * be {@code null}.
+     * @return An {@Either}. If search is successful, its left slot is a list of {@code Reminder}. Otherwise, its
+     * right slot is a {@code CommandResult} describing the failure.
+     */
+    private Either<ArrayList<Reminder>, CommandResult> filterReminders(String argument,
+            BiFunction<LocalDateTime, LocalDateTime, ArrayList<Reminder>> remindersBetween) {
         Either<LocalDateTime, CommandResult> startTime = extractStartTime(argument);
         if (startTime.isRight()) {
             return Either.right(startTime.getRight());
@@ -151,28 +198,7 @@ public class ListArgumentFilter {
             return Either.left(new ArrayList<Reminder>());
         }
 
-        LocalDateTime actualStartTime = startTime.getLeft();
-        LocalDateTime actualEndTime = endTime.getLeft();
-
-        //filter the reminders by the time parameters
-        if (actualStartTime != null && actualEndTime != null) {
-            filteredReminders = new ArrayListUtil.ChainableArrayListUtil<>(filteredReminders)
-                    .filter(reminder -> reminder.getTimeOfReminder().isEqual(actualStartTime)
-                    || (reminder.getTimeOfReminder().isAfter(actualStartTime) && reminder.getTimeOfReminder().isBefore(actualEndTime)))
-                    .value();
-        } else if (actualStartTime != null) {
-            filteredReminders = new ArrayListUtil.ChainableArrayListUtil<>(filteredReminders)
-                    .filter(reminder -> reminder.getTimeOfReminder().isAfter(actualStartTime)
-                            || reminder.getTimeOfReminder().isEqual(actualStartTime))
-                    .value();
-        } else if (actualEndTime != null) {
-            filteredReminders = new ArrayListUtil.ChainableArrayListUtil<>(filteredReminders)
-                    .filter(reminder -> reminder.getTimeOfReminder().isBefore(actualEndTime)
-                            || reminder.getTimeOfReminder().isEqual(actualEndTime))
-                    .value();
-        }
-
-        return Either.left(filteredReminders);
+        return Either.left(remindersBetween.apply(startTime.getLeft(), endTime.getLeft()));
     }
 
     /**
@@ -232,7 +258,7 @@ public class ListArgumentFilter {
 
         while (matcher.find() && matcher.group("tags") != null) {
             input = matcher.group("tags").trim();
-            if (input.isEmpty()) {
+            if (input.isEmpty() || !isValidTagQuery(input)) {
                 return Either.right(makeInvalidArgumentResult());
             }
             if (!tagList.contains(input)) {
@@ -243,6 +269,21 @@ public class ListArgumentFilter {
         return Either.left(tagList);
     }
 
+    //@@author A0135788M
+    /**
+     * @param query A tag query, made of alternatives separated by {@code |}, each of which may start with {@code !}.
+     * @return {@code true} if and only if every alternative names a tag.
+     */
+    private boolean isValidTagQuery(String query) {
+        for (String alternative : query.split("\\|", -1)) {
+            if (alternative.trim().replaceFirst("^!", "").trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    //@@author A0140702X
     /**
      * A generic helper used to parse a date time string.
      * @param string A {@code string} to parse.
@@ -12,14 +12,38 @@ import linenux.util.RemindersListUtil;
  * A collection of helper functions related to prompting user for more information.
  */
 public class PromptResults {
+    //@@author A0135788M
+    /** The most tasks a search offers the user to choose from. */
+    public static final int MAX_CHOICES = 10;
+
+    //@@author A0144915A
     /**
      * Prompts the user to choose from an {@code ArrayList} of {@code Task}.
      * @param tasks The {@code ArrayList} of {@code Task} that the user can choose from.
      * @return A {@code CommandResult} prompting the user to choose a {@code Task} from {@code tasks}.
      */
     public static CommandResult makePromptIndexResult(ArrayList<Task> tasks) {
+        return makePromptIndexResult(tasks, tasks.size());
+    }
+
+    //@@author A0135788M
+    /**
+     * Prompts the user to choose from the most relevant of the tasks found by a search.
+     * @param tasks The {@code ArrayList} of {@code Task} that the user can choose from.
+     * @param matchCount The number of tasks found, which is more than the size of {@code tasks} if only some of them
+     *                   are offered.
+     * @return A {@code CommandResult} prompting the user to choose a {@code Task} from {@code tasks}.
+     */
+    public static CommandResult makePromptIndexResult(ArrayList<Task> tasks, int matchCount) {
         return () -> {
             StringBuilder builder = new StringBuilder();
+            if (matchCount > tasks.size()) {
+                builder.append("Showing ");
+                builder.append(tasks.size());
+                builder.append(" of ");
+                builder.append(matchCount);
+                builder.append(" matches, refine your keywords to see the rest.\n");
+            }
             builder.append("Which one? (1-");
             builder.append(tasks.size());
             builder.append(", \"cancel\" to cancel the current operation)\n");
@@ -30,6 +54,7 @@ public class PromptResults {
         };
     }
 
+    //@@author A0144915A
     /**
      * Prompts the user to choose from an {@code ArrayList} of {@code Reminder}.
      * @param results The {@code ArrayList} of {@code Reminder} that the user can choose from.
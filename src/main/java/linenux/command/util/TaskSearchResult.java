@@ -0,0 +1,41 @@
+package linenux.command.util;
+
+import java.util.ArrayList;
+
+import linenux.model.Task;
+
+//@@author A0135788M
+/**
+ * The result of a task search which keeps only the most relevant matches, together with the number of tasks which
+ * matched in all.
+ */
+public class TaskSearchResult {
+    private ArrayList<Task> tasks;
+    private int matchCount;
+
+    /**
+     * Construct a {@code TaskSearchResult}.
+     * @param tasks The tasks kept, the most relevant first.
+     * @param matchCount The number of tasks which matched, including those which were not kept.
+     */
+    public TaskSearchResult(ArrayList<Task> tasks, int matchCount) {
+        assert matchCount >= tasks.size();
+
+        this.tasks = tasks;
+        this.matchCount = matchCount;
+    }
+
+    /**
+     * @return The tasks kept, the most relevant first.
+     */
+    public ArrayList<Task> getTasks() {
+        return this.tasks;
+    }
+
+    /**
+     * @return The number of tasks which matched, including those which were not kept.
+     */
+    public int getMatchCount() {
+        return this.matchCount;
+    }
+}
@@ -2,6 +2,9 @@ package linenux.config;
 
 import java.util.Collection;
 
+import linenux.model.Archive;
+import linenux.model.Schedule;
+
 //@@author A0144915A
 public interface Config {
     /**
@@ -35,4 +38,26 @@ public interface Config {
      * @param aliases A {@code Collection} of aliases for that command.
      */
     public void setAliases(String triggerWord, Collection<String> aliases);
+
+    //@@author A0135788M
+    /**
+     * @return The estimated number of bytes that the undo and redo history may use.
+     */
+    default public long getHistoryBudget() {
+        return Schedule.DEFAULT_HISTORY_BUDGET;
+    }
+
+    /**
+     * @return The number of days after which done tasks are archived. Done tasks are never archived if negative.
+     */
+    default public long getArchiveAge() {
+        return Archive.DEFAULT_ARCHIVE_AGE;
+    }
+
+    /**
+     * @return {@code true} if and only if archived tasks are kept in memory-mapped files instead of XML files.
+     */
+    default public boolean isArchiveMapped() {
+        return false;
+    }
 }
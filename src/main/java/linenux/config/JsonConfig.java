@@ -10,6 +10,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.logging.Logger;
 
+import linenux.model.Archive;
+import linenux.model.Schedule;
 import linenux.util.LogsCenter;
 import linenux.util.ThrowableUtil;
 import linenux.view.Alerts;
@@ -31,6 +33,9 @@ public class JsonConfig implements Config{
     private static final String VERSION_KEY = "versionNo";
     private static final String SCHEDULE_PATH_KEY = "schedulePath";
     private static final String ALIASES_KEY = "aliases";
+    private static final String HISTORY_BUDGET_KEY = "historyBudget";
+    private static final String ARCHIVE_AGE_KEY = "archiveAge";
+    private static final String MAPPED_ARCHIVE_KEY = "mappedArchive";
     private static final Logger logger = LogsCenter.getLogger(JsonConfig.class);
 
     private Path configFilePath;
@@ -168,6 +173,42 @@ public class JsonConfig implements Config{
         this.saveConfig();
     }
 
+    /**
+     * @return The estimated number of bytes that the undo and redo history may use.
+     */
+    @Override
+    public long getHistoryBudget() {
+        try {
+            return this.getConfigFile().getLong(HISTORY_BUDGET_KEY);
+        } catch (JSONException e) {
+            return Schedule.DEFAULT_HISTORY_BUDGET;
+        }
+    }
+
+    /**
+     * @return The number of days after which done tasks are archived.
+     */
+    @Override
+    public long getArchiveAge() {
+        try {
+            return this.getConfigFile().getLong(ARCHIVE_AGE_KEY);
+        } catch (JSONException e) {
+            return Archive.DEFAULT_ARCHIVE_AGE;
+        }
+    }
+
+    /**
+     * @return {@code true} if and only if archived tasks are kept in memory-mapped files.
+     */
+    @Override
+    public boolean isArchiveMapped() {
+        try {
+            return this.getConfigFile().getBoolean(MAPPED_ARCHIVE_KEY);
+        } catch (JSONException e) {
+            return false;
+        }
+    }
+
     /**
      * Lazily instantiate the {@code configFile} object.
      * @return A {@code JSONObject} representing the config.
@@ -1,7 +1,12 @@
 package linenux.control;
 
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Objects;
 import java.util.function.BiConsumer;
+import java.util.logging.Logger;
 
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
@@ -21,6 +26,7 @@ import linenux.command.InformationCommand;
 import linenux.command.InvalidCommand;
 import linenux.command.ListCommand;
 import linenux.command.LoadCommand;
+import linenux.command.RedoCommand;
 import linenux.command.RemindCommand;
 import linenux.command.RenameCommand;
 import linenux.command.SaveCommand;
@@ -32,20 +38,28 @@ import linenux.command.UndoneCommand;
 import linenux.command.ViewCommand;
 import linenux.command.result.CommandResult;
 import linenux.config.Config;
+import linenux.model.Archive;
 import linenux.model.Schedule;
+import linenux.storage.ArchiveStorage;
+import linenux.storage.MappedArchiveStorage;
 import linenux.storage.ScheduleStorage;
+import linenux.storage.XmlArchiveStorage;
 import linenux.storage.XmlScheduleStorage;
+import linenux.util.LogsCenter;
 
 //@@author A0135788M
 /**
  * Controls data flow for the entire application.
  */
 public class ControlUnit {
+    private static Logger logger = LogsCenter.getLogger(ControlUnit.class);
+
     private Schedule schedule;
     private ScheduleStorage scheduleStorage;
     private CommandManager commandManager;
     private ObjectProperty<CommandResult> lastCommandResult = new SimpleObjectProperty<>();
     private Config config;
+    private String archivedScheduleFilePath;
     private ArrayList<BiConsumer<String, CommandResult>> postExecuteListeners = new ArrayList<>();
 
     /**
@@ -55,8 +69,10 @@ public class ControlUnit {
     public ControlUnit(Config config) {
         this.scheduleStorage = new XmlScheduleStorage(config);
         this.schedule = (this.scheduleStorage.hasScheduleFile()) ? this.scheduleStorage.loadScheduleFromFile() : new Schedule();
+        this.schedule.setHistoryBudget(config.getHistoryBudget());
         this.commandManager = new CommandManager();
         this.config = config;
+        this.archiveDoneTasks(this.schedule);
 
         this.initializeCommands();
         this.initializeAliases();
@@ -71,6 +87,7 @@ public class ControlUnit {
     public ControlUnit(ScheduleStorage storage, Config config, CommandManager commandManager) {
         this.scheduleStorage = storage;
         this.schedule = this.scheduleStorage.loadScheduleFromFile();
+        this.schedule.setHistoryBudget(config.getHistoryBudget());
         this.config = config;
         this.commandManager = commandManager;
     }
@@ -135,6 +152,18 @@ public class ControlUnit {
      * Save the current {@code Schedule} into the file.
      */
     public void saveSchedule() {
+        String scheduleFilePath = this.config.getScheduleFilePath();
+        if (this.archivedScheduleFilePath != null
+                && !Objects.equals(this.archivedScheduleFilePath, scheduleFilePath)) {
+            // Until every month is copied, the archive stays where it was and the copy is tried again on next save.
+            if (this.schedule.getArchive().moveTo(getArchiveStorage(scheduleFilePath))) {
+                this.archivedScheduleFilePath = scheduleFilePath;
+            } else {
+                logger.warning("Cannot copy the archive to " + scheduleFilePath + ", keeping it with "
+                        + this.archivedScheduleFilePath);
+            }
+        }
+
         this.scheduleStorage.saveScheduleToFile(schedule);
     }
 
@@ -150,6 +179,9 @@ public class ControlUnit {
             schedule = new Schedule();
         }
 
+        if (this.archivedScheduleFilePath != null) {
+            this.archiveDoneTasks(schedule);
+        }
         this.schedule.update(schedule);
     }
 
@@ -161,6 +193,34 @@ public class ControlUnit {
         this.postExecuteListeners.add(listener);
     }
 
+    /**
+     * Attaches the archive of the current schedule file to {@code schedule}, and moves the tasks done longer than
+     * the configured age into it.
+     * @param schedule The {@code Schedule} read from the current schedule file.
+     */
+    private void archiveDoneTasks(Schedule schedule) {
+        this.archivedScheduleFilePath = this.config.getScheduleFilePath();
+        schedule.setArchive(new Archive(getArchiveStorage(this.archivedScheduleFilePath)));
+
+        long archiveAge = this.config.getArchiveAge();
+        if (archiveAge >= 0) {
+            schedule.archiveDoneTasks(LocalDateTime.now().minusDays(archiveAge));
+        }
+    }
+
+    /**
+     * @param scheduleFilePath The path to a schedule file.
+     * @return The {@code ArchiveStorage} of the schedule file, in the configured format.
+     */
+    private ArchiveStorage getArchiveStorage(String scheduleFilePath) {
+        Path path = Paths.get(scheduleFilePath);
+        if (this.config.isArchiveMapped()) {
+            return new MappedArchiveStorage(path);
+        } else {
+            return new XmlArchiveStorage(path);
+        }
+    }
+
     /**
      * Setup aliases for the commands based on what's in the config file.
      */
@@ -193,6 +253,7 @@ public class ControlUnit {
         this.commandManager.addCommand(new ViewCommand(this.schedule));
         this.commandManager.addCommand(new FreeTimeCommand(this.schedule));
         this.commandManager.addCommand(new UndoCommand(this.schedule));
+        this.commandManager.addCommand(new RedoCommand(this.schedule));
 
         this.commandManager.addCommand(new AliasCommand(this.commandManager.getCommandList()));
         this.commandManager.addCommand(new UnaliasCommand(this.commandManager.getCommandList()));
@@ -0,0 +1,210 @@
+package linenux.model;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import linenux.storage.ArchiveStorage;
+import linenux.util.LogsCenter;
+import linenux.util.ThrowableUtil;
+
+//@@author A0135788M
+/**
+ * Contains the tasks which were done long enough ago to be moved out of the {@code Schedule}. Archived tasks are
+ * partitioned by the month in which they were done, and are only read from storage when first needed, so that the
+ * working schedule stays small.
+ */
+public class Archive {
+    private static Logger logger = LogsCenter.getLogger(Archive.class);
+    /** Done tasks are not archived unless an age is configured. */
+    public static final long DEFAULT_ARCHIVE_AGE = -1;
+
+    private ArchiveStorage storage;
+    private State state;
+
+    /**
+     * Constructs an empty archive which is only kept in memory.
+     */
+    public Archive() {
+        this.state = new State();
+    }
+
+    /**
+     * Constructs an archive backed by {@code storage}. Nothing is read until the archived tasks are needed.
+     * @param storage The {@code ArchiveStorage} holding the archived tasks.
+     */
+    public Archive(ArchiveStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * @return {@code true} if and only if the archived tasks have been read from storage.
+     */
+    public boolean isLoaded() {
+        return this.state != null;
+    }
+
+    /**
+     * Returns the list of archived tasks, reading them from storage if needed.
+     */
+    public ArrayList<Task> getTaskList() {
+        return getState().getTaskList();
+    }
+
+    /**
+     * Performs case-insensitive search of the archived tasks using keywords.
+     * @param keywords Search keywords.
+     * @return List of {@code Task} matching the keywords.
+     */
+    public ArrayList<Task> searchTasks(String keywords) {
+        return searchTasks(keywords.split("\\s+"));
+    }
+
+    /**
+     * Performs case-insensitive search of the archived tasks using keywords. If they have not been read yet, they are
+     * scanned one month at a time without being read into the archive.
+     * @param keywords Search keywords.
+     * @return List of {@code Task} matching the keywords.
+     */
+    public ArrayList<Task> searchTasks(String[] keywords) {
+        if (isLoaded()) {
+            return this.state.searchTasks(keywords);
+        }
+
+        // Scan each month instead of loading them, so only the matching tasks are kept.
+        Predicate<Task> matchesKeywords = State.matchesKeywords(keywords);
+        ArrayList<Task> output = new ArrayList<>();
+        for (YearMonth month : this.storage.getMonths()) {
+            try {
+                for (Task task : this.storage.scanMonth(month)) {
+                    if (matchesKeywords.test(task)) {
+                        output.add(task);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warning(ThrowableUtil.getStackTrace(e));
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Writes every archived task into {@code target}, which then backs this archive. If any month cannot be copied,
+     * this archive stays on its current storage, which is left untouched.
+     * @param target The new {@code ArchiveStorage}.
+     * @return {@code true} if and only if every month was copied into {@code target}.
+     */
+    public boolean moveTo(ArchiveStorage target) {
+        try {
+            if (this.storage == null) {
+                for (Map.Entry<YearMonth, ArrayList<Task>> entry : groupByMonth(getTaskList()).entrySet()) {
+                    if (!target.saveMonth(entry.getKey(), entry.getValue())) {
+                        return false;
+                    }
+                }
+            } else {
+                for (YearMonth month : this.storage.getMonths()) {
+                    if (!target.saveMonth(month, this.storage.loadMonth(month))) {
+                        return false;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warning(ThrowableUtil.getStackTrace(e));
+            return false;
+        }
+
+        this.storage = target;
+        return true;
+    }
+
+    /**
+     * Archives done tasks. Only the months that the tasks were done in are read and written.
+     * @param tasks The tasks to archive. Each must have a done time.
+     * @return The tasks which were archived. Tasks are left out if their month could not be written.
+     */
+    ArrayList<Task> add(ArrayList<Task> tasks) {
+        ArrayList<Task> output = new ArrayList<>();
+
+        for (Map.Entry<YearMonth, ArrayList<Task>> entry : groupByMonth(tasks).entrySet()) {
+            if (this.storage == null) {
+                output.addAll(entry.getValue());
+                continue;
+            }
+
+            // A month which cannot be read is left alone, since writing it would drop what it already holds.
+            ArrayList<Task> merged;
+            try {
+                merged = merge(entry);
+            } catch (IOException e) {
+                logger.warning(ThrowableUtil.getStackTrace(e));
+                continue;
+            }
+            if (this.storage.saveMonth(entry.getKey(), merged)) {
+                output.addAll(entry.getValue());
+            }
+        }
+
+        if (this.state != null) {
+            State.Builder builder = this.state.edit();
+            for (Task task : output) {
+                Task archivedTask = this.state.getTaskById(task.getId());
+                if (archivedTask == null) {
+                    builder.addTask(task);
+                } else {
+                    builder.updateTask(archivedTask, task);
+                }
+            }
+            this.state = builder.build();
+        }
+
+        return output;
+    }
+
+    /**
+     * Reads every archived task on first use.
+     */
+    private State getState() {
+        if (this.state == null) {
+            ArrayList<Task> tasks = new ArrayList<>();
+            for (YearMonth month : this.storage.getMonths()) {
+                try {
+                    tasks.addAll(this.storage.loadMonth(month));
+                } catch (IOException e) {
+                    logger.warning(ThrowableUtil.getStackTrace(e));
+                }
+            }
+            this.state = new State(tasks);
+        }
+
+        return this.state;
+    }
+
+    /**
+     * @param entry A month and the tasks to archive in it.
+     * @return The tasks already archived in the month, with those sharing an id with a new task replaced.
+     * @throws IOException If the tasks already archived in the month cannot be read.
+     */
+    private ArrayList<Task> merge(Map.Entry<YearMonth, ArrayList<Task>> entry) throws IOException {
+        TreeMap<Long, Task> tasksById = new TreeMap<>();
+        for (Task task : this.storage.loadMonth(entry.getKey())) {
+            tasksById.put(task.getId(), task);
+        }
+        for (Task task : entry.getValue()) {
+            tasksById.put(task.getId(), task);
+        }
+        return new ArrayList<>(tasksById.values());
+    }
+
+    private static TreeMap<YearMonth, ArrayList<Task>> groupByMonth(ArrayList<Task> tasks) {
+        TreeMap<YearMonth, ArrayList<Task>> output = new TreeMap<>();
+        for (Task task : tasks) {
+            output.computeIfAbsent(YearMonth.from(task.getDoneTime()), month -> new ArrayList<>()).add(task);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,104 @@
+package linenux.model;
+
+import java.util.ArrayList;
+
+//@@author A0135788M
+/**
+ * An append-only log of the changes made to a {@code Schedule}. Consumers read it through a {@code Cursor}, which
+ * returns the changes since its previous read, so they can update incrementally instead of rescanning every task.
+ *
+ * Only the most recent changes are retained. A cursor which falls further behind, or which reads past a point where
+ * the whole schedule was replaced, receives a single {@code RESET} change instead.
+ */
+public class ChangeFeed {
+    private static final int CAPACITY = 1 << 12;
+
+    private final ArrayList<ScheduleChange> log = new ArrayList<>();
+    private long firstSequence = 0;
+    private long lastResetSequence = -1;
+    private long version;
+
+    /**
+     * @param version The version of the initial {@code State}.
+     */
+    ChangeFeed(long version) {
+        this.version = version;
+    }
+
+    /**
+     * A position in the feed.
+     */
+    public class Cursor {
+        private long nextSequence;
+
+        private Cursor(long nextSequence) {
+            this.nextSequence = nextSequence;
+        }
+
+        /**
+         * Reads every change appended since the previous call, or since the cursor was created.
+         * @return The changes in the order they were made. If they cannot be replayed, the only change is a
+         * {@code RESET}.
+         */
+        public ArrayList<ScheduleChange> poll() {
+            long endSequence = getEndSequence();
+            ArrayList<ScheduleChange> output = new ArrayList<>();
+
+            if (this.nextSequence < firstSequence || this.nextSequence <= lastResetSequence) {
+                output.add(ScheduleChange.reset(version));
+            } else {
+                int from = (int) (this.nextSequence - firstSequence);
+                output.addAll(log.subList(from, log.size()));
+            }
+
+            this.nextSequence = endSequence;
+            return output;
+        }
+    }
+
+    /**
+     * @return A {@code Cursor} positioned after every change made so far.
+     */
+    public Cursor cursor() {
+        return new Cursor(getEndSequence());
+    }
+
+    /**
+     * @return The version of the current {@code State}.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * Records the changes which produced the {@code State} of the given version.
+     * @param changes The changes, in order.
+     * @param version The version of the new {@code State}.
+     */
+    void append(ArrayList<ScheduleChange> changes, long version) {
+        this.log.addAll(changes);
+        this.version = version;
+
+        if (this.log.size() > CAPACITY) {
+            int dropped = this.log.size() - CAPACITY / 2;
+            this.log.subList(0, dropped).clear();
+            this.firstSequence += dropped;
+        }
+    }
+
+    /**
+     * Records that the whole schedule was replaced by the {@code State} of the given version.
+     * @param version The version of the new {@code State}.
+     */
+    void reset(long version) {
+        this.firstSequence = getEndSequence();
+        this.log.clear();
+        this.log.add(ScheduleChange.reset(version));
+        this.lastResetSequence = this.firstSequence;
+        this.version = version;
+    }
+
+    private long getEndSequence() {
+        return this.firstSequence + this.log.size();
+    }
+}
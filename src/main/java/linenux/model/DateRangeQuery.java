@@ -0,0 +1,58 @@
+package linenux.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+//@@author A0135788M
+/**
+ * Represents a closed range of time to list tasks and reminders from, as the st/ and et/ arguments of the list
+ * command do. Commands which compute their own range build one directly instead of formatting the times into a
+ * command for the list command to parse again.
+ */
+public class DateRangeQuery {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    /**
+     * Instantiate a {@code DateRangeQuery} from the given start and end time.
+     * @param from The beginning of the range, or {@code null} if the range is unbounded before.
+     * @param to The end of the range, or {@code null} if the range is unbounded after.
+     */
+    public DateRangeQuery(LocalDateTime from, LocalDateTime to) {
+        assert from == null || to == null || !to.isBefore(from);
+
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * @param date A calendar day.
+     * @return A {@code DateRangeQuery} covering the whole of {@code date}.
+     */
+    public static DateRangeQuery onDay(LocalDate date) {
+        return new DateRangeQuery(date.atStartOfDay(), date.atTime(LocalTime.MAX));
+    }
+
+    /**
+     * @param date A calendar day.
+     * @return A {@code DateRangeQuery} covering everything up to the end of {@code date}.
+     */
+    public static DateRangeQuery untilEndOf(LocalDate date) {
+        return new DateRangeQuery(null, date.atTime(LocalTime.MAX));
+    }
+
+    /**
+     * @return The beginning of the range, or {@code null} if the range is unbounded before.
+     */
+    public LocalDateTime getFrom() {
+        return this.from;
+    }
+
+    /**
+     * @return The end of the range, or {@code null} if the range is unbounded after.
+     */
+    public LocalDateTime getTo() {
+        return this.to;
+    }
+}
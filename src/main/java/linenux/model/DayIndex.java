@@ -0,0 +1,91 @@
+package linenux.model;
+
+import java.util.ArrayList;
+
+import linenux.util.PersistentTreeMap;
+
+//@@author A0135788M
+/**
+ * An immutable calendar of the deadlines and events of a {@code State}, bucketed by day. A deadline is kept on the
+ * day it is due, and an event on the day it starts, so the tasks due or starting in a range of days are found by
+ * visiting one bucket per day instead of every task. Only the first and last buckets need their times compared.
+ *
+ * Like the rest of {@code State}, the buckets are persistent, so adding or removing a task allocates O(log n) nodes
+ * and shares everything else with the previous index.
+ */
+class DayIndex {
+    private static final long MINUTES_PER_DAY = 24 * 60;
+
+    private final PersistentTreeMap<Long, PersistentTreeMap<Long, Task>> days;
+
+    /**
+     * Constructs an empty index.
+     */
+    DayIndex() {
+        this(PersistentTreeMap.empty());
+    }
+
+    private DayIndex(PersistentTreeMap<Long, PersistentTreeMap<Long, Task>> days) {
+        this.days = days;
+    }
+
+    /**
+     * @param slot The slot of {@code task}.
+     * @param task The task, which must be a deadline or an event.
+     * @return A new index which also holds {@code task}.
+     */
+    DayIndex add(long slot, Task task) {
+        long day = dayOf(timeOf(task));
+        PersistentTreeMap<Long, Task> bucket = this.days.get(day);
+        bucket = bucket == null ? PersistentTreeMap.empty() : bucket;
+        return new DayIndex(this.days.put(day, bucket.put(slot, task)));
+    }
+
+    /**
+     * @param slot The slot of {@code task}.
+     * @param task The task added by {@code add}.
+     * @return A new index without {@code task}.
+     */
+    DayIndex remove(long slot, Task task) {
+        long day = dayOf(timeOf(task));
+        PersistentTreeMap<Long, Task> bucket = this.days.get(day).remove(slot);
+        return new DayIndex(bucket.isEmpty() ? this.days.remove(day) : this.days.put(day, bucket));
+    }
+
+    /**
+     * Finds the deadlines due and the events starting within the closed range [{@code from}, {@code to}].
+     * @param from The start of the range, in minutes since the epoch.
+     * @param to The end of the range, in minutes since the epoch.
+     * @param output Receives the slots of the matching tasks, in order of day.
+     */
+    void find(long from, long to, ArrayList<Long> output) {
+        if (from > to) {
+            return;
+        }
+
+        long fromDay = dayOf(from);
+        long toDay = dayOf(to);
+        for (PersistentTreeMap.Entry<Long, PersistentTreeMap<Long, Task>> day
+                : this.days.entries(fromDay, true, toDay, true)) {
+            boolean isWhole = day.getKey() != fromDay && day.getKey() != toDay;
+            for (PersistentTreeMap.Entry<Long, Task> entry : day.getValue().entries()) {
+                long time = timeOf(entry.getValue());
+                if (isWhole || (time >= from && time <= to)) {
+                    output.add(entry.getKey());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return The time at which {@code task} is bucketed, in minutes since the epoch.
+     */
+    private static long timeOf(Task task) {
+        assert task.isDeadline() || task.isEvent();
+        return task.isEvent() ? task.getStartEpochMinute() : task.getEndEpochMinute();
+    }
+
+    private static long dayOf(long epochMinute) {
+        return Math.floorDiv(epochMinute, MINUTES_PER_DAY);
+    }
+}
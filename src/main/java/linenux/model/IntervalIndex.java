@@ -0,0 +1,205 @@
+package linenux.model;
+
+import java.util.ArrayList;
+
+//@@author A0135788M
+/**
+ * An immutable index of the time spans of tasks, answering which spans overlap a range in O(log n + k). It is an
+ * AVL tree ordered by start time, where each node also holds the latest end time of its subtree, so that subtrees
+ * ending before the range and subtrees starting after it are skipped.
+ *
+ * Like the rest of {@code State}, the tree is persistent: adding or removing a span copies the O(log n) nodes on its
+ * path and shares every other node with the previous index.
+ */
+class IntervalIndex {
+    /**
+     * A node of the tree. Spans are ordered by start, then end, then slot.
+     */
+    private static final class Node {
+        private final long start;
+        private final long end;
+        private final long slot;
+        private final Task task;
+        private final Node left;
+        private final Node right;
+        private final long maxEnd;
+        private final int height;
+
+        private Node(long start, long end, long slot, Task task, Node left, Node right) {
+            this.start = start;
+            this.end = end;
+            this.slot = slot;
+            this.task = task;
+            this.left = left;
+            this.right = right;
+            this.maxEnd = Math.max(end, Math.max(maxEnd(left), maxEnd(right)));
+            this.height = 1 + Math.max(height(left), height(right));
+        }
+
+        private Node with(Node left, Node right) {
+            return new Node(this.start, this.end, this.slot, this.task, left, right);
+        }
+
+        private int compareTo(long start, long end, long slot) {
+            int output = Long.compare(this.start, start);
+            output = output != 0 ? output : Long.compare(this.end, end);
+            return output != 0 ? output : Long.compare(this.slot, slot);
+        }
+    }
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Constructs an empty index.
+     */
+    IntervalIndex() {
+        this(null, 0);
+    }
+
+    private IntervalIndex(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return The number of spans.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * @param start The start of the span, in minutes since the epoch.
+     * @param end The end of the span, in minutes since the epoch.
+     * @param slot The slot of {@code task}, which tells apart equal spans.
+     * @param task The task.
+     * @return A new index which also holds the span.
+     */
+    IntervalIndex add(long start, long end, long slot, Task task) {
+        return new IntervalIndex(insert(this.root, start, end, slot, task), this.size + 1);
+    }
+
+    /**
+     * @return A new index without the span added with the same arguments, which must be in the index.
+     */
+    IntervalIndex remove(long start, long end, long slot) {
+        return new IntervalIndex(delete(this.root, start, end, slot), this.size - 1);
+    }
+
+    /**
+     * Finds the spans overlapping the closed range [{@code from}, {@code to}].
+     * @param from The start of the range, in minutes since the epoch.
+     * @param to The end of the range, in minutes since the epoch.
+     * @param output Receives the slots of the matching spans, in order of start time.
+     */
+    void findOverlapping(long from, long to, ArrayList<Long> output) {
+        findOverlapping(this.root, from, to, output, null);
+    }
+
+    /**
+     * Finds the tasks whose spans overlap the closed range [{@code from}, {@code to}].
+     * @param from The start of the range, in minutes since the epoch.
+     * @param to The end of the range, in minutes since the epoch.
+     * @return The matching tasks, in order of start time.
+     */
+    ArrayList<Task> findOverlapping(long from, long to) {
+        ArrayList<Task> output = new ArrayList<>();
+        findOverlapping(this.root, from, to, null, output);
+        return output;
+    }
+
+    private static void findOverlapping(Node node, long from, long to, ArrayList<Long> slots, ArrayList<Task> tasks) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+
+        findOverlapping(node.left, from, to, slots, tasks);
+        if (node.start > to) {
+            return;
+        }
+        if (node.end >= from) {
+            if (slots != null) {
+                slots.add(node.slot);
+            }
+            if (tasks != null) {
+                tasks.add(node.task);
+            }
+        }
+        findOverlapping(node.right, from, to, slots, tasks);
+    }
+
+    private static Node insert(Node node, long start, long end, long slot, Task task) {
+        if (node == null) {
+            return new Node(start, end, slot, task, null, null);
+        }
+
+        int comparison = node.compareTo(start, end, slot);
+        if (comparison > 0) {
+            return balance(node.with(insert(node.left, start, end, slot, task), node.right));
+        } else if (comparison < 0) {
+            return balance(node.with(node.left, insert(node.right, start, end, slot, task)));
+        } else {
+            return new Node(start, end, slot, task, node.left, node.right);
+        }
+    }
+
+    private static Node delete(Node node, long start, long end, long slot) {
+        assert node != null;
+
+        int comparison = node.compareTo(start, end, slot);
+        if (comparison > 0) {
+            return balance(node.with(delete(node.left, start, end, slot), node.right));
+        } else if (comparison < 0) {
+            return balance(node.with(node.left, delete(node.right, start, end, slot)));
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else {
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node right = delete(node.right, successor.start, successor.end, successor.slot);
+            return balance(new Node(successor.start, successor.end, successor.slot, successor.task, node.left, right));
+        }
+    }
+
+    private static Node balance(Node node) {
+        int difference = height(node.left) - height(node.right);
+        if (difference > 1) {
+            Node left = node.left;
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left);
+            }
+            return rotateRight(node.with(left, node.right));
+        } else if (difference < -1) {
+            Node right = node.right;
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right);
+            }
+            return rotateLeft(node.with(node.left, right));
+        } else {
+            return node;
+        }
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        return right.with(node.with(node.left, right.left), right.right);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        return left.with(left.left, node.with(left.right, node.right));
+    }
+
+    private static long maxEnd(Node node) {
+        return node == null ? Long.MIN_VALUE : node.maxEnd;
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+}
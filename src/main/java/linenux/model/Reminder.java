@@ -3,6 +3,8 @@ package linenux.model;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
+import linenux.util.StringPool;
+
 //@@author A0127694U
 /**
  * Represents a reminder for a task.
@@ -25,7 +27,7 @@ public class Reminder {
      * @param timeOfReminder The time of the reminder.
      */
     public Reminder(String note, LocalDateTime timeOfReminder) {
-        this.note = note;
+        this.note = note == null ? null : StringPool.internWeakly(note);
         this.timeOfReminder = timeOfReminder;
     }
 
@@ -116,7 +118,7 @@ public class Reminder {
      */
     public Reminder setNote(String newNote) {
         Reminder output = new Reminder(this);
-        output.note = newNote;
+        output.note = newNote == null ? null : StringPool.internWeakly(newNote);
         return output;
     }
 
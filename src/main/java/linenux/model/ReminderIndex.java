@@ -0,0 +1,227 @@
+package linenux.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import linenux.util.PersistentHashMap;
+import linenux.util.PersistentTreeMap;
+
+//@@author A0135788M
+/**
+ * An immutable positional index over the notes of the reminders in a {@code State}. Each case-folded word of a note
+ * maps to the reminders containing it, identified by the slot of their task and their index in the task, along with
+ * the positions of the word in the note. Keyword and phrase queries only visit the reminders containing their words.
+ *
+ * Like the rest of {@code State}, the index is persistent, so indexing a task only allocates O(log n) nodes per word
+ * and shares everything else with the previous index.
+ */
+class ReminderIndex {
+    private static final Pattern TERM_PATTERN = Pattern.compile("\"([^\"]*)\"?|(\\S+)");
+    private static final Comparator<Hit> HIT_ORDER = Comparator.<Hit>comparingLong(hit -> hit.slot)
+            .thenComparingInt(hit -> hit.index);
+
+    /**
+     * A reminder in the index.
+     */
+    static final class Hit {
+        private final long slot;
+        private final int index;
+
+        private Hit(long slot, int index) {
+            this.slot = slot;
+            this.index = index;
+        }
+
+        /**
+         * @return The slot of the task holding the reminder.
+         */
+        long getSlot() {
+            return this.slot;
+        }
+
+        /**
+         * @return The index of the reminder among the reminders of its task.
+         */
+        int getIndex() {
+            return this.index;
+        }
+    }
+
+    private final PersistentHashMap<String, PersistentTreeMap<Hit, int[]>> postings;
+
+    /**
+     * Constructs an empty index.
+     */
+    ReminderIndex() {
+        this(new PersistentHashMap<>());
+    }
+
+    private ReminderIndex(PersistentHashMap<String, PersistentTreeMap<Hit, int[]>> postings) {
+        this.postings = postings;
+    }
+
+    /**
+     * @param slot The slot of {@code task}.
+     * @param task The task whose reminders to index.
+     * @return A new index which also holds the reminders of {@code task}.
+     */
+    ReminderIndex add(long slot, Task task) {
+        if (!task.hasReminders()) {
+            return this;
+        }
+
+        PersistentHashMap<String, PersistentTreeMap<Hit, int[]>> output = this.postings;
+        ArrayList<Reminder> reminders = task.getReminders();
+        for (int i = 0; i < reminders.size(); i++) {
+            Hit hit = new Hit(slot, i);
+            String[] tokens = tokensOf(reminders.get(i).getNote());
+            for (int position = 0; position < tokens.length; position++) {
+                PersistentTreeMap<Hit, int[]> posting = output.get(tokens[position]);
+                posting = posting == null ? new PersistentTreeMap<>(HIT_ORDER) : posting;
+                int[] positions = posting.get(hit);
+                output = output.put(tokens[position], posting.put(hit, append(positions, position)));
+            }
+        }
+        return new ReminderIndex(output);
+    }
+
+    /**
+     * @param slot The slot of {@code task}.
+     * @param task The task whose reminders were indexed by {@code add}.
+     * @return A new index without the reminders of {@code task}.
+     */
+    ReminderIndex remove(long slot, Task task) {
+        if (!task.hasReminders()) {
+            return this;
+        }
+
+        PersistentHashMap<String, PersistentTreeMap<Hit, int[]>> output = this.postings;
+        ArrayList<Reminder> reminders = task.getReminders();
+        for (int i = 0; i < reminders.size(); i++) {
+            Hit hit = new Hit(slot, i);
+            for (String token : tokensOf(reminders.get(i).getNote())) {
+                PersistentTreeMap<Hit, int[]> posting = output.get(token);
+                if (posting == null || !posting.containsKey(hit)) {
+                    continue;
+                }
+                posting = posting.remove(hit);
+                output = posting.isEmpty() ? output.remove(token) : output.put(token, posting);
+            }
+        }
+        return new ReminderIndex(output);
+    }
+
+    /**
+     * Finds the reminders matching any term of a query, ignoring case. A term is either a word, which matches the
+     * notes containing it, or a phrase in double quotes, which matches the notes containing its words in order.
+     * @param query The query.
+     * @return The matching reminders, ordered by slot and then by index.
+     */
+    ArrayList<Hit> search(String query) {
+        TreeSet<Hit> output = new TreeSet<>(HIT_ORDER);
+        Matcher matcher = TERM_PATTERN.matcher(query);
+        while (matcher.find()) {
+            if (matcher.group(2) != null) {
+                addPosting(output, matcher.group(2).toLowerCase());
+            } else {
+                String[] phrase = matcher.group(1).trim().toLowerCase().split("\\s+");
+                addPhrase(output, phrase);
+            }
+        }
+        return new ArrayList<>(output);
+    }
+
+    /**
+     * Finds the reminders containing any of {@code keywords}, ignoring case.
+     * @param keywords The keywords, each of which is a single word.
+     * @return The matching reminders, ordered by slot and then by index.
+     */
+    ArrayList<Hit> search(String[] keywords) {
+        TreeSet<Hit> output = new TreeSet<>(HIT_ORDER);
+        for (String keyword : keywords) {
+            addPosting(output, keyword.toLowerCase());
+        }
+        return new ArrayList<>(output);
+    }
+
+    private void addPosting(TreeSet<Hit> output, String token) {
+        PersistentTreeMap<Hit, int[]> posting = this.postings.get(token);
+        if (posting != null) {
+            for (PersistentTreeMap.Entry<Hit, int[]> entry : posting.entries()) {
+                output.add(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Adds the reminders holding every word of {@code phrase} at consecutive positions. Only the reminders holding
+     * the first word are checked.
+     */
+    private void addPhrase(TreeSet<Hit> output, String[] phrase) {
+        ArrayList<PersistentTreeMap<Hit, int[]>> postings = new ArrayList<>();
+        for (String token : phrase) {
+            PersistentTreeMap<Hit, int[]> posting = this.postings.get(token);
+            if (posting == null) {
+                return;
+            }
+            postings.add(posting);
+        }
+
+        for (PersistentTreeMap.Entry<Hit, int[]> entry : postings.get(0).entries()) {
+            for (int start : entry.getValue()) {
+                if (hasPhraseAt(postings, entry.getKey(), start)) {
+                    output.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+    }
+
+    private static boolean hasPhraseAt(ArrayList<PersistentTreeMap<Hit, int[]>> postings, Hit hit, int start) {
+        for (int i = 1; i < postings.size(); i++) {
+            int[] positions = postings.get(i).get(hit);
+            if (positions == null || !contains(positions, start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The case-folded words of {@code note}, in order. A reminder without a note has no words.
+     */
+    private static String[] tokensOf(String note) {
+        if (note == null) {
+            return new String[0];
+        }
+
+        String[] output = note.split("\\s+");
+        for (int i = 0; i < output.length; i++) {
+            output[i] = output[i].toLowerCase();
+        }
+        return output;
+    }
+
+    private static int[] append(int[] positions, int position) {
+        if (positions == null) {
+            return new int[] {position};
+        }
+
+        int[] output = new int[positions.length + 1];
+        System.arraycopy(positions, 0, output, 0, positions.length);
+        output[positions.length] = position;
+        return output;
+    }
+
+    private static boolean contains(int[] positions, int position) {
+        for (int value : positions) {
+            if (value == position) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -1,37 +1,58 @@
 package linenux.model;
 
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import linenux.command.util.ReminderSearchResult;
-import linenux.util.ArrayListUtil;
+import linenux.command.util.TaskSearchResult;
 
 //@@author A0135788M
 /**
  * Contains all outstanding tasks.
+ *
+ * The history only stores the inverse {@code StateDelta} of every change, so undoing a step costs as much as the
+ * step itself. Its depth is bounded by an estimate of the memory the deltas keep alive rather than a fixed count.
+ *
+ * The current {@code State} is published through an atomic reference, so any thread may read a consistent snapshot
+ * of the schedule without locking. Changes must still be made from a single thread, which also keeps the
+ * {@code ObservableList} returned by {@code getStates()} up to date for the user interface.
  */
 public class Schedule {
-    public static final int MAX_STATES = 10;
+    public static final long DEFAULT_HISTORY_BUDGET = 1L << 20;
+    private final AtomicReference<State> current;
     private final ObservableList<State> states = FXCollections.observableArrayList();
     private final ObservableList<ArrayList<Task>> filteredTaskList = FXCollections.observableArrayList();
+    private final ArrayDeque<StateDelta> undoHistory = new ArrayDeque<>();
+    private final ArrayDeque<StateDelta> redoHistory = new ArrayDeque<>();
+    private long historyBytes = 0;
+    private long historyBudget = DEFAULT_HISTORY_BUDGET;
+    private final ChangeFeed changeFeed;
+    private Archive archive = new Archive();
 
     /**
      * Constructs an empty schedule
      */
     public Schedule() {
-        this.states.add(new State());
+        this(new State());
     }
 
     public Schedule(State s) {
+        this.current = new AtomicReference<>(s);
         this.states.add(s);
+        this.changeFeed = new ChangeFeed(s.getVersion());
     }
 
     /**
      * Adds a task to the schedule
      */
     public void addTask(Task task) {
-        addState(getMostRecentState().addTask(task));
+        commit(getMostRecentState().edit().addTask(task));
     }
 
     /**
@@ -40,11 +61,15 @@ public class Schedule {
      * @param newTask The new ask.
      */
     public void updateTask(Task originalTask, Task newTask) {
-        addState(getMostRecentState().updateTask(originalTask, newTask));
+        commit(getMostRecentState().edit().updateTask(originalTask, newTask));
     }
 
     public void updateTask(ArrayList<Task> originalTasks, ArrayList<Task> newTasks) {
-        addState(getMostRecentState().updateTasks(originalTasks, newTasks));
+        Transaction transaction = transaction();
+        for (int i = 0; i < originalTasks.size(); i++) {
+            transaction.updateTask(originalTasks.get(i), newTasks.get(i));
+        }
+        transaction.commit();
     }
 
     /**
@@ -53,7 +78,7 @@ public class Schedule {
      * @param task The task to delete.
      */
     public void deleteTask(Task task) {
-        addState(getMostRecentState().deleteTask(task));
+        commit(getMostRecentState().edit().deleteTask(task));
     }
 
     /**
@@ -63,7 +88,7 @@ public class Schedule {
      *            The reminder to delete.
      */
     public void deleteReminder(ReminderSearchResult reminder) {
-        addState(getMostRecentState().deleteReminder(reminder));
+        commit(getMostRecentState().edit().deleteReminder(reminder));
     }
 
     /**
@@ -73,21 +98,26 @@ public class Schedule {
      *            The tasks to delete.
      */
     public void deleteTasks(ArrayList<Task> tasks) {
-        State newState = getMostRecentState();
-
+        Transaction transaction = transaction();
         for (Task task : tasks) {
-            newState = newState.deleteTask(task);
+            transaction.deleteTask(task);
         }
+        transaction.commit();
+    }
 
-        addState(newState);
+    /**
+     * Starts a batch of edits which is applied to the schedule as a whole when committed.
+     * @return A new {@code Transaction} on this schedule.
+     */
+    public Transaction transaction() {
+        return new Transaction();
     }
 
     /**
      * Clears all tasks from the schedule
      */
     public void clear() {
-        State newState = new State();
-        addState(newState);
+        commit(getMostRecentState().edit().clear());
     }
 
     //@@author A0144915A
@@ -106,6 +136,20 @@ public class Schedule {
         return getMostRecentState().searchTasks(keywords);
     }
 
+    //@@author A0135788M
+    /**
+     * Performs case-insensitive task search using keywords, keeping only the most relevant tasks.
+     * @param keywords The keywords to search for.
+     * @param condition The condition which the returned tasks must satisfy.
+     * @param limit The maximum number of tasks to return.
+     * @return The most relevant tasks matching the keywords and {@code condition}, the most relevant first, and the
+     * number of such tasks.
+     */
+    public TaskSearchResult searchTasks(String keywords, Predicate<Task> condition, int limit) {
+        return getMostRecentState().searchTasks(keywords.split("\\s+"), condition, limit, LocalDateTime.now());
+    }
+
+    //@@author A0144915A
     /**
      * Performs case-insensitive tag search using keywords.
      *
@@ -118,14 +162,43 @@ public class Schedule {
     }
 
     /**
-     * Search reminders based on keywords.
+     * Search reminders based on keywords. Words in double quotes are searched for as a phrase.
      * @param keywords The keywords to search for.
      * @return An {@code ArrayList} of {@code Reminder} matching the keywords.
      */
     public ArrayList<Reminder> searchReminders(String keywords) {
-        return searchReminders(keywords.split("\\s+"));
+        return getMostRecentState().searchReminders(keywords);
+    }
+
+    //@@author A0135788M
+    /**
+     * Search reminders based on keywords, grouping them by task. Words in double quotes are searched for as a phrase.
+     * @param keywords The keywords to search for.
+     * @return The tasks having reminders matching the keywords, each with its matching reminders.
+     */
+    public ArrayList<ReminderSearchResult> findReminders(String keywords) {
+        return getMostRecentState().findReminders(keywords);
+    }
+
+    /**
+     * Performs case-insensitive task search tolerating typos, for when {@code searchTasks} finds nothing.
+     * @param keywords The keywords to search for.
+     * @return The tasks whose names are close to the keywords, the closest first.
+     */
+    public ArrayList<Task> fuzzySearchTasks(String keywords) {
+        return getMostRecentState().fuzzySearchTasks(keywords);
     }
 
+    /**
+     * Search reminders tolerating typos, for when {@code findReminders} finds nothing.
+     * @param keywords The keywords to search for.
+     * @return The tasks having reminders whose notes are close to the keywords, each with those reminders.
+     */
+    public ArrayList<ReminderSearchResult> fuzzyFindReminders(String keywords) {
+        return getMostRecentState().fuzzyFindReminders(keywords);
+    }
+
+    // @@author A0127694U
     /**
      * Performs case-insensitive reminder search using keywords.
      *
@@ -140,24 +213,33 @@ public class Schedule {
      * Checks if the task given is a unique task.
      */
     public boolean isUniqueTask(Task task) {
-        ArrayList<Task> taskList = getMostRecentState().getTaskList();
-        ArrayList<Task> duplicateTaskList = new ArrayListUtil.ChainableArrayListUtil<>(taskList)
-                .filter(a -> a.equals(task)).value();
-
-        if (duplicateTaskList.size() >= 1) {
-            return false;
-        } else {
-            return true;
-        }
+        return !getMostRecentState().containsTask(task);
     }
 
     /**
-     * Returns the list of states.
+     * Returns an observable list holding the current state as its only element. Every change to the schedule
+     * replaces that element, notifying listeners once.
      */
     public ObservableList<State> getStates() {
         return states;
     }
 
+    /**
+     * Returns the current state. Unlike {@code getStates()}, this may be called from any thread, and since a
+     * {@code State} is immutable, the snapshot stays consistent however the schedule changes afterwards.
+     */
+    public State getSnapshot() {
+        return current.get();
+    }
+
+    /**
+     * Returns the feed of changes made to the schedule. Changes are appended before listeners of
+     * {@code getStates()} are notified, so a listener can read them from its {@code ChangeFeed.Cursor}.
+     */
+    public ChangeFeed getChangeFeed() {
+        return changeFeed;
+    }
+
     public ObservableList<ArrayList<Task>> getFilteredTaskList() {
         return filteredTaskList;
     }
@@ -169,6 +251,30 @@ public class Schedule {
         return getMostRecentState().getTaskList();
     }
 
+    /**
+     * @param task A {@code Task} of the schedule.
+     * @return The position of {@code task}, or -1 if it is not in the schedule. Tasks are listed in ascending order
+     * of position.
+     */
+    public long getPosition(Task task) {
+        return getMostRecentState().getPosition(task);
+    }
+
+    /**
+     * Returns the {@code TaskTable} of the list of tasks.
+     */
+    public TaskTable getTaskTable() {
+        return getMostRecentState().getTaskTable();
+    }
+
+    /**
+     * @param id The id of the task.
+     * @return The {@code Task} with the given id, or {@code null} if there is none.
+     */
+    public Task getTaskById(long id) {
+        return getMostRecentState().getTaskById(id);
+    }
+
     /**
      * Returns the list of filtered tasks.
      */
@@ -181,35 +287,96 @@ public class Schedule {
     }
 
     /**
-     * Returns the list of all task reminders.
+     * Returns the list of all task reminders. The list is shared between callers.
      */
     public ArrayList<Reminder> getReminderList() {
-        ArrayList<Reminder> result = new ArrayList<>();
-        for (Task t : getMostRecentState().getTaskList()) {
-            result.addAll(t.getReminders());
-        }
+        return getMostRecentState().getReminderList();
+    }
 
-        return result;
+    /**
+     * Reverts the most recent change that has not been undone.
+     *
+     * @return {@code true} if and only if a change is undone.
+     */
+    public boolean undo() {
+        return travel(this.undoHistory, this.redoHistory);
     }
 
     /**
-     * Remove the last state if there are more than one.
+     * Reapplies the most recently undone change.
      *
-     * @return {@code true} if and only if a state is removed.
+     * @return {@code true} if and only if a change is redone.
+     */
+    public boolean redo() {
+        return travel(this.redoHistory, this.undoHistory);
+    }
+
+    /**
+     * Sets the estimated number of bytes that the undo and redo history may keep alive. The most recent change can
+     * always be undone, even if it alone exceeds the budget.
+     * @param historyBudget The budget in bytes.
+     */
+    public void setHistoryBudget(long historyBudget) {
+        this.historyBudget = historyBudget;
+        trimHistory();
+    }
+
+    /**
+     * Returns the archive of tasks done long ago.
      */
-    public boolean popState() {
-        if (states.size() > 1) {
-            states.remove(states.size() - 1);
-            return true;
+    public Archive getArchive() {
+        return archive;
+    }
+
+    /**
+     * Replaces the archive of tasks done long ago.
+     * @param archive The new {@code Archive}.
+     */
+    public void setArchive(Archive archive) {
+        this.archive = archive;
+    }
+
+    /**
+     * Moves every task marked as done before {@code cutoff} into the archive. Archiving cannot be undone, so the
+     * history is cleared.
+     * @param cutoff Tasks done before this time are archived.
+     * @return The number of tasks archived.
+     */
+    public int archiveDoneTasks(LocalDateTime cutoff) {
+        ArrayList<Task> doneTasks = getTaskTable().select(getTaskTable().done());
+        ArrayList<Task> expiredTasks = new ArrayList<>();
+        for (Task task : doneTasks) {
+            if (task.getDoneTime() != null && task.getDoneTime().isBefore(cutoff)) {
+                expiredTasks.add(task);
+            }
+        }
+
+        if (expiredTasks.isEmpty()) {
+            return 0;
         }
-        return false;
+
+        ArrayList<Task> archivedTasks = this.archive.add(expiredTasks);
+        State.Builder builder = getMostRecentState().edit();
+        for (Task task : archivedTasks) {
+            builder.deleteTask(task);
+        }
+
+        clearHistory();
+        publish(builder, builder.build());
+        return archivedTasks.size();
     }
 
     /**
-     * Replace the content of the schedule with another schedule.
+     * Replace the content of the schedule with another schedule, along with its archive. The history is cleared
+     * since it does not apply to the new content.
      */
     public void update(Schedule other) {
-        this.states.setAll(other.states);
+        clearHistory();
+        this.archive = other.archive;
+        State state = new State(other.getMostRecentState());
+        this.changeFeed.reset(state.getVersion());
+        this.current.set(state);
+        this.states.setAll(state);
         this.filteredTaskList.setAll(other.filteredTaskList);
     }
 
@@ -226,17 +393,161 @@ public class Schedule {
      * Returns the most recent state of schedule
      */
     private State getMostRecentState() {
-        return states.get(states.size() - 1);
+        return current.get();
     }
 
     /**
-     * Adds a new state to states.
-     * @param state
+     * Makes the state built by {@code builder} the current one and records how to revert it.
+     * @param builder The {@code State.Builder} holding the change.
      */
-    private void addState(State state) {
-        while (states.size() + 1 > MAX_STATES && states.size() > 1) {
-            states.remove(0);
+    private void commit(State.Builder builder) {
+        State state = builder.build();
+        StateDelta delta = builder.delta();
+
+        if (!delta.isEmpty()) {
+            for (StateDelta redo : this.redoHistory) {
+                this.historyBytes -= redo.getEstimatedBytes();
+            }
+            this.redoHistory.clear();
+            push(this.undoHistory, delta);
+        }
+
+        publish(builder, state);
+    }
+
+    /**
+     * Reverts the latest delta of {@code from} and records the inverse in {@code to}.
+     * @return {@code true} if and only if {@code from} was not empty.
+     */
+    private boolean travel(ArrayDeque<StateDelta> from, ArrayDeque<StateDelta> to) {
+        StateDelta delta = from.pollFirst();
+        if (delta == null) {
+            return false;
+        }
+
+        this.historyBytes -= delta.getEstimatedBytes();
+        State.Builder builder = getMostRecentState().edit().revert(delta);
+        push(to, builder.delta());
+        publish(builder, builder.build());
+        return true;
+    }
+
+    /**
+     * Makes {@code state}, built by {@code builder}, the current state.
+     */
+    private void publish(State.Builder builder, State state) {
+        this.changeFeed.append(builder.changes(state.getVersion()), state.getVersion());
+        this.current.set(state);
+        this.states.set(0, state);
+    }
+
+    private void clearHistory() {
+        this.undoHistory.clear();
+        this.redoHistory.clear();
+        this.historyBytes = 0;
+    }
+
+    private void push(ArrayDeque<StateDelta> history, StateDelta delta) {
+        history.addFirst(delta);
+        this.historyBytes += delta.getEstimatedBytes();
+        trimHistory();
+    }
+
+    /**
+     * Forgets changes until the history fits in its budget. Redo entries go first, furthest from the current state
+     * first, and then the oldest undo entries. The most recent undo entry is always kept, or the next redo entry if
+     * everything was undone.
+     */
+    private void trimHistory() {
+        while (this.historyBytes > this.historyBudget) {
+            ArrayDeque<StateDelta> history;
+            if (this.redoHistory.size() > (this.undoHistory.isEmpty() ? 1 : 0)) {
+                history = this.redoHistory;
+            } else if (this.undoHistory.size() > 1) {
+                history = this.undoHistory;
+            } else {
+                return;
+            }
+            this.historyBytes -= history.pollLast().getEstimatedBytes();
+        }
+    }
+
+    /**
+     * A batch of edits to the schedule. Edits are recorded in order and only applied on {@link #commit()}, which
+     * derives one new {@code State} from the latest one, so the whole batch is undone as a single step.
+     */
+    public class Transaction {
+        private final ArrayList<Consumer<State.Builder>> edits = new ArrayList<>();
+        private boolean isCommitted = false;
+
+        private Transaction() {
+        }
+
+        /**
+         * @param task The task to add.
+         * @return This {@code Transaction}.
+         */
+        public Transaction addTask(Task task) {
+            return record(builder -> builder.addTask(task));
+        }
+
+        /**
+         * @param originalTask The original version of the task.
+         * @param newTask The edited version of the task.
+         * @return This {@code Transaction}.
+         */
+        public Transaction updateTask(Task originalTask, Task newTask) {
+            return record(builder -> builder.updateTask(originalTask, newTask));
+        }
+
+        /**
+         * @param task The task to delete.
+         * @return This {@code Transaction}.
+         */
+        public Transaction deleteTask(Task task) {
+            return record(builder -> builder.deleteTask(task));
+        }
+
+        /**
+         * @param task The task to add the reminder to.
+         * @param reminder The reminder to add.
+         * @return This {@code Transaction}.
+         */
+        public Transaction addReminder(Task task, Reminder reminder) {
+            return record(builder -> builder.addReminder(task, reminder));
+        }
+
+        /**
+         * @param reminder The reminder to delete.
+         * @return This {@code Transaction}.
+         */
+        public Transaction deleteReminder(ReminderSearchResult reminder) {
+            return record(builder -> builder.deleteReminder(reminder));
+        }
+
+        /**
+         * Applies every recorded edit as one new state of the schedule. Committing an empty transaction does not
+         * change the schedule.
+         */
+        public void commit() {
+            assert !this.isCommitted;
+            this.isCommitted = true;
+
+            if (this.edits.isEmpty()) {
+                return;
+            }
+
+            State.Builder builder = getMostRecentState().edit();
+            for (Consumer<State.Builder> edit : this.edits) {
+                edit.accept(builder);
+            }
+            Schedule.this.commit(builder);
+        }
+
+        private Transaction record(Consumer<State.Builder> edit) {
+            assert !this.isCommitted;
+            this.edits.add(edit);
+            return this;
         }
-        states.add(state);
     }
 }
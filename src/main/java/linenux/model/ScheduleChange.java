@@ -0,0 +1,95 @@
+package linenux.model;
+
+//@@author A0135788M
+/**
+ * A single change to a {@code Schedule}, as read from its {@code ChangeFeed}.
+ */
+public class ScheduleChange {
+    public enum Kind {
+        /** A task is added. {@code getTask} is the new task. */
+        TASK_ADDED,
+        /** A task is replaced. {@code getPreviousTask} is the old version and {@code getTask} the new one. */
+        TASK_UPDATED,
+        /** A task is removed. {@code getPreviousTask} is the removed task. */
+        TASK_REMOVED,
+        /** A reminder is added to {@code getTask}. */
+        REMINDER_ADDED,
+        /** A reminder is removed from a task. {@code getTask} is the task after the removal, if it still exists. */
+        REMINDER_REMOVED,
+        /** The changes cannot be replayed, so consumers must rebuild from the current {@code State}. */
+        RESET
+    }
+
+    private final Kind kind;
+    private final long version;
+    private final long position;
+    private final Task task;
+    private final Task previousTask;
+    private final Reminder reminder;
+
+    private ScheduleChange(Kind kind, long version, long position, Task task, Task previousTask,
+                           Reminder reminder) {
+        this.kind = kind;
+        this.version = version;
+        this.position = position;
+        this.task = task;
+        this.previousTask = previousTask;
+        this.reminder = reminder;
+    }
+
+    static ScheduleChange taskChange(long version, long position, Task previousTask, Task task) {
+        Kind kind = previousTask == null ? Kind.TASK_ADDED : task == null ? Kind.TASK_REMOVED : Kind.TASK_UPDATED;
+        return new ScheduleChange(kind, version, position, task, previousTask, null);
+    }
+
+    static ScheduleChange reminderChange(Kind kind, long version, long position, Task task, Reminder reminder) {
+        return new ScheduleChange(kind, version, position, task, null, reminder);
+    }
+
+    static ScheduleChange reset(long version) {
+        return new ScheduleChange(Kind.RESET, version, -1, null, null, null);
+    }
+
+    /**
+     * @return The kind of this change.
+     */
+    public Kind getKind() {
+        return this.kind;
+    }
+
+    /**
+     * @return The version of the {@code State} produced by this change.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @return The position of the affected task. Tasks are listed in ascending order of position, as given by
+     * {@code State.getPosition}.
+     */
+    public long getPosition() {
+        return this.position;
+    }
+
+    /**
+     * @return The task after the change, or {@code null} if there is none.
+     */
+    public Task getTask() {
+        return this.task;
+    }
+
+    /**
+     * @return The task before the change, or {@code null} if there is none.
+     */
+    public Task getPreviousTask() {
+        return this.previousTask;
+    }
+
+    /**
+     * @return The reminder added or removed, or {@code null} for other kinds of changes.
+     */
+    public Reminder getReminder() {
+        return this.reminder;
+    }
+}
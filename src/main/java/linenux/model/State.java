@@ -1,36 +1,221 @@
 package linenux.model;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 import linenux.command.util.ReminderSearchResult;
+import linenux.command.util.TaskSearchResult;
 import linenux.util.ArrayListUtil;
+import linenux.util.LocalDateTimeUtil;
+import linenux.util.PersistentHashMap;
+import linenux.util.PersistentTreeMap;
 
 //@@author A0135788M
 /**
  * Represents a snapshot in time of a schedule. The State class is immutable.
+ *
+ * Tasks are kept in a persistent tree keyed by an insertion slot, so deriving a new {@code State} only allocates
+ * O(log n) new nodes and shares everything else with the previous {@code State}. A persistent hash index from task
+ * id to slot lets tasks be located without scanning, and another one counts the tasks equal to a given task so that
+ * duplicates are found in constant time. Undone deadlines and events are also kept in persistent trees ordered by
+ * end and start time respectively, which every edit patches in O(log n), so their sorted views never need a sort.
+ * Finally, an inverted index maps each case-folded word of a task name to the slots of the tasks containing it, so
+ * that a keyword search only visits the matching tasks. A {@code ReminderIndex} does the same for reminder notes.
+ * For time range queries, a {@code DayIndex} buckets deadlines and events by calendar day and an {@code IntervalIndex}
+ * holds the spans of every event. Reminders are kept in a persistent tree ordered by time as well. Lastly, two
+ * {@code TrigramIndex} hold the trigrams of task names and reminder notes, for searches tolerating typos.
  */
 public class State {
-    private final ArrayList<Task> tasks;
+    /** The order in which deadlines are displayed. */
+    public static final Comparator<Task> DEADLINE_ORDER = Comparator.comparingLong(Task::getEndEpochMinute)
+            .thenComparing(Task::getTaskName);
+    /** The order in which events are displayed. */
+    public static final Comparator<Task> EVENT_ORDER = Comparator.comparingLong(Task::getStartEpochMinute)
+            .thenComparing(Task::getTaskName);
+    /** The order in which todos are displayed. */
+    public static final Comparator<Task> TODO_ORDER = Comparator.comparing(Task::getTaskName);
+
+    private static final AtomicLong nextVersion = new AtomicLong();
+    private static final double BM25_K1 = 1.2;
+    private static final double BM25_B = 0.75;
+    private static final double TAG_WEIGHT = 0.5;
+    private static final double NOTE_WEIGHT = 0.25;
+    private static final double URGENCY_WEIGHT = 0.5;
+    /** The order of matches from the least relevant, which the heap of {@code searchTasks} drops first. */
+    private static final Comparator<Match> MATCH_ORDER = Comparator.<Match>comparingDouble(match -> match.score)
+            .thenComparing(Comparator.<Match>comparingLong(match -> match.slot).reversed());
+    private static final Derived<ArrayList<Task>> UNDONE_TASKS = new Derived<>(state ->
+            state.getTaskTable().select(state.getTaskTable().notDone()));
+    private static final Comparator<OrderKey> ORDER_KEY_ORDER = Comparator.<OrderKey>comparingLong(key -> key.time)
+            .thenComparing(key -> key.name)
+            .thenComparingLong(key -> key.slot);
+    private static final Derived<ArrayList<Task>> UNDONE_DEADLINES = new Derived<>(state -> state.deadlines.values());
+    private static final Derived<ArrayList<Task>> UNDONE_EVENTS = new Derived<>(state -> state.events.values());
+    private static final Derived<ArrayList<Task>> UNDONE_TODOS = new Derived<>(state ->
+            sorted(state.getUndoneTasks(), Task::isTodo, TODO_ORDER));
+    private static final Comparator<ReminderKey> REMINDER_KEY_ORDER = Comparator.<ReminderKey, LocalDateTime>comparing(
+            key -> key.time, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingLong(key -> key.slot)
+            .thenComparingInt(key -> key.index);
+    private static final Derived<ArrayList<Reminder>> REMINDERS_BY_TIME = new Derived<>(state ->
+            state.reminderTimes.values());
+    private static final Derived<ArrayList<Reminder>> REMINDERS = new Derived<>(state -> {
+        ArrayList<Reminder> result = new ArrayList<>();
+        for (Task task : state.getTaskList()) {
+            if (task.hasReminders()) {
+                result.addAll(task.getReminders());
+            }
+        }
+        return result;
+    });
+
+    private final long version = nextVersion.getAndIncrement();
+    private final PersistentTreeMap<Long, Task> tasks;
+    private final PersistentHashMap<Long, Long> slotsById;
+    private final PersistentHashMap<Task, Integer> taskCounts;
+    private final PersistentTreeMap<OrderKey, Task> deadlines;
+    private final PersistentTreeMap<OrderKey, Task> events;
+    private final PersistentHashMap<String, PersistentTreeMap<Long, Task>> postings;
+    private final ReminderIndex reminderIndex;
+    private final IntervalIndex eventSpans;
+    private final DayIndex taskDays;
+    private final PersistentTreeMap<ReminderKey, Reminder> reminderTimes;
+    private final TrigramIndex<Long> nameTrigrams;
+    private final TrigramIndex<ReminderKey> noteTrigrams;
+    private final long nameWords;
+    private final long nextSlot;
+    private volatile ArrayList<Task> taskList;
+    private volatile TaskTable taskTable;
+    private final ConcurrentHashMap<Derived<?>, Object> derivedValues = new ConcurrentHashMap<>();
+
+    /**
+     * A value computed from a {@code State}. Each {@code State} computes a given {@code Derived} value at most once,
+     * when it is first requested, and the value is discarded along with the {@code State}.
+     *
+     * @param <T> The type of the value.
+     */
+    public static final class Derived<T> {
+        private final Function<State, ? extends T> compute;
+
+        /**
+         * @param compute Computes the value from a {@code State}. It may request other derived values of the same
+         * {@code State}, and must not modify the {@code State} or depend on anything else.
+         */
+        public Derived(Function<State, ? extends T> compute) {
+            this.compute = compute;
+        }
+    }
+
+    /**
+     * A task scored by {@code searchTasks}.
+     */
+    private static final class Match {
+        private final long slot;
+        private final Task task;
+        private final double score;
+
+        private Match(long slot, Task task, double score) {
+            this.slot = slot;
+            this.task = task;
+            this.score = score;
+        }
+    }
+
+    /**
+     * The position of a task in the deadline or event index: its end or start time, then its name, then its slot.
+     */
+    private static final class OrderKey {
+        private final long time;
+        private final String name;
+        private final long slot;
+
+        private OrderKey(long time, String name, long slot) {
+            this.time = time;
+            this.name = name;
+            this.slot = slot;
+        }
+
+        /**
+         * @return The key of {@code task} at {@code slot} in the index it belongs to.
+         */
+        private static OrderKey of(long slot, Task task) {
+            long time = task.isDeadline() ? task.getEndEpochMinute() : task.getStartEpochMinute();
+            return new OrderKey(time, task.getTaskName(), slot);
+        }
+
+        /**
+         * @return A key ordered before every key whose time is at or after {@code from}.
+         */
+        private static OrderKey from(LocalDateTime from) {
+            // Round up, since task times are whole minutes.
+            return new OrderKey(LocalDateTimeUtil.toEpochMinuteCeiling(from), "", Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * The position of a reminder in the reminder index: its time, then the slot of its task, then its index in the
+     * task.
+     */
+    private static final class ReminderKey {
+        private final LocalDateTime time;
+        private final long slot;
+        private final int index;
+
+        private ReminderKey(LocalDateTime time, long slot, int index) {
+            this.time = time;
+            this.slot = slot;
+            this.index = index;
+        }
+
+        /**
+         * @return A key ordered before every reminder at {@code time}, or after all of them if {@code after}.
+         */
+        private static ReminderKey bound(LocalDateTime time, boolean after) {
+            return after
+                    ? new ReminderKey(time, Long.MAX_VALUE, Integer.MAX_VALUE)
+                    : new ReminderKey(time, Long.MIN_VALUE, Integer.MIN_VALUE);
+        }
+    }
 
     /**
      * Construct an empty {@code State}.
      */
     public State(){
-        this.tasks = new ArrayList<>();
+        this(PersistentTreeMap.empty(), new PersistentHashMap<>(), new PersistentHashMap<>(),
+                new PersistentTreeMap<>(ORDER_KEY_ORDER), new PersistentTreeMap<>(ORDER_KEY_ORDER),
+                new PersistentHashMap<>(), new ReminderIndex(), new IntervalIndex(), new DayIndex(),
+                new PersistentTreeMap<>(REMINDER_KEY_ORDER), new TrigramIndex<>(Long::compare),
+                new TrigramIndex<>(REMINDER_KEY_ORDER), 0, 0);
     }
 
     /**
-     * Copy constructor.
+     * Copy constructor. Since {@code State} is immutable, the copy shares its tasks with {@code other}.
      * @param other The {@code State} to copy from.
      */
     public State(State other) {
-        this.tasks = new ArrayList<>();
-
-        for (Task t : other.tasks) {
-            this.tasks.add(new Task(t.getTaskName(), t.isDone(), t.getStartTime(), t.getEndTime(), t.getTags(),
-                    t.getReminders()));
-        }
+        this(other.tasks, other.slotsById, other.taskCounts, other.deadlines, other.events, other.postings,
+                other.reminderIndex, other.eventSpans, other.taskDays, other.reminderTimes,
+                other.nameTrigrams, other.noteTrigrams, other.nameWords, other.nextSlot);
+        this.taskList = other.taskList;
+        this.taskTable = other.taskTable;
+        this.derivedValues.putAll(other.derivedValues);
     }
 
     /**
@@ -38,7 +223,30 @@ public class State {
      * @param taskList An {@code ArrayList} of {@code Task}.
      */
     public State(ArrayList<Task> taskList) {
-        this.tasks = taskList;
+        this(fromTaskList(taskList));
+    }
+
+    private State(PersistentTreeMap<Long, Task> tasks, PersistentHashMap<Long, Long> slotsById,
+                  PersistentHashMap<Task, Integer> taskCounts, PersistentTreeMap<OrderKey, Task> deadlines,
+                  PersistentTreeMap<OrderKey, Task> events,
+                  PersistentHashMap<String, PersistentTreeMap<Long, Task>> postings, ReminderIndex reminderIndex,
+                  IntervalIndex eventSpans, DayIndex taskDays,
+                  PersistentTreeMap<ReminderKey, Reminder> reminderTimes, TrigramIndex<Long> nameTrigrams,
+                  TrigramIndex<ReminderKey> noteTrigrams, long nameWords, long nextSlot) {
+        this.tasks = tasks;
+        this.slotsById = slotsById;
+        this.taskCounts = taskCounts;
+        this.deadlines = deadlines;
+        this.events = events;
+        this.postings = postings;
+        this.reminderIndex = reminderIndex;
+        this.eventSpans = eventSpans;
+        this.taskDays = taskDays;
+        this.reminderTimes = reminderTimes;
+        this.nameTrigrams = nameTrigrams;
+        this.noteTrigrams = noteTrigrams;
+        this.nameWords = nameWords;
+        this.nextSlot = nextSlot;
     }
 
     /**
@@ -47,9 +255,7 @@ public class State {
      * @return The new State of the schedule.
      */
     public State addTask(Task task) {
-        State output = new State(this);
-        output.tasks.add(task);
-        return output;
+        return edit().addTask(task).build();
     }
 
     /**
@@ -59,10 +265,7 @@ public class State {
      * @param newTask The edited version of the specified task.
      */
     public State updateTask(Task originalTask, Task newTask) {
-        int taskIndex = tasks.indexOf(originalTask);
-        State output = new State(this);
-        output.tasks.set(taskIndex, newTask);
-        return output;
+        return edit().updateTask(originalTask, newTask).build();
     }
 
     /**
@@ -74,12 +277,11 @@ public class State {
      *            The edited version of the specified task.
      */
     public State updateTasks(ArrayList<Task> originalTasks, ArrayList<Task> newTasks) {
-        State output = new State(this);
+        Builder builder = edit();
         for (int i = 0; i < originalTasks.size(); i++) {
-            int taskIndex = tasks.indexOf(originalTasks.get(i));
-            output.tasks.set(taskIndex, newTasks.get(i));
+            builder.updateTask(originalTasks.get(i), newTasks.get(i));
         }
-        return output;
+        return builder.build();
     }
 
     /**
@@ -90,10 +292,7 @@ public class State {
      * @return The new State of the schedule.
      */
     public State deleteTask(Task task) {
-        int taskIndex = tasks.indexOf(task);
-        State output = new State(this);
-        output.tasks.remove(taskIndex);
-        return output;
+        return edit().deleteTask(task).build();
     }
 
     /**
@@ -104,58 +303,481 @@ public class State {
      * @return The new State of the schedule.
      */
     public State deleteReminder(ReminderSearchResult reminder) {
-        assert (reminder.getReminders().size() == 1);
+        return edit().deleteReminder(reminder).build();
+    }
 
-        int taskIndex = this.tasks.indexOf(reminder.getTask());
-        State output = new State(this);
-        output.tasks.set(taskIndex, output.tasks.get(taskIndex).removeReminder(reminder.getReminders().get(0)));
-        return output;
+    /**
+     * @return A {@code Builder} which derives a new {@code State} from this one.
+     */
+    Builder edit() {
+        return new Builder(this);
     }
 
     /**
-     * Returns the list of tasks.
+     * @param id The id of the task.
+     * @return The {@code Task} with the given id, or {@code null} if there is none.
+     */
+    public Task getTaskById(long id) {
+        Long slot = this.slotsById.get(id);
+        return slot == null ? null : this.tasks.get(slot);
+    }
+
+    /**
+     * @return The version of this {@code State}. Every {@code State} created afterwards has a larger version.
+     */
+    public long getVersion() {
+        return this.version;
+    }
+
+    /**
+     * @param task A {@code Task} of this {@code State}.
+     * @return The position of {@code task}, or -1 if it is not in this {@code State}. Tasks are listed in ascending
+     * order of position, and a task keeps its position when it is edited.
+     */
+    public long getPosition(Task task) {
+        Long slot = this.slotsById.get(task.getId());
+        return slot == null || this.tasks.get(slot) != task ? -1 : slot;
+    }
+
+    /**
+     * @param task The {@code Task} to look for.
+     * @return {@code true} if and only if this {@code State} has a task equal to {@code task}, that is, one with the
+     * same name, ignoring case, and the same times.
+     */
+    public boolean containsTask(Task task) {
+        return this.taskCounts.containsKey(task);
+    }
+
+    /**
+     * Returns the list of tasks. The list is materialized once per {@code State} and shared between callers.
      */
     public ArrayList<Task> getTaskList() {
-        return tasks;
+        ArrayList<Task> result = this.taskList;
+        if (result == null) {
+            result = this.tasks.values();
+            this.taskList = result;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the {@code TaskTable} of the list of tasks. Like the list itself, it is built at most once per
+     * {@code State}, and patched from the previous {@code State} when only a few tasks changed.
+     */
+    public TaskTable getTaskTable() {
+        TaskTable result = this.taskTable;
+        if (result == null) {
+            result = new TaskTable(getTaskList());
+            this.taskTable = result;
+        }
+        return result;
+    }
+
+    /**
+     * @param derived The value to compute.
+     * @return The value of {@code derived} for this {@code State}, which is computed on the first request only.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(Derived<T> derived) {
+        Object result = this.derivedValues.get(derived);
+        if (result == null) {
+            // Computed outside the map, since a derived value may request others.
+            result = derived.compute.apply(this);
+            Object previous = this.derivedValues.putIfAbsent(derived, result);
+            if (previous != null) {
+                result = previous;
+            }
+        }
+        return (T) result;
+    }
+
+    /**
+     * Returns the tasks which are not done, in schedule order. The list is shared between callers.
+     */
+    public ArrayList<Task> getUndoneTasks() {
+        return get(UNDONE_TASKS);
+    }
+
+    /**
+     * Returns the deadlines which are not done, in {@code DEADLINE_ORDER}. The list is shared between callers.
+     */
+    public ArrayList<Task> getUndoneDeadlines() {
+        return get(UNDONE_DEADLINES);
+    }
+
+    /**
+     * Returns the events which are not done, in {@code EVENT_ORDER}. The list is shared between callers.
+     */
+    public ArrayList<Task> getUndoneEvents() {
+        return get(UNDONE_EVENTS);
+    }
+
+    /**
+     * @param from The earliest end time.
+     * @param limit The maximum number of deadlines to return.
+     * @return The first {@code limit} deadlines which are not done and end at or after {@code from}, in
+     * {@code DEADLINE_ORDER}. The cost is O(log n + limit).
+     */
+    public ArrayList<Task> getUndoneDeadlinesFrom(LocalDateTime from, int limit) {
+        return firstValues(this.deadlines, OrderKey.from(from), limit);
+    }
+
+    /**
+     * @param from The earliest start time.
+     * @param limit The maximum number of events to return.
+     * @return The first {@code limit} events which are not done and start at or after {@code from}, in
+     * {@code EVENT_ORDER}. The cost is O(log n + limit).
+     */
+    public ArrayList<Task> getUndoneEventsFrom(LocalDateTime from, int limit) {
+        return firstValues(this.events, OrderKey.from(from), limit);
+    }
+
+    /**
+     * Finds the rows of {@code getTaskTable()} which happen between {@code from} and {@code to}, inclusive, as
+     * {@code TaskTable.inRange} does. Only the events and deadlines in the range are visited.
+     * @param from The start of the range, or {@code null} if the range is unbounded before.
+     * @param to The end of the range, or {@code null} if the range is unbounded after.
+     * @return The matching rows.
+     */
+    public BitSet inRange(LocalDateTime from, LocalDateTime to) {
+        return inRange(new DateRangeQuery(from, to));
     }
 
     /**
-     * Performs case-insensitive task search using keywords.
+     * Finds the rows of {@code getTaskTable()} which happen within {@code query}, as {@code TaskTable.inRange} does.
+     * The deadlines due and the events starting within the range are read from the buckets of its days, and the
+     * events already in progress at its start from the tree of event spans.
+     * @param query The range of time.
+     * @return The matching rows.
+     */
+    public BitSet inRange(DateRangeQuery query) {
+        // Task times are whole minutes, so t >= from iff t >= ceil(from) and t <= to iff t <= floor(to).
+        long fromCeil = query.getFrom() == null
+                ? Long.MIN_VALUE
+                : LocalDateTimeUtil.toEpochMinuteCeiling(query.getFrom());
+        long toFloor = query.getTo() == null ? Long.MAX_VALUE : LocalDateTimeUtil.toEpochMinute(query.getTo());
+
+        ArrayList<Long> slots = new ArrayList<>();
+        this.taskDays.find(fromCeil, toFloor, slots);
+        if (query.getFrom() != null) {
+            // Events starting before the range and ending within or after it. A range within a single minute has
+            // toFloor < fromCeil, and only holds the events around that minute.
+            this.eventSpans.findOverlapping(fromCeil, Math.min(fromCeil, toFloor), slots);
+        }
+
+        BitSet output = getTaskTable().todos();
+        for (long slot : slots) {
+            output.set(this.tasks.indexOfKey(slot));
+        }
+        return output;
+    }
+
+    /**
+     * Finds the events, done or not, which overlap the open interval ({@code from}, {@code to}).
+     * @param from The start of the interval.
+     * @param to The end of the interval.
+     * @return The matching events, in order of start time.
+     */
+    public ArrayList<Task> getEventsOverlapping(LocalDateTime from, LocalDateTime to) {
+        // Task times are whole minutes, so t > from iff t > floor(from) and t < to iff t < ceil(to).
+        long fromFloor = LocalDateTimeUtil.toEpochMinute(from);
+        long toCeil = LocalDateTimeUtil.toEpochMinuteCeiling(to);
+        return this.eventSpans.findOverlapping(fromFloor + 1, toCeil - 1);
+    }
+
+    /**
+     * Returns the todos which are not done, in {@code TODO_ORDER}. The list is shared between callers.
+     */
+    public ArrayList<Task> getUndoneTodos() {
+        return get(UNDONE_TODOS);
+    }
+
+    /**
+     * Returns the reminders of every task, in schedule order. The list is shared between callers.
+     */
+    public ArrayList<Reminder> getReminderList() {
+        return get(REMINDERS);
+    }
+
+    /**
+     * Returns the reminders of every task, ordered by time and then by schedule order. The list is shared between
+     * callers.
+     */
+    public ArrayList<Reminder> getRemindersByTime() {
+        return get(REMINDERS_BY_TIME);
+    }
+
+    /**
+     * Finds the reminders between two times in O(log n + k).
+     * @param from The earliest time, or {@code null} if the range is unbounded before.
+     * @param fromInclusive Whether reminders at {@code from} are included.
+     * @param to The latest time, or {@code null} if the range is unbounded after.
+     * @param toInclusive Whether reminders at {@code to} are included.
+     * @return The matching reminders, ordered by time and then by schedule order.
+     */
+    public ArrayList<Reminder> getRemindersBetween(LocalDateTime from, boolean fromInclusive, LocalDateTime to,
+                                                   boolean toInclusive) {
+        ReminderKey fromKey = from == null ? null : ReminderKey.bound(from, !fromInclusive);
+        ReminderKey toKey = to == null ? null : ReminderKey.bound(to, toInclusive);
+        ArrayList<Reminder> output = new ArrayList<>();
+        for (PersistentTreeMap.Entry<ReminderKey, Reminder> entry : this.reminderTimes.entries(fromKey, true, toKey,
+                false)) {
+            output.add(entry.getValue());
+        }
+        return output;
+    }
+
+    /**
+     * @param query The range of time.
+     * @return The reminders within {@code query}, ends included, ordered by time and then by schedule order.
+     */
+    public ArrayList<Reminder> getReminders(DateRangeQuery query) {
+        return getRemindersBetween(query.getFrom(), true, query.getTo(), true);
+    }
+
+    /**
+     * @param from The earliest time.
+     * @param limit The maximum number of reminders to return.
+     * @return The first {@code limit} reminders at or after {@code from}, ordered by time. The cost is
+     * O(log n + limit).
+     */
+    public ArrayList<Reminder> getUpcomingReminders(LocalDateTime from, int limit) {
+        ArrayList<Reminder> output = new ArrayList<>();
+        for (PersistentTreeMap.Entry<ReminderKey, Reminder> entry : this.reminderTimes.entries(
+                ReminderKey.bound(from, false), true, null, false)) {
+            if (output.size() >= limit) {
+                break;
+            }
+            output.add(entry.getValue());
+        }
+        return output;
+    }
+
+    /**
+     * Performs case-insensitive task search using keywords. Only the tasks containing a keyword are visited.
      *
      * @param keywords
      *            Search keywords
      * @return List of {@code Task} matching the keywords.
      */
     public ArrayList<Task> searchTasks(String[] keywords) {
+        TreeMap<Long, Task> matches = new TreeMap<>();
+        for (String keyword : keywords) {
+            PersistentTreeMap<Long, Task> posting = this.postings.get(keyword.toLowerCase());
+            if (posting != null) {
+                for (PersistentTreeMap.Entry<Long, Task> entry : posting.entries()) {
+                    matches.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return new ArrayList<>(matches.values());
+    }
+
+    /**
+     * Performs the same search as {@code searchTasks}, keeping only the {@code limit} most relevant tasks. Tasks are
+     * scored with BM25 over their names, where matching tags and reminder notes also count, with a lower weight.
+     * Tasks which are due, happening, or were done within a few days of {@code now} are boosted. Only the matching
+     * tasks are scored, and a bounded heap keeps the best of them, so the whole match set is never sorted.
+     * @param keywords Search keywords.
+     * @param condition The condition which the returned tasks must satisfy.
+     * @param limit The maximum number of tasks to return.
+     * @param now The current time.
+     * @return The most relevant tasks matching the keywords and {@code condition}, the most relevant first, and the
+     * number of such tasks. Tasks of equal relevance are in schedule order.
+     */
+    public TaskSearchResult searchTasks(String[] keywords, Predicate<Task> condition, int limit, LocalDateTime now) {
+        LinkedHashMap<String, Double> weights = new LinkedHashMap<>();
+        TreeMap<Long, Task> matches = new TreeMap<>();
+        for (String keyword : keywords) {
+            String term = keyword.toLowerCase();
+            PersistentTreeMap<Long, Task> posting = this.postings.get(term);
+            if (posting == null || weights.containsKey(term)) {
+                continue;
+            }
+
+            // Terms found in fewer tasks weigh more.
+            int count = posting.size();
+            weights.put(term, Math.log(1 + (this.tasks.size() - count + 0.5) / (count + 0.5)));
+            for (PersistentTreeMap.Entry<Long, Task> entry : posting.entries()) {
+                matches.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        double averageLength = this.tasks.isEmpty() ? 1 : (double) this.nameWords / this.tasks.size();
+        PriorityQueue<Match> best = new PriorityQueue<>(MATCH_ORDER);
+        int matchCount = 0;
+        for (Map.Entry<Long, Task> entry : matches.entrySet()) {
+            if (!condition.test(entry.getValue())) {
+                continue;
+            }
+            matchCount++;
+            best.add(new Match(entry.getKey(), entry.getValue(),
+                    scoreOf(entry.getValue(), weights, averageLength, now)));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+
+        ArrayList<Task> output = new ArrayList<>();
+        while (!best.isEmpty()) {
+            output.add(best.poll().task);
+        }
+        Collections.reverse(output);
+        return new TaskSearchResult(output, matchCount);
+    }
+
+    /**
+     * @return The BM25 score of {@code task} for the terms in {@code weights}, boosted by urgency.
+     */
+    private static double scoreOf(Task task, Map<String, Double> weights, double averageLength, LocalDateTime now) {
+        String[] nameWords = wordsOf(task.getTaskName());
+        ArrayList<String> noteWords = new ArrayList<>();
+        for (Reminder reminder : task.getReminders()) {
+            Collections.addAll(noteWords, wordsOf(reminder.getNote()));
+        }
+
+        double output = 0;
+        double lengthNorm = 1 - BM25_B + BM25_B * nameWords.length / averageLength;
+        for (Map.Entry<String, Double> weight : weights.entrySet()) {
+            String term = weight.getKey();
+            double frequency = count(Arrays.asList(nameWords), term) / lengthNorm
+                    + TAG_WEIGHT * count(task.getTags(), term)
+                    + NOTE_WEIGHT * count(noteWords, term);
+            output += weight.getValue() * frequency * (BM25_K1 + 1) / (frequency + BM25_K1);
+        }
+        return output * (1 + URGENCY_WEIGHT / (1 + daysFrom(task, now)));
+    }
+
+    /**
+     * Counts whole calendar days rather than minutes, so that the boost only changes at midnight, and tasks due or
+     * happening on the same day as each other stay tied.
+     * @return The number of calendar days between {@code now} and the day on which {@code task} is due, happens or
+     * was done, or infinity if it has none.
+     */
+    private static double daysFrom(Task task, LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        LocalDateTime time;
+        if (task.isDone()) {
+            time = task.getDoneTime();
+        } else if (task.isEvent() && !task.getStartTime().toLocalDate().isAfter(today)
+                && !task.getEndTime().toLocalDate().isBefore(today)) {
+            time = now;
+        } else if (task.isEvent()) {
+            time = task.getStartTime();
+        } else {
+            time = task.getEndTime();
+        }
+
+        if (time == null) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.abs(ChronoUnit.DAYS.between(today, time.toLocalDate()));
+    }
+
+    private static int count(Iterable<String> words, String term) {
+        int output = 0;
+        for (String word : words) {
+            if (word.equalsIgnoreCase(term)) {
+                output++;
+            }
+        }
+        return output;
+    }
+
+    /**
+     * @param keywords Search keywords.
+     * @return Tests whether a task matches any of {@code keywords}, ignoring case, as {@code searchTasks} does.
+     */
+    static Predicate<Task> matchesKeywords(String[] keywords) {
         ArrayList<String> keywordsList = new ArrayListUtil.ChainableArrayListUtil<>(keywords)
                 .map(String::toLowerCase)
                 .value();
 
-        return new ArrayListUtil.ChainableArrayListUtil<>(this.tasks)
-                .filter(task -> { ArrayList<String> taskKeywords =
-                        new ArrayListUtil.ChainableArrayListUtil<>(task.getTaskName().split("\\s+"))
-                                .map(String::toLowerCase)
-                                .value();
-                    return !Collections.disjoint(keywordsList, taskKeywords);
-                })
-                .value();
+        return task -> {
+            ArrayList<String> taskKeywords =
+                    new ArrayListUtil.ChainableArrayListUtil<>(task.getTaskName().split("\\s+"))
+                            .map(String::toLowerCase)
+                            .value();
+            return !Collections.disjoint(keywordsList, taskKeywords);
+        };
     }
 
     /**
-     * Performs case-insensitive reminder search using keywords.
+     * Performs case-insensitive reminder search using keywords. Only the reminders containing a keyword are visited.
      *
      * @param keywords
      *            Search keywords
      * @return List of {@code Task} matching the keywords.
      */
     public ArrayList<Reminder> searchReminders(String[] keywords) {
-        ArrayList<Reminder> result = new ArrayList<>();
+        return remindersOf(this.reminderIndex.search(keywords));
+    }
 
-        for (Task t : this.tasks) {
-            result.addAll(searchReminder(keywords, t));
+    /**
+     * Performs case-insensitive reminder search. A reminder matches if its note contains any word of {@code query},
+     * or any phrase of {@code query} in double quotes.
+     * @param query The words and quoted phrases to search for.
+     * @return List of {@code Reminder} matching the query, in schedule order.
+     */
+    public ArrayList<Reminder> searchReminders(String query) {
+        return remindersOf(this.reminderIndex.search(query));
+    }
+
+    /**
+     * Performs the same search as {@code searchReminders}, grouping the matching reminders by task.
+     * @param query The words and quoted phrases to search for.
+     * @return The tasks having matching reminders, in schedule order, each with its matching reminders.
+     */
+    public ArrayList<ReminderSearchResult> findReminders(String query) {
+        ArrayList<ReminderSearchResult> output = new ArrayList<>();
+        long slot = -1;
+        ArrayList<Reminder> reminders = null;
+        ArrayList<Reminder> matches = null;
+        for (ReminderIndex.Hit hit : this.reminderIndex.search(query)) {
+            if (hit.getSlot() != slot) {
+                slot = hit.getSlot();
+                Task task = this.tasks.get(slot);
+                reminders = task.getReminders();
+                matches = new ArrayList<>();
+                output.add(new ReminderSearchResult(task, matches));
+            }
+            matches.add(reminders.get(hit.getIndex()));
         }
+        return output;
+    }
 
-        return result;
+    /**
+     * Performs a case-insensitive task search which tolerates typos, for when {@code searchTasks} finds nothing. Only
+     * the tasks sharing a trigram with {@code query} are visited.
+     * @param query The words to search for.
+     * @return The tasks whose names hold most of the trigrams of {@code query}, the closest first.
+     */
+    public ArrayList<Task> fuzzySearchTasks(String query) {
+        ArrayList<Task> output = new ArrayList<>();
+        for (long slot : this.nameTrigrams.search(query)) {
+            output.add(this.tasks.get(slot));
+        }
+        return output;
+    }
+
+    /**
+     * Performs a case-insensitive reminder search which tolerates typos, for when {@code findReminders} finds nothing.
+     * @param query The words to search for.
+     * @return The tasks having reminders whose notes hold most of the trigrams of {@code query}, each with those
+     * reminders. Tasks and reminders are ordered the closest first.
+     */
+    public ArrayList<ReminderSearchResult> fuzzyFindReminders(String query) {
+        LinkedHashMap<Long, ArrayList<Reminder>> matches = new LinkedHashMap<>();
+        for (ReminderKey key : this.noteTrigrams.search(query)) {
+            matches.computeIfAbsent(key.slot, slot -> new ArrayList<>())
+                    .add(this.tasks.get(key.slot).getReminders().get(key.index));
+        }
+
+        ArrayList<ReminderSearchResult> output = new ArrayList<>();
+        for (Map.Entry<Long, ArrayList<Reminder>> entry : matches.entrySet()) {
+            output.add(new ReminderSearchResult(this.tasks.get(entry.getKey()), entry.getValue()));
+        }
+        return output;
     }
 
     /**
@@ -183,10 +805,528 @@ public class State {
      * @return List of {@code Task} matching the keywords.
      */
     public ArrayList<Task> searchTasksWithTag(String tagName) {
-        ArrayList<Task> result = this.tasks;
+        ArrayList<Task> result = getTaskList();
 
         result = new ArrayListUtil.ChainableArrayListUtil<>(result).filter(task -> task.hasTag(tagName)).value();
 
         return result;
     }
+
+    /**
+     * Accumulates any number of edits on top of a {@code State} and produces a single new {@code State} at the end.
+     * Each edit only touches the persistent structures, so no intermediate {@code State} is created. The builder
+     * also remembers what every touched slot held before, which is the {@code StateDelta} that reverts the edits.
+     */
+    static class Builder {
+        private final State base;
+        private PersistentTreeMap<Long, Task> tasks;
+        private PersistentHashMap<Long, Long> slotsById;
+        private PersistentHashMap<Task, Integer> taskCounts;
+        private PersistentTreeMap<OrderKey, Task> deadlines;
+        private PersistentTreeMap<OrderKey, Task> events;
+        private PersistentHashMap<String, PersistentTreeMap<Long, Task>> postings;
+        private ReminderIndex reminderIndex;
+        private IntervalIndex eventSpans;
+        private DayIndex taskDays;
+        private PersistentTreeMap<ReminderKey, Reminder> reminderTimes;
+        private TrigramIndex<Long> nameTrigrams;
+        private TrigramIndex<ReminderKey> noteTrigrams;
+        private long nameWords;
+        private long nextSlot;
+        private final LinkedHashMap<Long, Task> originals = new LinkedHashMap<>();
+
+        private Builder(State base) {
+            this.base = base;
+            this.tasks = base.tasks;
+            this.slotsById = base.slotsById;
+            this.taskCounts = base.taskCounts;
+            this.deadlines = base.deadlines;
+            this.events = base.events;
+            this.postings = base.postings;
+            this.reminderIndex = base.reminderIndex;
+            this.eventSpans = base.eventSpans;
+            this.taskDays = base.taskDays;
+            this.reminderTimes = base.reminderTimes;
+            this.nameTrigrams = base.nameTrigrams;
+            this.noteTrigrams = base.noteTrigrams;
+            this.nameWords = base.nameWords;
+            this.nextSlot = base.nextSlot;
+        }
+
+        /**
+         * @param task The task to add.
+         * @return This {@code Builder}.
+         */
+        Builder addTask(Task task) {
+            putSlot(this.nextSlot, task);
+            return this;
+        }
+
+        /**
+         * @param originalTask The original version of the task.
+         * @param newTask The edited version of the task.
+         * @return This {@code Builder}.
+         */
+        Builder updateTask(Task originalTask, Task newTask) {
+            replaceTask(slotOf(originalTask), newTask);
+            return this;
+        }
+
+        /**
+         * @param task The task to delete.
+         * @return This {@code Builder}.
+         */
+        Builder deleteTask(Task task) {
+            removeSlot(slotOf(task));
+            return this;
+        }
+
+        /**
+         * Removes every task.
+         * @return This {@code Builder}.
+         */
+        Builder clear() {
+            for (PersistentTreeMap.Entry<Long, Task> entry : this.tasks.entries()) {
+                remember(entry.getKey());
+            }
+            this.tasks = PersistentTreeMap.empty();
+            this.slotsById = new PersistentHashMap<>();
+            this.taskCounts = new PersistentHashMap<>();
+            this.deadlines = new PersistentTreeMap<>(ORDER_KEY_ORDER);
+            this.events = new PersistentTreeMap<>(ORDER_KEY_ORDER);
+            this.postings = new PersistentHashMap<>();
+            this.reminderIndex = new ReminderIndex();
+            this.eventSpans = new IntervalIndex();
+            this.taskDays = new DayIndex();
+            this.reminderTimes = new PersistentTreeMap<>(REMINDER_KEY_ORDER);
+            this.nameTrigrams = new TrigramIndex<>(Long::compare);
+            this.noteTrigrams = new TrigramIndex<>(REMINDER_KEY_ORDER);
+            this.nameWords = 0;
+            return this;
+        }
+
+        /**
+         * Puts back what the slots in {@code delta} held before the edits it was recorded from.
+         * @param delta The {@code StateDelta} to revert.
+         * @return This {@code Builder}.
+         */
+        Builder revert(StateDelta delta) {
+            // Empty the slots first so that a task never clashes with an id that is only moving out of another slot.
+            for (int i = 0; i < delta.size(); i++) {
+                if (this.tasks.containsKey(delta.getSlot(i))) {
+                    removeSlot(delta.getSlot(i));
+                }
+            }
+
+            for (int i = 0; i < delta.size(); i++) {
+                Task task = delta.getTask(i);
+                if (task != null) {
+                    putSlot(delta.getSlot(i), task);
+                }
+            }
+            return this;
+        }
+
+        /**
+         * @param task The task to add the reminder to.
+         * @param reminder The reminder to add.
+         * @return This {@code Builder}.
+         */
+        Builder addReminder(Task task, Reminder reminder) {
+            long slot = slotOf(task);
+            replaceTask(slot, this.tasks.get(slot).addReminder(reminder));
+            return this;
+        }
+
+        /**
+         * @param reminder The reminder to delete. It must hold exactly one reminder.
+         * @return This {@code Builder}.
+         */
+        Builder deleteReminder(ReminderSearchResult reminder) {
+            assert (reminder.getReminders().size() == 1);
+
+            long slot = slotOf(reminder.getTask());
+            replaceTask(slot, this.tasks.get(slot).removeReminder(reminder.getReminders().get(0)));
+            return this;
+        }
+
+        /**
+         * @return The {@code State} holding every edit made so far.
+         */
+        State build() {
+            State state = new State(this.tasks, this.slotsById, this.taskCounts, this.deadlines, this.events,
+                    this.postings, this.reminderIndex, this.eventSpans, this.taskDays,
+                    this.reminderTimes, this.nameTrigrams, this.noteTrigrams, this.nameWords,
+                    this.nextSlot);
+            TaskTable baseTable = this.base.taskTable;
+            if (baseTable != null) {
+                state.taskTable = patchTable(baseTable);
+            }
+            return state;
+        }
+
+        /**
+         * @return The {@code StateDelta} which turns the built {@code State} back into the original one.
+         */
+        StateDelta delta() {
+            return new StateDelta(this.originals);
+        }
+
+        /**
+         * Describes the edits made so far as changes of a {@code ChangeFeed}.
+         * @param version The version of the built {@code State}.
+         * @return The task and reminder changes, in the order the slots were first touched.
+         */
+        ArrayList<ScheduleChange> changes(long version) {
+            ArrayList<ScheduleChange> output = new ArrayList<>();
+
+            for (Map.Entry<Long, Task> entry : this.originals.entrySet()) {
+                long slot = entry.getKey();
+                Task before = entry.getValue();
+                Task after = this.tasks.get(slot);
+                if (before == after) {
+                    continue;
+                }
+
+                output.add(ScheduleChange.taskChange(version, slot, before, after));
+
+                // Reminders are immutable and shared between versions of a task, so compare them by identity.
+                IdentityHashMap<Reminder, Integer> remaining = new IdentityHashMap<>();
+                if (before != null) {
+                    for (Reminder reminder : before.getReminders()) {
+                        remaining.merge(reminder, 1, Integer::sum);
+                    }
+                }
+                if (after != null) {
+                    for (Reminder reminder : after.getReminders()) {
+                        Integer count = remaining.get(reminder);
+                        if (count == null) {
+                            output.add(ScheduleChange.reminderChange(ScheduleChange.Kind.REMINDER_ADDED, version,
+                                    slot, after, reminder));
+                        } else if (count == 1) {
+                            remaining.remove(reminder);
+                        } else {
+                            remaining.put(reminder, count - 1);
+                        }
+                    }
+                }
+                for (Map.Entry<Reminder, Integer> removed : remaining.entrySet()) {
+                    for (int i = 0; i < removed.getValue(); i++) {
+                        output.add(ScheduleChange.reminderChange(ScheduleChange.Kind.REMINDER_REMOVED, version,
+                                slot, after, removed.getKey()));
+                    }
+                }
+            }
+
+            return output;
+        }
+
+        /**
+         * Patches the table of the base {@code State} if every edit replaced a task or appended one.
+         * @return The patched {@code TaskTable}, or {@code null} if tasks were removed or moved.
+         */
+        private TaskTable patchTable(TaskTable baseTable) {
+            ArrayList<Integer> replacedRows = new ArrayList<>();
+            ArrayList<Task> replacements = new ArrayList<>();
+            PersistentTreeMap<Long, Task> appended = PersistentTreeMap.empty();
+
+            for (Map.Entry<Long, Task> entry : this.originals.entrySet()) {
+                long slot = entry.getKey();
+                Task before = entry.getValue();
+                Task after = this.tasks.get(slot);
+
+                if (before == after) {
+                    continue;
+                } else if (after == null || (before == null && slot < this.base.nextSlot)) {
+                    return null;
+                } else if (before == null) {
+                    appended = appended.put(slot, after);
+                } else {
+                    replacedRows.add(this.base.tasks.indexOfKey(slot));
+                    replacements.add(after);
+                }
+            }
+
+            int[] rows = new int[replacedRows.size()];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = replacedRows.get(i);
+            }
+            return baseTable.patch(rows, replacements.toArray(new Task[replacements.size()]), appended.values());
+        }
+
+        private void remember(long slot) {
+            if (!this.originals.containsKey(slot)) {
+                this.originals.put(slot, this.tasks.get(slot));
+            }
+        }
+
+        /**
+         * Puts {@code task} into the empty {@code slot}, keeping the indexes in sync. The task is given a new id if
+         * its id is taken.
+         */
+        private void putSlot(long slot, Task task) {
+            remember(slot);
+            if (this.slotsById.containsKey(task.getId())) {
+                task = task.withNewId();
+            }
+
+            this.tasks = this.tasks.put(slot, task);
+            this.slotsById = this.slotsById.put(task.getId(), slot);
+            this.taskCounts = increment(this.taskCounts, task);
+            this.nextSlot = Math.max(this.nextSlot, slot + 1);
+
+            if (task.isNotDone() && task.isDeadline()) {
+                this.deadlines = this.deadlines.put(OrderKey.of(slot, task), task);
+            } else if (task.isNotDone() && task.isEvent()) {
+                this.events = this.events.put(OrderKey.of(slot, task), task);
+            }
+
+            for (String token : tokensOf(task)) {
+                PersistentTreeMap<Long, Task> posting = this.postings.get(token);
+                posting = posting == null ? PersistentTreeMap.empty() : posting;
+                this.postings = this.postings.put(token, posting.put(slot, task));
+            }
+            this.reminderIndex = this.reminderIndex.add(slot, task);
+            this.nameTrigrams = this.nameTrigrams.add(slot, task.getTaskName());
+            this.nameWords += wordsOf(task.getTaskName()).length;
+
+            if (task.isEvent()) {
+                this.eventSpans = this.eventSpans.add(task.getStartEpochMinute(), task.getEndEpochMinute(), slot, task);
+            }
+            if (task.isEvent() || task.isDeadline()) {
+                this.taskDays = this.taskDays.add(slot, task);
+            }
+
+            if (task.hasReminders()) {
+                ArrayList<Reminder> reminders = task.getReminders();
+                for (int i = 0; i < reminders.size(); i++) {
+                    Reminder reminder = reminders.get(i);
+                    ReminderKey key = new ReminderKey(reminder.getTimeOfReminder(), slot, i);
+                    this.reminderTimes = this.reminderTimes.put(key, reminder);
+                    this.noteTrigrams = this.noteTrigrams.add(key, reminder.getNote());
+                }
+            }
+        }
+
+        /**
+         * Empties {@code slot}, keeping the indexes in sync.
+         */
+        private void removeSlot(long slot) {
+            remember(slot);
+            Task original = this.tasks.get(slot);
+            this.tasks = this.tasks.remove(slot);
+            this.slotsById = this.slotsById.remove(original.getId());
+
+            int count = this.taskCounts.get(original);
+            this.taskCounts = count == 1
+                    ? this.taskCounts.remove(original)
+                    : this.taskCounts.put(original, count - 1);
+
+            if (original.isNotDone() && original.isDeadline()) {
+                this.deadlines = this.deadlines.remove(OrderKey.of(slot, original));
+            } else if (original.isNotDone() && original.isEvent()) {
+                this.events = this.events.remove(OrderKey.of(slot, original));
+            }
+
+            for (String token : tokensOf(original)) {
+                PersistentTreeMap<Long, Task> posting = this.postings.get(token).remove(slot);
+                this.postings = posting.isEmpty()
+                        ? this.postings.remove(token)
+                        : this.postings.put(token, posting);
+            }
+            this.reminderIndex = this.reminderIndex.remove(slot, original);
+            this.nameTrigrams = this.nameTrigrams.remove(slot, original.getTaskName());
+            this.nameWords -= wordsOf(original.getTaskName()).length;
+
+            if (original.isEvent()) {
+                this.eventSpans = this.eventSpans.remove(original.getStartEpochMinute(), original.getEndEpochMinute(),
+                        slot);
+            }
+            if (original.isEvent() || original.isDeadline()) {
+                this.taskDays = this.taskDays.remove(slot, original);
+            }
+
+            if (original.hasReminders()) {
+                ArrayList<Reminder> reminders = original.getReminders();
+                for (int i = 0; i < reminders.size(); i++) {
+                    ReminderKey key = new ReminderKey(reminders.get(i).getTimeOfReminder(), slot, i);
+                    this.reminderTimes = this.reminderTimes.remove(key);
+                    this.noteTrigrams = this.noteTrigrams.remove(key, reminders.get(i).getNote());
+                }
+            }
+        }
+
+        /**
+         * Finds the slot of {@code task}, throwing {@code IndexOutOfBoundsException} if it is not present.
+         * @param task The {@code Task} to look for.
+         * @return The slot holding {@code task}.
+         */
+        private long slotOf(Task task) {
+            Long slot = this.slotsById.get(task.getId());
+
+            if (slot != null) {
+                return slot;
+            }
+
+            // Not a task of this State, so fall back to the first equal task.
+            for (PersistentTreeMap.Entry<Long, Task> entry : this.tasks.entries()) {
+                if (entry.getValue().equals(task)) {
+                    return entry.getKey();
+                }
+            }
+            throw new IndexOutOfBoundsException("Task not found: " + task);
+        }
+
+        /**
+         * Replaces the task at {@code slot} by {@code newTask}, keeping the indexes in sync.
+         * @param slot The slot to update.
+         * @param newTask The new {@code Task}.
+         */
+        private void replaceTask(long slot, Task newTask) {
+            removeSlot(slot);
+            putSlot(slot, newTask);
+        }
+    }
+
+    /**
+     * Builds a {@code State} holding {@code taskList} in order, creating the slot tree in one pass.
+     * @param taskList An {@code ArrayList} of {@code Task}.
+     * @return The new State of the schedule.
+     */
+    private static State fromTaskList(ArrayList<Task> taskList) {
+        ArrayList<Long> slots = new ArrayList<>(taskList.size());
+        ArrayList<Task> tasks = new ArrayList<>(taskList.size());
+        PersistentHashMap<Long, Long> slotsById = new PersistentHashMap<>();
+        PersistentHashMap<Task, Integer> taskCounts = new PersistentHashMap<>();
+        TreeMap<OrderKey, Task> deadlines = new TreeMap<>(ORDER_KEY_ORDER);
+        TreeMap<OrderKey, Task> events = new TreeMap<>(ORDER_KEY_ORDER);
+        HashMap<String, ArrayList<Long>> slotsByToken = new HashMap<>();
+        HashMap<String, ArrayList<Task>> tasksByToken = new HashMap<>();
+        ReminderIndex reminderIndex = new ReminderIndex();
+        IntervalIndex eventSpans = new IntervalIndex();
+        DayIndex taskDays = new DayIndex();
+        TreeMap<ReminderKey, Reminder> reminderTimes = new TreeMap<>(REMINDER_KEY_ORDER);
+        TrigramIndex<Long> nameTrigrams = new TrigramIndex<>(Long::compare);
+        TrigramIndex<ReminderKey> noteTrigrams = new TrigramIndex<>(REMINDER_KEY_ORDER);
+        long nameWords = 0;
+        long slot = 0;
+
+        for (Task task : taskList) {
+            if (slotsById.containsKey(task.getId())) {
+                task = task.withNewId();
+            }
+            slotsById = slotsById.put(task.getId(), slot);
+            taskCounts = increment(taskCounts, task);
+            slots.add(slot);
+            tasks.add(task);
+
+            if (task.isNotDone() && task.isDeadline()) {
+                deadlines.put(OrderKey.of(slot, task), task);
+            } else if (task.isNotDone() && task.isEvent()) {
+                events.put(OrderKey.of(slot, task), task);
+            }
+
+            for (String token : tokensOf(task)) {
+                slotsByToken.computeIfAbsent(token, key -> new ArrayList<>()).add(slot);
+                tasksByToken.computeIfAbsent(token, key -> new ArrayList<>()).add(task);
+            }
+            reminderIndex = reminderIndex.add(slot, task);
+            nameTrigrams = nameTrigrams.add(slot, task.getTaskName());
+            nameWords += wordsOf(task.getTaskName()).length;
+            if (task.isEvent()) {
+                eventSpans = eventSpans.add(task.getStartEpochMinute(), task.getEndEpochMinute(), slot, task);
+            }
+            if (task.isEvent() || task.isDeadline()) {
+                taskDays = taskDays.add(slot, task);
+            }
+            if (task.hasReminders()) {
+                ArrayList<Reminder> reminders = task.getReminders();
+                for (int i = 0; i < reminders.size(); i++) {
+                    ReminderKey key = new ReminderKey(reminders.get(i).getTimeOfReminder(), slot, i);
+                    reminderTimes.put(key, reminders.get(i));
+                    noteTrigrams = noteTrigrams.add(key, reminders.get(i).getNote());
+                }
+            }
+            slot++;
+        }
+
+        // Slots were handed out in increasing order, so every posting is already sorted.
+        PersistentHashMap<String, PersistentTreeMap<Long, Task>> postings = new PersistentHashMap<>();
+        for (Map.Entry<String, ArrayList<Long>> entry : slotsByToken.entrySet()) {
+            postings = postings.put(entry.getKey(),
+                    PersistentTreeMap.fromSorted(Long::compare, entry.getValue(), tasksByToken.get(entry.getKey())));
+        }
+
+        return new State(PersistentTreeMap.fromSorted(Long::compare, slots, tasks), slotsById, taskCounts,
+                fromSorted(deadlines), fromSorted(events), postings, reminderIndex, eventSpans, taskDays,
+                PersistentTreeMap.fromSorted(REMINDER_KEY_ORDER, new ArrayList<>(reminderTimes.keySet()),
+                        new ArrayList<>(reminderTimes.values())),
+                nameTrigrams, noteTrigrams, nameWords, slot);
+    }
+
+    /**
+     * @return The distinct case-folded words of the name of {@code task}, as compared by {@code searchTasks}.
+     */
+    private static HashSet<String> tokensOf(Task task) {
+        HashSet<String> output = new HashSet<>();
+        for (String token : task.getTaskName().split("\\s+")) {
+            output.add(token.toLowerCase());
+        }
+        return output;
+    }
+
+    /**
+     * @return The case-folded words of {@code text}, with repeats, as counted by {@code searchTasks}.
+     */
+    private static String[] wordsOf(String text) {
+        return text == null ? new String[0] : text.toLowerCase().split("\\s+");
+    }
+
+    /**
+     * @return The reminders found at {@code hits}, in order.
+     */
+    private ArrayList<Reminder> remindersOf(ArrayList<ReminderIndex.Hit> hits) {
+        ArrayList<Reminder> output = new ArrayList<>();
+        long slot = -1;
+        ArrayList<Reminder> reminders = null;
+        for (ReminderIndex.Hit hit : hits) {
+            if (hit.getSlot() != slot) {
+                slot = hit.getSlot();
+                reminders = this.tasks.get(slot).getReminders();
+            }
+            output.add(reminders.get(hit.getIndex()));
+        }
+        return output;
+    }
+
+    private static PersistentTreeMap<OrderKey, Task> fromSorted(TreeMap<OrderKey, Task> index) {
+        return PersistentTreeMap.fromSorted(ORDER_KEY_ORDER, new ArrayList<>(index.keySet()),
+                new ArrayList<>(index.values()));
+    }
+
+    private static ArrayList<Task> firstValues(PersistentTreeMap<OrderKey, Task> index, OrderKey from, int limit) {
+        ArrayList<Task> output = new ArrayList<>();
+        for (PersistentTreeMap.Entry<OrderKey, Task> entry : index.entries(from, true, null, false)) {
+            if (output.size() >= limit) {
+                break;
+            }
+            output.add(entry.getValue());
+        }
+        return output;
+    }
+
+    /**
+     * @return The tasks of {@code tasks} selected by {@code kind}, stably sorted by {@code order}.
+     */
+    private static ArrayList<Task> sorted(ArrayList<Task> tasks, Predicate<Task> kind, Comparator<Task> order) {
+        return new ArrayListUtil.ChainableArrayListUtil<>(tasks)
+                .filter(kind)
+                .sort(order)
+                .value();
+    }
+
+    private static PersistentHashMap<Task, Integer> increment(PersistentHashMap<Task, Integer> counts, Task task) {
+        Integer count = counts.get(task);
+        return counts.put(task, count == null ? 1 : count + 1);
+    }
 }
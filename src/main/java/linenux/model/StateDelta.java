@@ -0,0 +1,92 @@
+package linenux.model;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//@@author A0135788M
+/**
+ * The inverse of a batch of edits to a {@code State}: for every slot that was touched, the task it held before, or
+ * {@code null} if the slot was empty. Since tasks are immutable and shared with the states themselves, a delta only
+ * costs a few references per touched task, unlike a full copy of the task list.
+ */
+class StateDelta {
+    private static final long BASE_BYTES = 48;
+    private static final long SLOT_BYTES = 24;
+    private static final long TASK_BYTES = 96;
+    private static final long ELEMENT_BYTES = 48;
+
+    private final long[] slots;
+    private final Task[] tasks;
+    private final long estimatedBytes;
+
+    /**
+     * @param originals A map from slot to the task it held before the edits, in the order the slots were touched.
+     */
+    StateDelta(LinkedHashMap<Long, Task> originals) {
+        this.slots = new long[originals.size()];
+        this.tasks = new Task[originals.size()];
+
+        long bytes = BASE_BYTES;
+        int i = 0;
+        for (Map.Entry<Long, Task> entry : originals.entrySet()) {
+            this.slots[i] = entry.getKey();
+            this.tasks[i] = entry.getValue();
+            bytes += SLOT_BYTES + estimateBytes(entry.getValue());
+            i++;
+        }
+        this.estimatedBytes = bytes;
+    }
+
+    /**
+     * @return The number of slots touched.
+     */
+    int size() {
+        return this.slots.length;
+    }
+
+    /**
+     * @return {@code true} if and only if no slot was touched.
+     */
+    boolean isEmpty() {
+        return this.slots.length == 0;
+    }
+
+    /**
+     * @param index The index of the touched slot.
+     * @return The slot.
+     */
+    long getSlot(int index) {
+        return this.slots[index];
+    }
+
+    /**
+     * @param index The index of the touched slot.
+     * @return The task the slot held before the edits, or {@code null} if it was empty.
+     */
+    Task getTask(int index) {
+        return this.tasks[index];
+    }
+
+    /**
+     * @return A rough estimate of the memory kept alive by this delta, in bytes.
+     */
+    long getEstimatedBytes() {
+        return this.estimatedBytes;
+    }
+
+    /**
+     * Over-estimates the footprint of {@code task}, counting it as if it were not shared with any {@code State}.
+     */
+    private static long estimateBytes(Task task) {
+        if (task == null) {
+            return 0;
+        }
+
+        long bytes = TASK_BYTES + 2L * task.getTaskName().length();
+        bytes += ELEMENT_BYTES * (task.getTags().size() + task.getReminders().size());
+        for (Reminder reminder : task.getReminders()) {
+            bytes += 2L * reminder.getNote().length();
+        }
+        return bytes;
+    }
+}
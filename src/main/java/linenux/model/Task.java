@@ -4,21 +4,47 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 
 import linenux.util.ArrayListUtil;
+import linenux.util.LocalDateTimeUtil;
+import linenux.util.PersistentList;
+import linenux.util.StringPool;
 
 //@@author A0135788M
 /**
  * Represents a task in the schedule. Only taskName is a required field and
  * cannot be an empty string.
+ *
+ * Schedules may hold a large number of tasks, so a {@code Task} is stored compactly: times are kept as minutes since
+ * the epoch, the done flag and the kind of task share a single byte, tags are pooled along with the id of their
+ * case-folded form so that {@code hasTag} only compares integers, and the case-folded name and the hash code used
+ * by {@code equals} and {@code hashCode} are computed once.
+ *
+ * Tags and reminders are immutable and shared by every modified copy of the task, so a change to one of them never
+ * copies the others.
  */
 public class Task {
-    private String taskName;
-    private boolean isDone;
-    private LocalDateTime startTime;
-    private LocalDateTime endTime;
-    private ArrayList<String> tags;
-    private ArrayList<Reminder> reminders;
+    private static final AtomicLong nextId = new AtomicLong();
+    private static final byte DONE = 1;
+    private static final byte HAS_START_TIME = 2;
+    private static final byte HAS_END_TIME = 4;
+    private static final byte HAS_DONE_TIME = 8;
+    private static final String[] NO_TAGS = new String[0];
+    private static final int[] NO_TAG_IDS = new int[0];
+
+    private final long id;
+    private final String taskName;
+    private final String foldedTaskName;
+    private final byte flags;
+    private final long startTime;
+    private final long endTime;
+    private final long doneTime;
+    private final int hash;
+    private final String[] tags;
+    private final int[] tagIds;
+    private final PersistentList<Reminder> reminders;
 
     /**
      * Constructor for tagged To-Dos (tasks with no deadlines or predetermined
@@ -77,12 +103,19 @@ public class Task {
      * Constructor for all Tasks
      */
     public Task(String taskName, boolean isDone, LocalDateTime startTime, LocalDateTime endTime, ArrayList<String> tags, ArrayList<Reminder> reminders) {
-        this.taskName = taskName;
-        this.isDone = isDone;
-        this.startTime = startTime;
-        this.endTime = endTime;
-        this.tags = tags;
-        this.reminders = reminders;
+        this(nextId.getAndIncrement(), taskName, isDone, startTime, endTime, tags, reminders);
+    }
+
+    /**
+     * Constructor for Tasks with a known id, for example when reading a schedule from a file. Ids handed out
+     * afterwards are guaranteed to be larger than {@code id}.
+     */
+    public Task(long id, String taskName, boolean isDone, LocalDateTime startTime, LocalDateTime endTime, ArrayList<String> tags, ArrayList<Reminder> reminders) {
+        this(id, taskName, flagsOf(isDone, startTime, endTime),
+                startTime == null ? 0 : LocalDateTimeUtil.toEpochMinute(startTime),
+                endTime == null ? 0 : LocalDateTimeUtil.toEpochMinute(endTime), 0,
+                internTags(tags), null, PersistentList.fromList(reminders));
+        nextId.accumulateAndGet(id + 1, Math::max);
     }
 
     /**
@@ -90,12 +123,28 @@ public class Task {
      * @param other The other {@code Task} to copy from.
      */
     public Task(Task other) {
-        this.taskName = other.taskName;
-        this.isDone = other.isDone;
-        this.startTime = other.startTime;
-        this.endTime = other.endTime;
-        this.tags = new ArrayList<>(other.tags);
-        this.reminders = new ArrayList<>(other.reminders);
+        this(other.id, other.taskName, other.flags, other.startTime, other.endTime, other.doneTime, other.tags,
+                other.tagIds, other.reminders);
+    }
+
+    /**
+     * Constructor from the compact representation. {@code tags} and {@code tagIds} are shared and must never be
+     * modified. If {@code tagIds} is {@code null}, it is looked up from {@code tags}.
+     */
+    private Task(long id, String taskName, byte flags, long startTime, long endTime, long doneTime, String[] tags,
+                 int[] tagIds, PersistentList<Reminder> reminders) {
+        this.id = id;
+        this.taskName = taskName;
+        this.foldedTaskName = taskName.toLowerCase();
+        this.flags = flags;
+        this.startTime = (flags & HAS_START_TIME) == 0 ? 0 : startTime;
+        this.endTime = (flags & HAS_END_TIME) == 0 ? 0 : endTime;
+        this.doneTime = (flags & HAS_DONE_TIME) == 0 ? 0 : doneTime;
+        this.tags = tags;
+        this.tagIds = tagIds == null ? foldedTagIds(tags) : tagIds;
+        this.reminders = reminders;
+        this.hash = Objects.hash(this.foldedTaskName, flags & (HAS_START_TIME | HAS_END_TIME), this.startTime,
+                this.endTime);
     }
 
     /**
@@ -106,9 +155,9 @@ public class Task {
         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd h.mma");
 
         if (this.isDeadline()) {
-            return taskName + " (Due " + this.endTime.format(formatter) + ")" + tagsToString();
+            return taskName + " (Due " + this.getEndTime().format(formatter) + ")" + tagsToString();
         } else if (this.isEvent()) {
-            return taskName + " (" + this.startTime.format(formatter) + " - " + this.endTime.format(formatter) + ")"
+            return taskName + " (" + this.getStartTime().format(formatter) + " - " + this.getEndTime().format(formatter) + ")"
                     + tagsToString();
         } else {
             return taskName + tagsToString();
@@ -119,35 +168,35 @@ public class Task {
      * @return {@code true} if and only if this {@code Task} is a todo.
      */
     public boolean isTodo() {
-        return startTime == null && endTime == null;
+        return (this.flags & (HAS_START_TIME | HAS_END_TIME)) == 0;
     }
 
     /**
      * @return {@code true} if and only if this {@code Task} is a deadline.
      */
     public boolean isDeadline() {
-        return startTime == null && endTime != null;
+        return (this.flags & (HAS_START_TIME | HAS_END_TIME)) == HAS_END_TIME;
     }
 
     /**
      * @return {@code true} if and only if this {@code Task} is an event.
      */
     public boolean isEvent() {
-        return startTime != null && endTime != null;
+        return (this.flags & (HAS_START_TIME | HAS_END_TIME)) == (HAS_START_TIME | HAS_END_TIME);
     }
 
     /**
      * @return {@code true} if and only if this {@code Task} is marked as done.
      */
     public boolean isDone() {
-        return isDone == true;
+        return (this.flags & DONE) != 0;
     }
 
     /**
      * @return {@code true} if and only if this {@code Task} is not marked as done.
      */
     public boolean isNotDone() {
-        return isDone == false;
+        return (this.flags & DONE) == 0;
     }
 
     /**
@@ -163,41 +212,11 @@ public class Task {
         Task otherTask = (Task) other;
 
         // equality of task name should be case insensitive
-        if (!this.getTaskName().toLowerCase().equals(otherTask.getTaskName().toLowerCase())) {
-            return false;
-        }
-
-        LocalDateTime thisStartTime = this.getStartTime();
-        LocalDateTime otherStartTime = otherTask.getStartTime();
-
-        if (thisStartTime == null && otherStartTime == null) {
-            // do nothing and proceed to check other fields.
-        } else {
-            if (thisStartTime == null || otherStartTime == null) {
-                return false;
-            }
-
-            if (!thisStartTime.equals(otherStartTime)) {
-                return false;
-            }
-        }
-
-        LocalDateTime thisEndTime = this.getEndTime();
-        LocalDateTime otherEndTime = otherTask.getEndTime();
-
-        if (thisEndTime == null && otherEndTime == null) {
-            // do nothing and proceed to check other fields.
-        } else {
-            if (thisEndTime == null || otherEndTime == null) {
-                return false;
-            }
-
-            if (!thisEndTime.equals(otherEndTime)) {
-                return false;
-            }
-        }
-
-        return true;
+        return this.hash == otherTask.hash
+                && (this.flags & (HAS_START_TIME | HAS_END_TIME)) == (otherTask.flags & (HAS_START_TIME | HAS_END_TIME))
+                && this.startTime == otherTask.startTime
+                && this.endTime == otherTask.endTime
+                && this.foldedTaskName.equals(otherTask.foldedTaskName);
     }
 
     /**
@@ -205,9 +224,7 @@ public class Task {
      */
     @Override
     public int hashCode() {
-        int result = taskName.hashCode() ^ startTime.hashCode() ^ endTime.hashCode();
-
-        return result;
+        return this.hash;
     }
 
     /**
@@ -215,9 +232,32 @@ public class Task {
      * @return {@code true} if and only if this {@code Task} has {@code tag}.
      */
     public boolean hasTag(String tag) {
-        ArrayList<String> lowercaseTags = new ArrayListUtil.ChainableArrayListUtil<>(tags).map(String::toLowerCase)
-                .value();
-        return lowercaseTags.contains(tag.toLowerCase());
+        int tagId = StringPool.findFoldedId(tag);
+        if (tagId < 0) {
+            return false;
+        }
+
+        for (int t : this.tagIds) {
+            if (t == tagId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The {@code StringPool.foldedId} of each tag, in the order of {@code getTags()}. The array is shared and
+     * must not be modified.
+     */
+    int[] getTagIds() {
+        return this.tagIds;
+    }
+
+    /**
+     * @return The id of the task. The id is unique among all tasks and is kept by every modified copy of the task.
+     */
+    public long getId() {
+        return this.id;
     }
 
     /**
@@ -231,28 +271,56 @@ public class Task {
      * @return The start time of the task.
      */
     public LocalDateTime getStartTime() {
-        return this.startTime;
+        return (this.flags & HAS_START_TIME) == 0 ? null : LocalDateTimeUtil.fromEpochMinute(this.startTime);
     }
 
     /**
      * @return The end time of the task.
      */
     public LocalDateTime getEndTime() {
+        return (this.flags & HAS_END_TIME) == 0 ? null : LocalDateTimeUtil.fromEpochMinute(this.endTime);
+    }
+
+    /**
+     * @return The time at which the task was marked as done, or {@code null} if it is not done or the time is unknown.
+     */
+    public LocalDateTime getDoneTime() {
+        return (this.flags & HAS_DONE_TIME) == 0 ? null : LocalDateTimeUtil.fromEpochMinute(this.doneTime);
+    }
+
+    /**
+     * @return The start time of the task in minutes since the epoch. Only meaningful if the task has a start time.
+     */
+    public long getStartEpochMinute() {
+        return this.startTime;
+    }
+
+    /**
+     * @return The end time of the task in minutes since the epoch. Only meaningful if the task has an end time.
+     */
+    public long getEndEpochMinute() {
         return this.endTime;
     }
 
     /**
-     * @return An {@code ArrayList} of tags.
+     * @return A new {@code ArrayList} of tags. Modifying it does not affect this {@code Task}.
      */
     public ArrayList<String> getTags() {
-        return this.tags;
+        return ArrayListUtil.fromArray(this.tags);
     }
 
     /**
-     * @return An {@code ArrayList} of {@code Reminder}.
+     * @return A new {@code ArrayList} of {@code Reminder}. Modifying it does not affect this {@code Task}.
      */
     public ArrayList<Reminder> getReminders() {
-        return this.reminders;
+        return this.reminders.toArrayList();
+    }
+
+    /**
+     * @return {@code true} if and only if this {@code Task} has at least one {@code Reminder}.
+     */
+    public boolean hasReminders() {
+        return !this.reminders.isEmpty();
     }
 
     /**
@@ -260,9 +328,8 @@ public class Task {
      * @return A new {@code Task} with the updated name.
      */
     public Task setTaskName(String taskName) {
-        Task output = new Task(this);
-        output.taskName = taskName;
-        return output;
+        return new Task(this.id, taskName, this.flags, this.startTime, this.endTime, this.doneTime, this.tags,
+                this.tagIds, this.reminders);
     }
 
     /**
@@ -270,9 +337,9 @@ public class Task {
      * @return A new {@code Task} with the updated start time.
      */
     public Task setStartTime(LocalDateTime startTime) {
-        Task output = new Task(this);
-        output.startTime = startTime;
-        return output;
+        return new Task(this.id, this.taskName, withTimeFlags(startTime, this.getEndTime()),
+                startTime == null ? 0 : LocalDateTimeUtil.toEpochMinute(startTime), this.endTime, this.doneTime,
+                this.tags, this.tagIds, this.reminders);
     }
 
     /**
@@ -280,18 +347,33 @@ public class Task {
      * @return A new {@code Task} with the updated end time.
      */
     public Task setEndTime(LocalDateTime endTime) {
-        Task output = new Task(this);
-        output.endTime = endTime;
-        return output;
+        return new Task(this.id, this.taskName, withTimeFlags(this.getStartTime(), endTime), this.startTime,
+                endTime == null ? 0 : LocalDateTimeUtil.toEpochMinute(endTime), this.doneTime, this.tags, this.tagIds,
+                this.reminders);
+    }
+
+    /**
+     * @return An identical {@code Task} with a freshly assigned id.
+     */
+    Task withNewId() {
+        return new Task(nextId.getAndIncrement(), this.taskName, this.flags, this.startTime, this.endTime,
+                this.doneTime, this.tags, this.tagIds, this.reminders);
     }
 
     /**
-     * @return A new {@code Task} by marking the current {@code Task} as done.
+     * @return A new {@code Task} by marking the current {@code Task} as done now.
      */
     public Task markAsDone() {
-        Task output = new Task(this);
-        output.isDone = true;
-        return output;
+        return markAsDone(LocalDateTime.now());
+    }
+
+    /**
+     * @param doneTime The time at which the task was done.
+     * @return A new {@code Task} by marking the current {@code Task} as done at {@code doneTime}.
+     */
+    public Task markAsDone(LocalDateTime doneTime) {
+        return new Task(this.id, this.taskName, (byte) (this.flags | DONE | HAS_DONE_TIME), this.startTime,
+                this.endTime, LocalDateTimeUtil.toEpochMinute(doneTime), this.tags, this.tagIds, this.reminders);
     }
 
     //A0140702X
@@ -299,9 +381,8 @@ public class Task {
      * @return A new {@code Task} by marking the current {@code Task} as undone.
      */
     public Task markAsUndone() {
-        Task output = new Task(this);
-        output.isDone = false;
-        return output;
+        return new Task(this.id, this.taskName, (byte) (this.flags & ~(DONE | HAS_DONE_TIME)), this.startTime,
+                this.endTime, 0, this.tags, this.tagIds, this.reminders);
     }
 
     /**
@@ -309,9 +390,8 @@ public class Task {
      * @return A new {@code Task} by adding a new reminder.
      */
     public Task addReminder(Reminder reminder) {
-        Task output = new Task(this);
-        output.reminders.add(reminder);
-        return output;
+        return new Task(this.id, this.taskName, this.flags, this.startTime, this.endTime, this.doneTime, this.tags,
+                this.tagIds, this.reminders.add(reminder));
     }
 
     /**
@@ -319,9 +399,8 @@ public class Task {
      * @return A new {@code Task} by adding a new tag.
      */
     public Task setTags(ArrayList<String> tags) {
-        Task output = new Task(this);
-        output.tags = tags;
-        return output;
+        return new Task(this.id, this.taskName, this.flags, this.startTime, this.endTime, this.doneTime,
+                internTags(tags), null, this.reminders);
     }
 
     /**
@@ -329,9 +408,8 @@ public class Task {
      * @return A new {@code Task} by removing {@code reminder}.
      */
     public Task removeReminder(Reminder reminder) {
-        Task output = new Task(this);
-        output.reminders.remove(reminder);
-        return output;
+        return new Task(this.id, this.taskName, this.flags, this.startTime, this.endTime, this.doneTime, this.tags,
+                this.tagIds, this.reminders.remove(reminder));
     }
 
     /**
@@ -339,7 +417,7 @@ public class Task {
      */
     private String tagsToString() {
         StringBuilder builder = new StringBuilder();
-        if (this.tags.isEmpty()) {
+        if (this.tags.length == 0) {
             return "";
         }
 
@@ -372,7 +450,7 @@ public class Task {
                 .map(String::toLowerCase)
                 .value();
 
-        return new ArrayListUtil.ChainableArrayListUtil<>(this.reminders)
+        return new ArrayListUtil.ChainableArrayListUtil<>(this.reminders.toArrayList())
                 .filter(task -> { ArrayList<String> reminderKeywords =
                         new ArrayListUtil.ChainableArrayListUtil<>(task.getNote().split("\\s+"))
                                 .map(String::toLowerCase)
@@ -381,4 +459,37 @@ public class Task {
                 })
                 .value();
     }
+
+    private static byte flagsOf(boolean isDone, LocalDateTime startTime, LocalDateTime endTime) {
+        return (byte) ((isDone ? DONE : 0) | (startTime == null ? 0 : HAS_START_TIME)
+                | (endTime == null ? 0 : HAS_END_TIME));
+    }
+
+    private byte withTimeFlags(LocalDateTime startTime, LocalDateTime endTime) {
+        return (byte) ((this.flags & (DONE | HAS_DONE_TIME)) | flagsOf(false, startTime, endTime));
+    }
+
+    private static int[] foldedTagIds(String[] tags) {
+        if (tags.length == 0) {
+            return NO_TAG_IDS;
+        }
+
+        int[] output = new int[tags.length];
+        for (int i = 0; i < output.length; i++) {
+            output[i] = StringPool.foldedId(tags[i]);
+        }
+        return output;
+    }
+
+    private static String[] internTags(ArrayList<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return NO_TAGS;
+        }
+
+        String[] output = new String[tags.size()];
+        for (int i = 0; i < output.length; i++) {
+            output[i] = StringPool.intern(tags.get(i));
+        }
+        return output;
+    }
 }
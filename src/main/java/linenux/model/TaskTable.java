@@ -0,0 +1,300 @@
+package linenux.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import linenux.util.LocalDateTimeUtil;
+import linenux.util.StringPool;
+
+//@@author A0135788M
+/**
+ * A column-oriented, read-only view of a list of tasks. Row {@code i} describes the {@code i}-th task of the list.
+ * Times are stored as minutes since the epoch, flags in a byte per row, and tags as the folded ids which
+ * {@code StringPool} gives them, in a compressed sparse row layout, so filters are simple loops over primitive arrays
+ * that return the matching rows as a {@code BitSet}. Each tag also has a bitmap of the rows holding it, so tag queries
+ * are intersections and unions of bitmaps. Bitmaps only extend to the last row holding their tag, and a patched table
+ * shares the bitmaps of the tags it did not touch.
+ */
+public class TaskTable {
+    private static final byte DONE = 1;
+    private static final byte HAS_START_TIME = 2;
+    private static final byte HAS_END_TIME = 4;
+    private static final byte EVENT = HAS_START_TIME | HAS_END_TIME;
+    private static final String NOT = "!";
+
+    private final Task[] tasks;
+    private final long[] start;
+    private final long[] end;
+    private final byte[] flags;
+    private final int[] tagOffsets;
+    private final int[] tagIds;
+    private final HashMap<Integer, BitSet> tagRows;
+    private volatile BitSet todoRows;
+
+    /**
+     * Builds the table of {@code tasks}.
+     * @param tasks The rows of the table.
+     */
+    public TaskTable(ArrayList<Task> tasks) {
+        this(tasks.toArray(new Task[tasks.size()]));
+    }
+
+    private TaskTable(Task[] tasks) {
+        int size = tasks.length;
+        this.tasks = tasks;
+        this.start = new long[size];
+        this.end = new long[size];
+        this.flags = new byte[size];
+        this.tagOffsets = new int[size + 1];
+        this.tagRows = new HashMap<>();
+
+        int tagCount = 0;
+        for (int i = 0; i < size; i++) {
+            writeRow(i, tasks[i]);
+            tagCount += tasks[i].getTagIds().length;
+        }
+
+        this.tagIds = new int[tagCount];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            this.tagOffsets[i] = offset;
+            for (int id : tasks[i].getTagIds()) {
+                this.tagIds[offset++] = id;
+                this.tagRows.computeIfAbsent(id, key -> new BitSet()).set(i);
+            }
+        }
+        this.tagOffsets[size] = offset;
+    }
+
+    /**
+     * Derives the table of a list obtained by replacing some rows and appending others. Untouched rows are copied
+     * column by column without looking at their tasks again. The columns themselves are still copied whole, so a
+     * patch takes time linear in the number of rows, but only the replaced and appended tasks are read, and only the
+     * bitmaps of their tags are rebuilt.
+     * @param replacedRows The rows to replace.
+     * @param replacements The new task of each replaced row.
+     * @param appended The tasks to append.
+     * @return The new {@code TaskTable}.
+     */
+    TaskTable patch(int[] replacedRows, Task[] replacements, ArrayList<Task> appended) {
+        int oldSize = this.tasks.length;
+        Task[] newTasks = new Task[oldSize + appended.size()];
+        System.arraycopy(this.tasks, 0, newTasks, 0, oldSize);
+        for (int i = 0; i < replacedRows.length; i++) {
+            newTasks[replacedRows[i]] = replacements[i];
+        }
+        for (int i = 0; i < appended.size(); i++) {
+            newTasks[oldSize + i] = appended.get(i);
+        }
+
+        return new TaskTable(this, newTasks, replacedRows);
+    }
+
+    private TaskTable(TaskTable base, Task[] tasks, int[] replacedRows) {
+        int size = tasks.length;
+        int oldSize = base.tasks.length;
+        this.tasks = tasks;
+        this.start = new long[size];
+        this.end = new long[size];
+        this.flags = new byte[size];
+        this.tagOffsets = new int[size + 1];
+        this.tagRows = new HashMap<>(base.tagRows);
+        HashSet<Integer> copiedTags = new HashSet<>();
+
+        System.arraycopy(base.start, 0, this.start, 0, oldSize);
+        System.arraycopy(base.end, 0, this.end, 0, oldSize);
+        System.arraycopy(base.flags, 0, this.flags, 0, oldSize);
+
+        BitSet dirty = new BitSet(size);
+        for (int row : replacedRows) {
+            dirty.set(row);
+        }
+        dirty.set(oldSize, size);
+
+        int tagCount = base.tagIds.length;
+        for (int i = dirty.nextSetBit(0); i >= 0; i = dirty.nextSetBit(i + 1)) {
+            writeRow(i, tasks[i]);
+            tagCount += tasks[i].getTagIds().length - (i < oldSize ? base.tagOffsets[i + 1] - base.tagOffsets[i] : 0);
+            if (i < oldSize) {
+                for (int j = base.tagOffsets[i]; j < base.tagOffsets[i + 1]; j++) {
+                    copyOnWrite(base.tagIds[j], copiedTags).clear(i);
+                }
+            }
+        }
+
+        this.tagIds = new int[tagCount];
+        int offset = 0;
+        for (int i = 0; i < size; i++) {
+            this.tagOffsets[i] = offset;
+            if (dirty.get(i)) {
+                for (int id : tasks[i].getTagIds()) {
+                    this.tagIds[offset++] = id;
+                    copyOnWrite(id, copiedTags).set(i);
+                }
+            } else {
+                int length = base.tagOffsets[i + 1] - base.tagOffsets[i];
+                System.arraycopy(base.tagIds, base.tagOffsets[i], this.tagIds, offset, length);
+                offset += length;
+            }
+        }
+        this.tagOffsets[size] = offset;
+    }
+
+    /**
+     * @return The number of rows.
+     */
+    public int size() {
+        return this.tasks.length;
+    }
+
+    /**
+     * @param row The row.
+     * @return The task of {@code row}.
+     */
+    public Task getTask(int row) {
+        return this.tasks[row];
+    }
+
+    /**
+     * @return The set of all rows.
+     */
+    public BitSet all() {
+        BitSet output = new BitSet(size());
+        output.set(0, size());
+        return output;
+    }
+
+    /**
+     * @return The rows of tasks marked as done.
+     */
+    public BitSet done() {
+        BitSet output = new BitSet(size());
+        for (int i = 0; i < this.flags.length; i++) {
+            if ((this.flags[i] & DONE) != 0) {
+                output.set(i);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * @return The rows of todos. They are found on the first call, and copied on later calls.
+     */
+    public BitSet todos() {
+        BitSet rows = this.todoRows;
+        if (rows == null) {
+            rows = new BitSet(size());
+            for (int i = 0; i < this.flags.length; i++) {
+                if ((this.flags[i] & (HAS_START_TIME | HAS_END_TIME)) == 0) {
+                    rows.set(i);
+                }
+            }
+            this.todoRows = rows;
+        }
+        return (BitSet) rows.clone();
+    }
+
+    /**
+     * @return The rows of tasks not marked as done.
+     */
+    public BitSet notDone() {
+        BitSet output = done();
+        output.flip(0, size());
+        return output;
+    }
+
+    /**
+     * Finds the rows of tasks which happen between {@code from} and {@code to}, inclusive. Todos always match,
+     * deadlines match if they are due in the range, and events match if they intersect the range. Either bound may be
+     * {@code null}, in which case the range is unbounded on that side.
+     * @param from The start of the range.
+     * @param to The end of the range.
+     * @return The matching rows.
+     */
+    public BitSet inRange(LocalDateTime from, LocalDateTime to) {
+        // Task times are whole minutes, so t >= from iff t >= ceil(from) and t <= to iff t <= floor(to).
+        long fromCeil = from == null ? Long.MIN_VALUE : LocalDateTimeUtil.toEpochMinuteCeiling(from);
+        long toFloor = to == null ? Long.MAX_VALUE : LocalDateTimeUtil.toEpochMinute(to);
+
+        BitSet output = new BitSet(size());
+        for (int i = 0; i < this.flags.length; i++) {
+            byte kind = (byte) (this.flags[i] & EVENT);
+            long s = this.start[i];
+            long e = this.end[i];
+            boolean matches = kind == 0
+                    | (e >= fromCeil & e <= toFloor)
+                    | (kind == EVENT & s >= fromCeil & s <= toFloor)
+                    | (kind == EVENT & s < fromCeil & e > toFloor);
+            if (matches) {
+                output.set(i);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * @param tag The tag, compared case-insensitively.
+     * @return The rows of tasks with {@code tag}.
+     */
+    public BitSet withTag(String tag) {
+        BitSet rows = this.tagRows.get(StringPool.findFoldedId(tag));
+        return rows == null ? new BitSet(size()) : (BitSet) rows.clone();
+    }
+
+    /**
+     * Finds the rows matching a tag query. The query holds alternatives separated by {@code |}, any of which may
+     * match. An alternative is a tag, which matches the tasks with the tag, or a tag preceded by {@code !}, which
+     * matches the tasks without it. Tags are compared case-insensitively.
+     * @param query The tag query, such as {@code work|!urgent}.
+     * @return The matching rows.
+     */
+    public BitSet withTags(String query) {
+        BitSet output = new BitSet(size());
+        for (String alternative : query.split("\\|")) {
+            String tag = alternative.trim();
+            if (tag.startsWith(NOT)) {
+                BitSet rows = withTag(tag.substring(NOT.length()).trim());
+                rows.flip(0, size());
+                output.or(rows);
+            } else {
+                output.or(withTag(tag));
+            }
+        }
+        return output;
+    }
+
+    /**
+     * @param rows The rows to select.
+     * @return The tasks of {@code rows}, in order.
+     */
+    public ArrayList<Task> select(BitSet rows) {
+        ArrayList<Task> output = new ArrayList<>(rows.cardinality());
+        for (int i = rows.nextSetBit(0); i >= 0; i = rows.nextSetBit(i + 1)) {
+            output.add(this.tasks[i]);
+        }
+        return output;
+    }
+
+    private void writeRow(int row, Task task) {
+        this.start[row] = task.getStartEpochMinute();
+        this.end[row] = task.getEndEpochMinute();
+        this.flags[row] = (byte) ((task.isDone() ? DONE : 0)
+                | (task.isEvent() ? EVENT : 0)
+                | (task.isDeadline() ? HAS_END_TIME : 0));
+    }
+
+    /**
+     * @return The bitmap of the tag {@code id}, copied first if it is still shared with the base table.
+     */
+    private BitSet copyOnWrite(int id, HashSet<Integer> copiedTags) {
+        BitSet rows = this.tagRows.get(id);
+        if (copiedTags.add(id)) {
+            rows = rows == null ? new BitSet() : (BitSet) rows.clone();
+            this.tagRows.put(id, rows);
+        }
+        return rows;
+    }
+}
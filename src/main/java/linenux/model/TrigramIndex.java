@@ -0,0 +1,127 @@
+package linenux.model;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
+
+import linenux.util.PersistentHashMap;
+import linenux.util.PersistentTreeMap;
+
+//@@author A0135788M
+/**
+ * An immutable index of the trigrams of texts, for finding the texts close to a misspelt query. Each word is padded
+ * with a space on both sides and split into its runs of three characters, so that "meetng" still shares "mee", "eet"
+ * and the ends of the word with "meeting". A query only counts the trigrams of the texts sharing one of its own
+ * trigrams, so its cost grows with the number of candidates rather than with the number of texts.
+ *
+ * Like the rest of {@code State}, the index is persistent, so adding a text allocates O(log n) nodes per trigram and
+ * shares everything else with the previous index.
+ *
+ * @param <K> The type of the keys identifying the texts.
+ */
+class TrigramIndex<K> {
+    /** The smallest fraction of the trigrams of a query which a text must hold to match it. */
+    static final double MIN_SIMILARITY = 0.5;
+
+    private final Comparator<? super K> order;
+    private final PersistentHashMap<String, PersistentTreeMap<K, Boolean>> postings;
+
+    /**
+     * Constructs an empty index.
+     * @param order The order in which keys of equal similarity are returned.
+     */
+    TrigramIndex(Comparator<? super K> order) {
+        this(order, new PersistentHashMap<>());
+    }
+
+    private TrigramIndex(Comparator<? super K> order,
+                         PersistentHashMap<String, PersistentTreeMap<K, Boolean>> postings) {
+        this.order = order;
+        this.postings = postings;
+    }
+
+    /**
+     * @param key The key of {@code text}.
+     * @param text The text to index, which may be {@code null}.
+     * @return A new index which also holds {@code text}.
+     */
+    TrigramIndex<K> add(K key, String text) {
+        PersistentHashMap<String, PersistentTreeMap<K, Boolean>> output = this.postings;
+        for (String trigram : trigramsOf(text)) {
+            PersistentTreeMap<K, Boolean> posting = output.get(trigram);
+            posting = posting == null ? new PersistentTreeMap<>(this.order) : posting;
+            output = output.put(trigram, posting.put(key, true));
+        }
+        return new TrigramIndex<>(this.order, output);
+    }
+
+    /**
+     * @param key The key of {@code text}.
+     * @param text The text added by {@code add}.
+     * @return A new index without {@code text}.
+     */
+    TrigramIndex<K> remove(K key, String text) {
+        PersistentHashMap<String, PersistentTreeMap<K, Boolean>> output = this.postings;
+        for (String trigram : trigramsOf(text)) {
+            PersistentTreeMap<K, Boolean> posting = output.get(trigram).remove(key);
+            output = posting.isEmpty() ? output.remove(trigram) : output.put(trigram, posting);
+        }
+        return new TrigramIndex<>(this.order, output);
+    }
+
+    /**
+     * Finds the texts holding at least {@code MIN_SIMILARITY} of the trigrams of {@code query}, ignoring case.
+     * @param query The query.
+     * @return The keys of the matching texts, the most similar first.
+     */
+    ArrayList<K> search(String query) {
+        HashSet<String> trigrams = trigramsOf(query);
+        TreeMap<K, Integer> counts = new TreeMap<>(this.order);
+        for (String trigram : trigrams) {
+            PersistentTreeMap<K, Boolean> posting = this.postings.get(trigram);
+            if (posting != null) {
+                for (PersistentTreeMap.Entry<K, Boolean> entry : posting.entries()) {
+                    counts.merge(entry.getKey(), 1, Integer::sum);
+                }
+            }
+        }
+
+        ArrayList<Map.Entry<K, Integer>> matches = new ArrayList<>();
+        for (Map.Entry<K, Integer> entry : counts.entrySet()) {
+            if (entry.getValue() >= MIN_SIMILARITY * trigrams.size()) {
+                matches.add(entry);
+            }
+        }
+        // The sort is stable, so keys of equal similarity stay in order.
+        matches.sort((a, b) -> Integer.compare(b.getValue(), a.getValue()));
+
+        ArrayList<K> output = new ArrayList<>();
+        for (Map.Entry<K, Integer> match : matches) {
+            output.add(match.getKey());
+        }
+        return output;
+    }
+
+    /**
+     * @return The distinct case-folded trigrams of the words of {@code text}. A {@code null} text has none.
+     */
+    static HashSet<String> trigramsOf(String text) {
+        HashSet<String> output = new HashSet<>();
+        if (text == null) {
+            return output;
+        }
+
+        for (String word : text.toLowerCase().split("\\s+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            String padded = " " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                output.add(padded.substring(i, i + 3));
+            }
+        }
+        return output;
+    }
+}
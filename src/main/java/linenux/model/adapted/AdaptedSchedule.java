@@ -24,7 +24,7 @@ public class AdaptedSchedule {
      */
     public AdaptedSchedule convertToXml(Schedule sch) {
         this.state = new AdaptedState();
-        this.state.convertToXml(sch.getStates().get(sch.getStates().size() - 1));
+        this.state.convertToXml(sch.getSnapshot());
         return this;
     }
 
@@ -15,14 +15,21 @@ import linenux.storage.LocalDateTimeAdapter;
 
 //@@author A0135788M
 @XmlRootElement(name = "Task")
-@XmlType(propOrder = { "taskName", "isDone", "startTime", "endTime", "tags", "reminders" })
+@XmlType(propOrder = { "id", "taskName", "isDone", "doneTime", "startTime", "endTime", "tags", "reminders" })
 public class AdaptedTask {
+    @XmlElement(name = "id")
+    private Long id;
+
     @XmlElement(name = "taskName")
     private String taskName;
 
     @XmlElement(name = "isDone")
     private boolean isDone;
 
+    @XmlElement(name = "doneTime", nillable = true)
+    @XmlJavaTypeAdapter(LocalDateTimeAdapter.class)
+    private LocalDateTime doneTime;
+
     @XmlElement(name = "startTime", nillable = true)
     @XmlJavaTypeAdapter(LocalDateTimeAdapter.class)
     private LocalDateTime startTime;
@@ -51,8 +58,10 @@ public class AdaptedTask {
      * @return an XML-friendly task object.
      */
     public AdaptedTask convertToXml(Task t) {
+        this.id = t.getId();
         this.taskName = t.getTaskName();
         this.isDone = t.isDone();
+        this.doneTime = t.getDoneTime();
         this.startTime = t.getStartTime();
         this.endTime = t.getEndTime();
         this.tags = t.getTags();
@@ -72,6 +81,19 @@ public class AdaptedTask {
         for (AdaptedReminder r : reminders) {
             newReminders.add(r.convertToModel());
         }
-        return new Task(taskName, isDone, startTime, endTime, tags, newReminders);
+
+        // Schedules written before tasks had ids get fresh ones.
+        Task task;
+        if (id == null) {
+            task = new Task(taskName, isDone, startTime, endTime, tags, newReminders);
+        } else {
+            task = new Task(id, taskName, isDone, startTime, endTime, tags, newReminders);
+        }
+
+        // Schedules written before tasks recorded when they were done count them as done now.
+        if (isDone) {
+            task = task.markAsDone(doneTime == null ? LocalDateTime.now() : doneTime);
+        }
+        return task;
     }
 }
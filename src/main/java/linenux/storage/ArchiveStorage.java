@@ -0,0 +1,45 @@
+package linenux.storage;
+
+import java.io.IOException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+
+import linenux.model.Task;
+
+//@@author A0135788M
+/**
+ * Reads and writes archived tasks, partitioned by the month in which they were done.
+ */
+public interface ArchiveStorage {
+    /**
+     * @return The months which have archived tasks, in ascending order.
+     */
+    public ArrayList<YearMonth> getMonths();
+
+    /**
+     * Reads the tasks archived in a month.
+     * @param month The month to read.
+     * @return The tasks archived in {@code month}, which is empty if there are none.
+     * @throws IOException If {@code month} has archived tasks which cannot be read. Callers must not take this to
+     * mean that the month is empty, or writing the month would lose its tasks.
+     */
+    public ArrayList<Task> loadMonth(YearMonth month) throws IOException;
+
+    /**
+     * Reads the tasks archived in a month one at a time, for callers which only keep a few of them.
+     * @param month The month to read.
+     * @return The tasks archived in {@code month}.
+     * @throws IOException If {@code month} has archived tasks which cannot be read.
+     */
+    default public Iterable<Task> scanMonth(YearMonth month) throws IOException {
+        return loadMonth(month);
+    }
+
+    /**
+     * Writes the tasks archived in a month, replacing those written before.
+     * @param month The month to write.
+     * @param tasks The tasks archived in {@code month}.
+     * @return {@code true} if and only if the tasks were written.
+     */
+    public boolean saveMonth(YearMonth month, ArrayList<Task> tasks);
+}
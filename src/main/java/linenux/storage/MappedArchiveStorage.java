@@ -0,0 +1,155 @@
+package linenux.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.logging.Logger;
+
+import linenux.model.Task;
+import linenux.util.LogsCenter;
+import linenux.util.ThrowableUtil;
+
+//@@author A0135788M
+/**
+ * A memory-mapped implementation of archive storage, for archives too large to read into the heap. Each month is kept
+ * in its own {@code MappedTaskStore} file, in the same directory as {@code XmlArchiveStorage} uses. Months which are
+ * still in XML are read from there, and are converted the next time they are written.
+ *
+ * A mapping stays open until it is garbage collected, and some platforms refuse to replace or delete a file which is
+ * still mapped. So a month is never rewritten in place: each write creates the next generation of the month's file,
+ * such as {@code 2016-01.2.tasks}, and only then removes the older generations. An older generation which cannot be
+ * removed yet is ignored, and removed by a later write. Only the generations up to the last one read through this
+ * storage are removed, so a generation whose tasks never made it into a newer one is kept.
+ */
+public class MappedArchiveStorage implements ArchiveStorage {
+    private static final String DIRECTORY_SUFFIX = ".archive";
+    private static final String FILE_EXTENSION = ".tasks";
+    private static final Pattern MONTH_FILE_PATTERN = Pattern.compile("^(\\d{4}-\\d{2})(?:\\.(\\d{1,18}))?\\.tasks$");
+    private static Logger logger = LogsCenter.getLogger(MappedArchiveStorage.class);
+
+    private static final long XML_GENERATION = -1;
+
+    private final Path directory;
+    private final XmlArchiveStorage xmlStorage;
+    private final HashMap<YearMonth, Long> readGenerations = new HashMap<>();
+
+    /**
+     * Instantiate the archive of a schedule file.
+     * @param scheduleFilePath The path to the schedule file.
+     */
+    public MappedArchiveStorage(Path scheduleFilePath) {
+        this.directory = scheduleFilePath.resolveSibling(scheduleFilePath.getFileName() + DIRECTORY_SUFFIX);
+        this.xmlStorage = new XmlArchiveStorage(scheduleFilePath);
+    }
+
+    /**
+     * @return The months which have archived tasks, in ascending order.
+     */
+    @Override
+    public ArrayList<YearMonth> getMonths() {
+        TreeSet<YearMonth> output = new TreeSet<>(this.xmlStorage.getMonths());
+        output.addAll(getGenerations().keySet());
+        return new ArrayList<>(output);
+    }
+
+    /**
+     * Reads the tasks archived in a month.
+     */
+    @Override
+    public ArrayList<Task> loadMonth(YearMonth month) throws IOException {
+        ArrayList<Task> output = new ArrayList<>();
+        for (Task task : scanMonth(month)) {
+            output.add(task);
+        }
+        return output;
+    }
+
+    /**
+     * Maps the tasks archived in a month. Each task is only read when it is reached.
+     */
+    @Override
+    public Iterable<Task> scanMonth(YearMonth month) throws IOException {
+        TreeMap<Long, Path> generations = getGenerations().get(month);
+        if (generations == null) {
+            ArrayList<Task> output = this.xmlStorage.loadMonth(month);
+            this.readGenerations.put(month, XML_GENERATION);
+            return output;
+        }
+
+        Map.Entry<Long, Path> latest = generations.lastEntry();
+        logger.info("Mapping archive from " + latest.getValue());
+        MappedTaskStore output = MappedTaskStore.open(latest.getValue());
+        this.readGenerations.put(month, latest.getKey());
+        return output;
+    }
+
+    /**
+     * Writes the tasks archived in a month as a new generation, and removes the older files of the month which were
+     * read through this storage.
+     */
+    @Override
+    public boolean saveMonth(YearMonth month, ArrayList<Task> tasks) {
+        TreeMap<Long, Path> generations = getGenerations().getOrDefault(month, new TreeMap<>());
+        long generation = generations.isEmpty() ? 1 : generations.lastKey() + 1;
+        Path path = this.directory.resolve(month.toString() + "." + generation + FILE_EXTENSION);
+        logger.info("Saving archive to " + path);
+
+        try {
+            Files.createDirectories(this.directory);
+            MappedTaskStore.write(path, tasks);
+        } catch (Exception e) {
+            logger.warning(ThrowableUtil.getStackTrace(e));
+            return false;
+        }
+
+        Long readGeneration = this.readGenerations.put(month, generation);
+        if (readGeneration == null) {
+            return true;
+        }
+        try {
+            if (readGeneration == XML_GENERATION) {
+                this.xmlStorage.deleteMonth(month);
+            }
+        } catch (Exception e) {
+            logger.info("Leaving the XML archive of " + month + " for a later write: " + e.getMessage());
+        }
+        for (Path olderPath : generations.headMap(readGeneration, true).values()) {
+            try {
+                Files.deleteIfExists(olderPath);
+            } catch (Exception e) {
+                logger.info("Leaving " + olderPath + " for a later write: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return The paths of the files of each month, by generation. A file without a generation is generation 0.
+     */
+    private TreeMap<YearMonth, TreeMap<Long, Path>> getGenerations() {
+        TreeMap<YearMonth, TreeMap<Long, Path>> output = new TreeMap<>();
+        File[] files = this.directory.toFile().listFiles();
+        if (files == null) {
+            return output;
+        }
+
+        for (File file : files) {
+            Matcher matcher = MONTH_FILE_PATTERN.matcher(file.getName());
+            if (matcher.matches()) {
+                long generation = matcher.group(2) == null ? 0 : Long.parseLong(matcher.group(2));
+                output.computeIfAbsent(YearMonth.parse(matcher.group(1)), month -> new TreeMap<>())
+                        .put(generation, file.toPath());
+            }
+        }
+        return output;
+    }
+}
@@ -0,0 +1,339 @@
+package linenux.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import linenux.model.Reminder;
+import linenux.model.Task;
+import linenux.util.LocalDateTimeUtil;
+
+//@@author A0135788M
+/**
+ * A read-only file of tasks which is memory-mapped instead of read into the heap. The file starts with a header,
+ * followed by one fixed-width record per task, followed by a heap of UTF-8 strings and of the tags and reminders of
+ * each task. Records only refer to the heap by offset, and each distinct string is written once.
+ *
+ * A {@code Task} is only materialized when it is read, so scanning a store keeps a single task alive at a time no
+ * matter how many tasks the file holds. Since a single mapping is used, a file is limited to 2GB.
+ */
+class MappedTaskStore implements Iterable<Task> {
+    private static final int MAGIC = 0x4c4e5854;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_SIZE = 48;
+    private static final long NO_TIME = Long.MIN_VALUE;
+    private static final int DONE = 1;
+    private static final long MIN_EPOCH_MINUTE = LocalDateTimeUtil.toEpochMinute(LocalDateTime.MIN) + 1;
+    private static final long MAX_EPOCH_MINUTE = LocalDateTimeUtil.toEpochMinute(LocalDateTime.MAX);
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int heapStart;
+
+    private MappedTaskStore(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Not a task store");
+        }
+
+        this.size = buffer.getInt(8);
+        if (this.size < 0 || HEADER_SIZE + (long) this.size * RECORD_SIZE > buffer.capacity()) {
+            throw new IOException("Corrupted task store");
+        }
+        this.heapStart = HEADER_SIZE + this.size * RECORD_SIZE;
+        if (buffer.getInt(12) != this.heapStart) {
+            throw new IOException("Corrupted task store");
+        }
+        validate();
+    }
+
+    /**
+     * Maps a file written by {@code write}. Every offset and time in the file is checked up front, so that a
+     * truncated or corrupted file is rejected here rather than failing halfway through a scan. No task is
+     * materialized until it is read.
+     * @param path The path to the file.
+     * @return The tasks in the file.
+     */
+    static MappedTaskStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new MappedTaskStore(buffer);
+        }
+    }
+
+    /**
+     * Writes tasks to a file, replacing it as a whole once every task has been written.
+     * @param path The path to the file.
+     * @param tasks The tasks to write.
+     */
+    static void write(Path path, ArrayList<Task> tasks) throws IOException {
+        Heap heap = new Heap(HEADER_SIZE + tasks.size() * RECORD_SIZE);
+        ByteBuffer records = ByteBuffer.allocate(HEADER_SIZE + tasks.size() * RECORD_SIZE);
+        records.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(tasks.size()).putInt(records.capacity());
+
+        for (Task task : tasks) {
+            records.putLong(task.getId())
+                    .putLong(task.getStartTime() == null ? NO_TIME : task.getStartEpochMinute())
+                    .putLong(task.getEndTime() == null ? NO_TIME : task.getEndEpochMinute())
+                    .putLong(toEpochMinute(task.getDoneTime()))
+                    .putInt(task.isDone() ? DONE : 0)
+                    .putInt(heap.putString(task.getTaskName()))
+                    .putInt(heap.putExtras(task))
+                    .putInt(0);
+        }
+
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            records.flip();
+            while (records.hasRemaining()) {
+                channel.write(records);
+            }
+            ByteBuffer extras = heap.toByteBuffer();
+            while (extras.hasRemaining()) {
+                channel.write(extras);
+            }
+        }
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * @return The number of tasks.
+     */
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * @param index The index of the task, from 0.
+     * @return A new {@code Task} read from the record at {@code index}.
+     */
+    Task get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+
+        int record = HEADER_SIZE + index * RECORD_SIZE;
+        long id = this.buffer.getLong(record);
+        LocalDateTime startTime = fromEpochMinute(this.buffer.getLong(record + 8));
+        LocalDateTime endTime = fromEpochMinute(this.buffer.getLong(record + 16));
+        LocalDateTime doneTime = fromEpochMinute(this.buffer.getLong(record + 24));
+        boolean isDone = (this.buffer.getInt(record + 32) & DONE) != 0;
+        String taskName = getString(this.buffer.getInt(record + 36));
+
+        int extras = this.buffer.getInt(record + 40);
+        ArrayList<String> tags = new ArrayList<>();
+        int tagCount = this.buffer.getInt(extras);
+        for (int i = 0; i < tagCount; i++) {
+            tags.add(getString(this.buffer.getInt(extras + 4 + i * 4)));
+        }
+        ArrayList<Reminder> reminders = new ArrayList<>();
+        int reminderStart = extras + 4 + tagCount * 4;
+        int reminderCount = this.buffer.getInt(reminderStart);
+        for (int i = 0; i < reminderCount; i++) {
+            int reminder = reminderStart + 4 + i * 12;
+            reminders.add(new Reminder(getString(this.buffer.getInt(reminder + 8)),
+                    fromEpochMinute(this.buffer.getLong(reminder))));
+        }
+
+        Task task = new Task(id, taskName, isDone, startTime, endTime, tags, reminders);
+        return doneTime == null ? task : task.markAsDone(doneTime);
+    }
+
+    /**
+     * @return An iterator which materializes each task as it is reached.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return new Iterator<Task>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < size;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return get(this.index++);
+            }
+        };
+    }
+
+    /**
+     * Checks that reading any task will only read within the file and decode valid times.
+     */
+    private void validate() throws IOException {
+        for (int index = 0; index < this.size; index++) {
+            int record = HEADER_SIZE + index * RECORD_SIZE;
+            checkTime(this.buffer.getLong(record + 8));
+            checkTime(this.buffer.getLong(record + 16));
+            checkTime(this.buffer.getLong(record + 24));
+            checkString(this.buffer.getInt(record + 36));
+
+            int extras = this.buffer.getInt(record + 40);
+            int tagCount = getCount(extras, 4);
+            for (int i = 0; i < tagCount; i++) {
+                checkString(this.buffer.getInt(extras + 4 + i * 4));
+            }
+            int reminderStart = extras + 4 + tagCount * 4;
+            int reminderCount = getCount(reminderStart, 12);
+            for (int i = 0; i < reminderCount; i++) {
+                int reminder = reminderStart + 4 + i * 12;
+                checkTime(this.buffer.getLong(reminder));
+                checkString(this.buffer.getInt(reminder + 8));
+            }
+        }
+    }
+
+    /**
+     * @return The count at {@code offset} in the heap, once it and the entries of {@code entrySize} bytes following
+     * it are known to be within the heap.
+     */
+    private int getCount(int offset, int entrySize) throws IOException {
+        checkHeapRange(offset, 4);
+        int count = this.buffer.getInt(offset);
+        if (count < 0) {
+            throw new IOException("Corrupted task store");
+        }
+        checkHeapRange(offset + 4L, (long) count * entrySize);
+        return count;
+    }
+
+    private void checkString(int offset) throws IOException {
+        if (offset == -1) {
+            return;
+        }
+        checkHeapRange(offset, 4);
+        int length = this.buffer.getInt(offset);
+        if (length < 0) {
+            throw new IOException("Corrupted task store");
+        }
+        checkHeapRange(offset + 4L, length);
+    }
+
+    private void checkHeapRange(long offset, long length) throws IOException {
+        if (offset < this.heapStart || offset + length > this.buffer.capacity()) {
+            throw new IOException("Corrupted task store");
+        }
+    }
+
+    private static void checkTime(long epochMinute) throws IOException {
+        if (epochMinute != NO_TIME && (epochMinute < MIN_EPOCH_MINUTE || epochMinute > MAX_EPOCH_MINUTE)) {
+            throw new IOException("Corrupted task store");
+        }
+    }
+
+    /**
+     * @param offset The offset of a string in the heap, or -1.
+     * @return The string at {@code offset}, or {@code null} if {@code offset} is -1.
+     */
+    private String getString(int offset) {
+        if (offset < 0) {
+            return null;
+        }
+
+        int length = this.buffer.getInt(offset);
+        byte[] bytes = new byte[length];
+        ByteBuffer view = this.buffer.duplicate();
+        view.position(offset + 4);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static long toEpochMinute(LocalDateTime time) {
+        return time == null ? NO_TIME : LocalDateTimeUtil.toEpochMinute(time);
+    }
+
+    private static LocalDateTime fromEpochMinute(long epochMinute) {
+        return epochMinute == NO_TIME ? null : LocalDateTimeUtil.fromEpochMinute(epochMinute);
+    }
+
+    /**
+     * The heap being written, which remembers the offset of every string so that each is only written once.
+     */
+    private static class Heap {
+        private final int start;
+        private final HashMap<String, Integer> offsets = new HashMap<>();
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 12);
+
+        private Heap(int start) {
+            this.start = start;
+        }
+
+        private int putString(String string) {
+            if (string == null) {
+                return -1;
+            }
+
+            Integer offset = this.offsets.get(string);
+            if (offset == null) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                offset = reserve(4 + bytes.length);
+                this.buffer.putInt(bytes.length).put(bytes);
+                this.offsets.put(string, offset);
+            }
+            return offset;
+        }
+
+        private int putExtras(Task task) {
+            ArrayList<String> tags = task.getTags();
+            ArrayList<Reminder> reminders = task.getReminders();
+            int[] tagOffsets = new int[tags.size()];
+            int[] noteOffsets = new int[reminders.size()];
+            for (int i = 0; i < tagOffsets.length; i++) {
+                tagOffsets[i] = putString(tags.get(i));
+            }
+            for (int i = 0; i < noteOffsets.length; i++) {
+                noteOffsets[i] = putString(reminders.get(i).getNote());
+            }
+
+            int offset = reserve(8 + tagOffsets.length * 4 + noteOffsets.length * 12);
+            this.buffer.putInt(tagOffsets.length);
+            for (int tagOffset : tagOffsets) {
+                this.buffer.putInt(tagOffset);
+            }
+            this.buffer.putInt(noteOffsets.length);
+            for (int i = 0; i < noteOffsets.length; i++) {
+                this.buffer.putLong(toEpochMinute(reminders.get(i).getTimeOfReminder())).putInt(noteOffsets[i]);
+            }
+            return offset;
+        }
+
+        /**
+         * Makes room for {@code length} more bytes.
+         * @return The offset in the file at which they will be written.
+         */
+        private int reserve(int length) {
+            if (this.buffer.remaining() < length) {
+                int capacity = Math.max(this.buffer.capacity() * 2, this.buffer.position() + length);
+                ByteBuffer grown = ByteBuffer.allocate(capacity);
+                this.buffer.flip();
+                grown.put(this.buffer);
+                this.buffer = grown;
+            }
+            return this.start + this.buffer.position();
+        }
+
+        private ByteBuffer toByteBuffer() {
+            ByteBuffer output = this.buffer.duplicate();
+            output.flip();
+            return output;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package linenux.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.logging.Logger;
+
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import linenux.model.State;
+import linenux.model.Task;
+import linenux.model.adapted.AdaptedState;
+import linenux.util.LogsCenter;
+import linenux.util.ThrowableUtil;
+
+//@@author A0135788M
+/**
+ * An XML-backed implementation of archive storage. Each month is kept in its own file, in a directory next to the
+ * schedule file, so reading one month never reads the others.
+ */
+public class XmlArchiveStorage implements ArchiveStorage {
+    private static final String DIRECTORY_SUFFIX = ".archive";
+    private static final String FILE_EXTENSION = ".xml";
+    private static final String MONTH_FILE_PATTERN = "^\\d{4}-\\d{2}\\.xml$";
+    private static Logger logger = LogsCenter.getLogger(XmlArchiveStorage.class);
+
+    private final Path directory;
+
+    /**
+     * Instantiate the archive of a schedule file.
+     * @param scheduleFilePath The path to the schedule file.
+     */
+    public XmlArchiveStorage(Path scheduleFilePath) {
+        this.directory = scheduleFilePath.resolveSibling(scheduleFilePath.getFileName() + DIRECTORY_SUFFIX);
+    }
+
+    /**
+     * @return The months which have archived tasks, in ascending order.
+     */
+    @Override
+    public ArrayList<YearMonth> getMonths() {
+        ArrayList<YearMonth> output = new ArrayList<>();
+        File[] files = this.directory.toFile().listFiles();
+        if (files == null) {
+            return output;
+        }
+
+        for (File file : files) {
+            String name = file.getName();
+            if (name.matches(MONTH_FILE_PATTERN)) {
+                output.add(YearMonth.parse(name.substring(0, name.length() - FILE_EXTENSION.length())));
+            }
+        }
+
+        Collections.sort(output);
+        return output;
+    }
+
+    /**
+     * Reads the tasks archived in a month.
+     */
+    @Override
+    public ArrayList<Task> loadMonth(YearMonth month) throws IOException {
+        Path path = getFilePath(month);
+        if (!Files.exists(path)) {
+            return new ArrayList<>();
+        }
+
+        logger.info("Loading archive from " + path);
+        try {
+            JAXBContext context = JAXBContext.newInstance(AdaptedState.class);
+            Unmarshaller u = context.createUnmarshaller();
+
+            AdaptedState aState = (AdaptedState) u.unmarshal(path.toFile());
+            return aState.convertToModel().getTaskList();
+        } catch (Exception e) {
+            throw new IOException("Cannot read archive " + path, e);
+        }
+    }
+
+    /**
+     * Writes the tasks archived in a month.
+     */
+    @Override
+    public boolean saveMonth(YearMonth month, ArrayList<Task> tasks) {
+        Path path = getFilePath(month);
+        logger.info("Saving archive to " + path);
+
+        try {
+            Files.createDirectories(this.directory);
+            AdaptedState aState = new AdaptedState().convertToXml(new State(tasks));
+            JAXBContext context = JAXBContext.newInstance(aState.getClass());
+            Marshaller m = context.createMarshaller();
+            m.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+            m.marshal(aState, path.toFile());
+            return true;
+        } catch (Exception e) {
+            logger.warning(ThrowableUtil.getStackTrace(e));
+            return false;
+        }
+    }
+
+    /**
+     * Removes the file of a month, if there is one.
+     * @param month The month to remove.
+     */
+    void deleteMonth(YearMonth month) throws IOException {
+        Files.deleteIfExists(getFilePath(month));
+    }
+
+    /**
+     * @param month A month of the archive.
+     * @return The path to where the tasks of {@code month} are kept.
+     */
+    private Path getFilePath(YearMonth month) {
+        return this.directory.resolve(month.toString() + FILE_EXTENSION);
+    }
+}
@@ -239,6 +239,19 @@ public class ArrayListUtil {
         return output;
     }
 
+    //@@author A0135788M
+    /**
+     * Returns a new list of the first {@code count} elements of {@code list}, or all of them if there are fewer.
+     * @param count The maximum number of elements to keep.
+     * @param list The input list.
+     * @param <T> The type of the {@code ArrayList}.
+     * @return The first {@code count} elements of {@code list}, in order.
+     */
+    public static <T> ArrayList<T> take(int count, ArrayList<T> list) {
+        return new ArrayList<>(list.subList(0, Math.min(count, list.size())));
+    }
+
+    //@@author A0144915A
     /**
      * Make an {@code ArrayList} out of an array.
      * @param arr The input array.
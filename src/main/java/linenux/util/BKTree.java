@@ -0,0 +1,117 @@
+package linenux.util;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+//@@author A0135788M
+/**
+ * BK-tree data structure, which finds the words closest to a given word under {@code StringsSimilarity.compute}.
+ * Each child of a node is keyed by its distance to the node, so by the triangle inequality only the children whose
+ * key is within the best distance found so far of the distance to the node can hold a closer word. The other
+ * subtrees are skipped without computing any distance.
+ */
+public class BKTree {
+    private class Node {
+        private String word;
+        private int rank;
+        private int maxKey;
+        private HashMap<Integer, Node> children = new HashMap<>();
+
+        public Node(String word, int rank) {
+            this.word = word;
+            this.rank = rank;
+        }
+    }
+
+    private Node root;
+    private int size;
+
+    /**
+     * Constructs an empty {@code BKTree}.
+     */
+    public BKTree() {
+    }
+
+    /**
+     * Constructs a {@code BKTree} holding {@code words}.
+     * @param words The words, in the order in which ties are broken.
+     */
+    public BKTree(Iterable<String> words) {
+        for (String word : words) {
+            addString(word);
+        }
+    }
+
+    /**
+     * Adds a word to the {@code BKTree}, unless it is already there.
+     * @param word A {@code String} to add to the {@code BKTree}.
+     */
+    public void addString(String word) {
+        assert word != null;
+
+        if (this.root == null) {
+            this.root = new Node(word, this.size++);
+            return;
+        }
+
+        Node node = this.root;
+        while (true) {
+            int distance = StringsSimilarity.compute(word, node.word);
+            if (distance == 0 && word.equals(node.word)) {
+                return;
+            }
+
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word, this.size++));
+                node.maxKey = Math.max(node.maxKey, distance);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * @return The number of distinct words in the {@code BKTree}.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Finds the word closest to {@code word}.
+     * @param word The word to look for.
+     * @param maxDistance The largest distance allowed between {@code word} and the result.
+     * @return The closest word within {@code maxDistance} of {@code word}, or {@code null} if there is none. Of words
+     * at the same distance, the one added first is returned.
+     */
+    public String findNearest(String word, int maxDistance) {
+        Node best = null;
+        int bestDistance = maxDistance;
+
+        ArrayDeque<Node> stack = new ArrayDeque<>();
+        if (this.root != null) {
+            stack.push(this.root);
+        }
+        while (!stack.isEmpty()) {
+            Node node = stack.pop();
+            // Past bestDistance + maxKey, neither the node nor any of its children can be visited, so the exact
+            // distance is not needed.
+            int distance = StringsSimilarity.compute(word, node.word,
+                    (int) Math.min(Integer.MAX_VALUE - 1, (long) bestDistance + node.maxKey));
+            if (distance < bestDistance || (distance == bestDistance && (best == null || node.rank < best.rank))) {
+                best = node;
+                bestDistance = distance;
+            }
+
+            for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                if (Math.abs(child.getKey() - distance) <= bestDistance) {
+                    stack.push(child.getValue());
+                }
+            }
+        }
+
+        return best == null ? null : best.word;
+    }
+}
@@ -1,6 +1,7 @@
 package linenux.util;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 
 //@@author A0144915A
@@ -36,4 +37,33 @@ public class LocalDateTimeUtil {
         return time.format(formatter);
     }
 
+    //@@author A0135788M
+    /**
+     * Encodes {@code time} as the number of minutes since 1970-01-01T00:00, dropping seconds and nanoseconds.
+     * @param time The {@code LocalDateTime} to encode.
+     * @return The number of minutes since the epoch.
+     */
+    public static long toEpochMinute(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    /**
+     * Encodes {@code time} as the number of minutes since 1970-01-01T00:00, rounding up to a whole minute.
+     * @param time The {@code LocalDateTime} to encode.
+     * @return The smallest number of minutes since the epoch which is not before {@code time}.
+     */
+    public static long toEpochMinuteCeiling(LocalDateTime time) {
+        long floor = toEpochMinute(time);
+        boolean isWholeMinute = time.getSecond() == 0 && time.getNano() == 0;
+        return isWholeMinute ? floor : floor + 1;
+    }
+
+    /**
+     * Decodes a number of minutes since 1970-01-01T00:00 produced by {@code toEpochMinute}.
+     * @param epochMinute The number of minutes since the epoch.
+     * @return The corresponding {@code LocalDateTime}.
+     */
+    public static LocalDateTime fromEpochMinute(long epochMinute) {
+        return LocalDateTime.ofEpochSecond(epochMinute * 60, 0, ZoneOffset.UTC);
+    }
 }
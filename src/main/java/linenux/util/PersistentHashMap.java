@@ -0,0 +1,291 @@
+package linenux.util;
+
+import java.util.Arrays;
+
+//@@author A0135788M
+/**
+ * An immutable hash map implemented as a hash array mapped trie (HAMT). Every update returns a new map which shares
+ * all untouched nodes with the original. With 32-way branching, lookups and updates touch at most 7 nodes, so both
+ * are effectively constant time.
+ *
+ * @param <K> The type of the keys. Keys must have consistent {@code equals} and {@code hashCode}.
+ * @param <V> The type of the values.
+ */
+public class PersistentHashMap<K, V> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final int MAX_SHIFT = 30;
+
+    /**
+     * A trie node. {@code bitmap} marks which of the 32 possible children are present, and {@code slots} stores
+     * them compactly: a key followed by either its value or, when the key is {@code null}, a sub-node.
+     */
+    private static class Node {
+        private final int bitmap;
+        private final Object[] slots;
+
+        private Node(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * A bucket for keys whose hashes collide on all bits.
+     */
+    private static class CollisionNode {
+        private final int hash;
+        private final Object[] slots;
+
+        private CollisionNode(int hash, Object[] slots) {
+            this.hash = hash;
+            this.slots = slots;
+        }
+    }
+
+    private static final Node EMPTY_NODE = new Node(0, new Object[0]);
+
+    private final Node root;
+    private final int size;
+
+    /**
+     * Constructs an empty map.
+     */
+    public PersistentHashMap() {
+        this(EMPTY_NODE, 0);
+    }
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @return The number of mappings in this map.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return {@code true} if and only if this map has no mappings.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @param key The key to look for.
+     * @return The value mapped to {@code key}, or {@code null} if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        int hash = hash(key);
+        Object node = this.root;
+
+        for (int shift = 0; ; shift += BITS) {
+            if (node instanceof CollisionNode) {
+                CollisionNode collision = (CollisionNode) node;
+                int index = collisionIndex(collision, key);
+                return index < 0 ? null : (V) collision.slots[index + 1];
+            }
+
+            Node trie = (Node) node;
+            int bit = bit(hash, shift);
+            if ((trie.bitmap & bit) == 0) {
+                return null;
+            }
+
+            int index = 2 * index(trie.bitmap, bit);
+            Object slotKey = trie.slots[index];
+            if (slotKey == null) {
+                node = trie.slots[index + 1];
+            } else {
+                return slotKey.equals(key) ? (V) trie.slots[index + 1] : null;
+            }
+        }
+    }
+
+    /**
+     * @param key The key to look for.
+     * @return {@code true} if and only if {@code key} is in this map.
+     */
+    public boolean containsKey(K key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @param key The key to insert. Must not be {@code null}.
+     * @param value The value to associate with {@code key}. Must not be {@code null}.
+     * @return A new map where {@code key} is mapped to {@code value}.
+     */
+    public PersistentHashMap<K, V> put(K key, V value) {
+        assert key != null;
+        assert value != null;
+
+        boolean[] added = new boolean[1];
+        Node newRoot = (Node) put(this.root, 0, hash(key), key, value, added);
+        return new PersistentHashMap<>(newRoot, this.size + (added[0] ? 1 : 0));
+    }
+
+    /**
+     * @param key The key to remove.
+     * @return A new map without {@code key}. If {@code key} is absent, this map is returned.
+     */
+    public PersistentHashMap<K, V> remove(K key) {
+        if (!containsKey(key)) {
+            return this;
+        }
+
+        Object newRoot = remove(this.root, 0, hash(key), key);
+        return new PersistentHashMap<>(newRoot == null ? EMPTY_NODE : (Node) newRoot, this.size - 1);
+    }
+
+    private static Object put(Object node, int shift, int hash, Object key, Object value, boolean[] added) {
+        if (node instanceof CollisionNode) {
+            CollisionNode collision = (CollisionNode) node;
+            if (collision.hash != hash) {
+                // The new key only shares a prefix with the bucket, so push the bucket one level down.
+                Node wrapper = new Node(bit(collision.hash, shift), new Object[] {null, collision});
+                return put(wrapper, shift, hash, key, value, added);
+            }
+            int index = collisionIndex(collision, key);
+            if (index >= 0) {
+                Object[] slots = collision.slots.clone();
+                slots[index + 1] = value;
+                return new CollisionNode(hash, slots);
+            }
+            added[0] = true;
+            Object[] slots = Arrays.copyOf(collision.slots, collision.slots.length + 2);
+            slots[slots.length - 2] = key;
+            slots[slots.length - 1] = value;
+            return new CollisionNode(hash, slots);
+        }
+
+        Node trie = (Node) node;
+        int bit = bit(hash, shift);
+        int index = 2 * index(trie.bitmap, bit);
+
+        if ((trie.bitmap & bit) == 0) {
+            added[0] = true;
+            Object[] slots = new Object[trie.slots.length + 2];
+            System.arraycopy(trie.slots, 0, slots, 0, index);
+            slots[index] = key;
+            slots[index + 1] = value;
+            System.arraycopy(trie.slots, index, slots, index + 2, trie.slots.length - index);
+            return new Node(trie.bitmap | bit, slots);
+        }
+
+        Object slotKey = trie.slots[index];
+        Object[] slots = trie.slots.clone();
+
+        if (slotKey == null) {
+            slots[index + 1] = put(trie.slots[index + 1], shift + BITS, hash, key, value, added);
+        } else if (slotKey.equals(key)) {
+            slots[index + 1] = value;
+        } else {
+            added[0] = true;
+            slots[index] = null;
+            slots[index + 1] = merge(shift + BITS, slotKey, trie.slots[index + 1], hash, key, value);
+        }
+
+        return new Node(trie.bitmap, slots);
+    }
+
+    private static Object merge(int shift, Object key1, Object value1, int hash2, Object key2, Object value2) {
+        int hash1 = hash(key1);
+
+        if (hash1 == hash2) {
+            return new CollisionNode(hash1, new Object[] {key1, value1, key2, value2});
+        }
+
+        if (shift > MAX_SHIFT) {
+            throw new AssertionError("Distinct hashes must differ within 32 bits");
+        }
+
+        int bit1 = bit(hash1, shift);
+        int bit2 = bit(hash2, shift);
+
+        if (bit1 == bit2) {
+            return new Node(bit1, new Object[] {null, merge(shift + BITS, key1, value1, hash2, key2, value2)});
+        } else if (Integer.compareUnsigned(bit1, bit2) < 0) {
+            return new Node(bit1 | bit2, new Object[] {key1, value1, key2, value2});
+        } else {
+            return new Node(bit1 | bit2, new Object[] {key2, value2, key1, value1});
+        }
+    }
+
+    /**
+     * Removes {@code key}, which must be present, from the subtree rooted at {@code node}.
+     * @return The new subtree, or {@code null} if it became empty.
+     */
+    private static Object remove(Object node, int shift, int hash, Object key) {
+        if (node instanceof CollisionNode) {
+            CollisionNode collision = (CollisionNode) node;
+            int index = collisionIndex(collision, key);
+            if (collision.slots.length == 2) {
+                return null;
+            }
+            return new CollisionNode(collision.hash, removePair(collision.slots, index));
+        }
+
+        Node trie = (Node) node;
+        int bit = bit(hash, shift);
+        int index = 2 * index(trie.bitmap, bit);
+        Object slotKey = trie.slots[index];
+
+        if (slotKey != null) {
+            if (trie.bitmap == bit) {
+                return null;
+            }
+            return new Node(trie.bitmap ^ bit, removePair(trie.slots, index));
+        }
+
+        Object child = remove(trie.slots[index + 1], shift + BITS, hash, key);
+        if (child == null) {
+            if (trie.bitmap == bit) {
+                return null;
+            }
+            return new Node(trie.bitmap ^ bit, removePair(trie.slots, index));
+        }
+
+        Object[] slots = trie.slots.clone();
+        if (child instanceof CollisionNode && ((CollisionNode) child).slots.length == 2) {
+            // Pull a lone survivor back up so that lookups stay short.
+            slots[index] = ((CollisionNode) child).slots[0];
+            slots[index + 1] = ((CollisionNode) child).slots[1];
+        } else {
+            slots[index + 1] = child;
+        }
+        return new Node(trie.bitmap, slots);
+    }
+
+    private static Object[] removePair(Object[] slots, int index) {
+        Object[] output = new Object[slots.length - 2];
+        System.arraycopy(slots, 0, output, 0, index);
+        System.arraycopy(slots, index + 2, output, index, slots.length - index - 2);
+        return output;
+    }
+
+    private static int collisionIndex(CollisionNode collision, Object key) {
+        for (int i = 0; i < collision.slots.length; i += 2) {
+            if (collision.slots[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private static int index(int bitmap, int bit) {
+        return Integer.bitCount(bitmap & (bit - 1));
+    }
+}
@@ -0,0 +1,173 @@
+package linenux.util;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+//@@author A0135788M
+/**
+ * An immutable list backed by a chain of nodes, each holding the last element and the list before it. Appending
+ * returns a new list which shares every existing node, so it only allocates a single node. Removing an element shares
+ * every node before it.
+ *
+ * This is meant for the short lists carried by each task, where copying a whole {@code ArrayList} on every change
+ * would dominate the cost of the change.
+ *
+ * @param <T> The type of the elements.
+ */
+public class PersistentList<T> implements Iterable<T> {
+    private static final PersistentList<Object> EMPTY = new PersistentList<>(null, null, 0);
+
+    private final PersistentList<T> init;
+    private final T last;
+    private final int size;
+
+    private PersistentList(PersistentList<T> init, T last, int size) {
+        this.init = init;
+        this.last = last;
+        this.size = size;
+    }
+
+    /**
+     * @return An empty list.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentList<T> empty() {
+        return (PersistentList<T>) EMPTY;
+    }
+
+    /**
+     * @param elements The elements of the list, in order.
+     * @return A list of {@code elements}.
+     */
+    public static <T> PersistentList<T> fromList(List<? extends T> elements) {
+        PersistentList<T> output = empty();
+        if (elements != null) {
+            for (T element : elements) {
+                output = output.add(element);
+            }
+        }
+        return output;
+    }
+
+    /**
+     * @return The number of elements.
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * @return {@code true} if and only if the list has no elements.
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * @param index The index of the element, from 0.
+     * @return The element at {@code index}.
+     */
+    public T get(int index) {
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+        }
+
+        PersistentList<T> node = this;
+        while (node.size > index + 1) {
+            node = node.init;
+        }
+        return node.last;
+    }
+
+    /**
+     * @param element The element to look for.
+     * @return {@code true} if and only if the list contains an element equal to {@code element}.
+     */
+    public boolean contains(Object element) {
+        for (PersistentList<T> node = this; node.size > 0; node = node.init) {
+            if (Objects.equals(node.last, element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param element The element to append.
+     * @return A new list with {@code element} appended.
+     */
+    public PersistentList<T> add(T element) {
+        return new PersistentList<>(this, element, this.size + 1);
+    }
+
+    /**
+     * @param element The element to remove.
+     * @return A new list without the first element equal to {@code element}, or this list if there is none.
+     */
+    public PersistentList<T> remove(Object element) {
+        Object[] elements = toArray();
+        for (int i = 0; i < elements.length; i++) {
+            if (Objects.equals(elements[i], element)) {
+                return withoutIndex(elements, i);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return A new {@code ArrayList} of the elements. Modifying it does not affect this list.
+     */
+    @SuppressWarnings("unchecked")
+    public ArrayList<T> toArrayList() {
+        ArrayList<T> output = new ArrayList<>(this.size);
+        for (Object element : toArray()) {
+            output.add((T) element);
+        }
+        return output;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        Object[] elements = toArray();
+        return new Iterator<T>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < elements.length;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (T) elements[this.index++];
+            }
+        };
+    }
+
+    private Object[] toArray() {
+        Object[] output = new Object[this.size];
+        for (PersistentList<T> node = this; node.size > 0; node = node.init) {
+            output[node.size - 1] = node.last;
+        }
+        return output;
+    }
+
+    @SuppressWarnings("unchecked")
+    private PersistentList<T> withoutIndex(Object[] elements, int index) {
+        PersistentList<T> output = this;
+        while (output.size > index) {
+            output = output.init;
+        }
+        for (int i = index + 1; i < elements.length; i++) {
+            output = output.add((T) elements[i]);
+        }
+        return output;
+    }
+}
@@ -0,0 +1,412 @@
+package linenux.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+//@@author A0135788M
+/**
+ * An immutable sorted map backed by a persistent AVL tree. Every update returns a new map which shares all
+ * untouched subtrees with the original, so an update only allocates O(log n) new nodes. Each node also tracks the
+ * size of its subtree, which allows positional access in O(log n).
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public class PersistentTreeMap<K, V> {
+    /**
+     * A node of the tree. Nodes are never mutated once constructed.
+     */
+    private static class Node<K, V> {
+        private final K key;
+        private final V value;
+        private final Node<K, V> left;
+        private final Node<K, V> right;
+        private final int height;
+        private final int size;
+
+        private Node(K key, V value, Node<K, V> left, Node<K, V> right) {
+            this.key = key;
+            this.value = value;
+            this.left = left;
+            this.right = right;
+            this.height = Math.max(height(left), height(right)) + 1;
+            this.size = size(left) + size(right) + 1;
+        }
+    }
+
+    /**
+     * A key-value pair of the map.
+     */
+    public static class Entry<K, V> {
+        private final K key;
+        private final V value;
+
+        private Entry(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        /**
+         * @return The key of this entry.
+         */
+        public K getKey() {
+            return this.key;
+        }
+
+        /**
+         * @return The value of this entry.
+         */
+        public V getValue() {
+            return this.value;
+        }
+    }
+
+    private final Comparator<? super K> comparator;
+    private final Node<K, V> root;
+
+    /**
+     * Constructs an empty map ordered by {@code comparator}.
+     * @param comparator The {@code Comparator} used to order the keys.
+     */
+    public PersistentTreeMap(Comparator<? super K> comparator) {
+        this(comparator, null);
+    }
+
+    private PersistentTreeMap(Comparator<? super K> comparator, Node<K, V> root) {
+        this.comparator = comparator;
+        this.root = root;
+    }
+
+    /**
+     * Constructs an empty map for keys with a natural ordering.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     * @return An empty {@code PersistentTreeMap}.
+     */
+    public static <K extends Comparable<? super K>, V> PersistentTreeMap<K, V> empty() {
+        return new PersistentTreeMap<>(Comparator.naturalOrder());
+    }
+
+    /**
+     * Builds a balanced map in O(n) from keys that are already sorted in ascending order without duplicates.
+     * @param comparator The {@code Comparator} used to order the keys.
+     * @param keys The sorted keys.
+     * @param values The values, {@code values.get(i)} being the value of {@code keys.get(i)}.
+     * @param <K> The type of the keys.
+     * @param <V> The type of the values.
+     * @return A {@code PersistentTreeMap} containing the given mappings.
+     */
+    public static <K, V> PersistentTreeMap<K, V> fromSorted(Comparator<? super K> comparator, ArrayList<K> keys,
+                                                           ArrayList<V> values) {
+        assert keys.size() == values.size();
+        return new PersistentTreeMap<>(comparator, build(keys, values, 0, keys.size()));
+    }
+
+    /**
+     * @return The number of mappings in this map.
+     */
+    public int size() {
+        return size(this.root);
+    }
+
+    /**
+     * @return {@code true} if and only if this map has no mappings.
+     */
+    public boolean isEmpty() {
+        return this.root == null;
+    }
+
+    /**
+     * @param key The key to look for.
+     * @return The value mapped to {@code key}, or {@code null} if there is none.
+     */
+    public V get(K key) {
+        Node<K, V> node = this.root;
+
+        while (node != null) {
+            int cmp = this.comparator.compare(key, node.key);
+            if (cmp == 0) {
+                return node.value;
+            }
+            node = cmp < 0 ? node.left : node.right;
+        }
+
+        return null;
+    }
+
+    /**
+     * @param key The key to look for.
+     * @return {@code true} if and only if {@code key} is in this map.
+     */
+    public boolean containsKey(K key) {
+        return indexOfKey(key) >= 0;
+    }
+
+    /**
+     * @param key The key to insert.
+     * @param value The value to associate with {@code key}.
+     * @return A new map where {@code key} is mapped to {@code value}.
+     */
+    public PersistentTreeMap<K, V> put(K key, V value) {
+        return new PersistentTreeMap<>(this.comparator, put(this.root, key, value));
+    }
+
+    /**
+     * @param key The key to remove.
+     * @return A new map without {@code key}. If {@code key} is absent, this map is returned.
+     */
+    public PersistentTreeMap<K, V> remove(K key) {
+        Node<K, V> newRoot = remove(this.root, key);
+        return newRoot == this.root ? this : new PersistentTreeMap<>(this.comparator, newRoot);
+    }
+
+    /**
+     * @param index The position of the mapping, in ascending order of keys.
+     * @return The key at position {@code index}.
+     */
+    public K getKeyAt(int index) {
+        return nodeAt(index).key;
+    }
+
+    /**
+     * @param index The position of the mapping, in ascending order of keys.
+     * @return The value at position {@code index}.
+     */
+    public V getValueAt(int index) {
+        return nodeAt(index).value;
+    }
+
+    /**
+     * @param key The key to look for.
+     * @return The position of {@code key} in ascending order of keys, or -1 if {@code key} is absent.
+     */
+    public int indexOfKey(K key) {
+        Node<K, V> node = this.root;
+        int index = 0;
+
+        while (node != null) {
+            int cmp = this.comparator.compare(key, node.key);
+            if (cmp == 0) {
+                return index + size(node.left);
+            } else if (cmp < 0) {
+                node = node.left;
+            } else {
+                index += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return The smallest key, or {@code null} if the map is empty.
+     */
+    public K firstKey() {
+        return isEmpty() ? null : nodeAt(0).key;
+    }
+
+    /**
+     * @return The largest key, or {@code null} if the map is empty.
+     */
+    public K lastKey() {
+        return isEmpty() ? null : nodeAt(size() - 1).key;
+    }
+
+    /**
+     * @return All values in ascending order of keys.
+     */
+    public ArrayList<V> values() {
+        ArrayList<V> output = new ArrayList<>(size());
+        for (Entry<K, V> entry : entries()) {
+            output.add(entry.getValue());
+        }
+        return output;
+    }
+
+    /**
+     * @return All entries in ascending order of keys.
+     */
+    public Iterable<Entry<K, V>> entries() {
+        return () -> new EntryIterator(null, true, null, true);
+    }
+
+    /**
+     * Iterates over the entries whose keys lie in the given range. Either bound may be {@code null}, in which
+     * case the range is unbounded on that side. The cost is O(log n + k) where k is the number of entries visited.
+     * @param from The lower bound.
+     * @param fromInclusive Whether {@code from} itself is in the range.
+     * @param to The upper bound.
+     * @param toInclusive Whether {@code to} itself is in the range.
+     * @return The entries in the range, in ascending order of keys.
+     */
+    public Iterable<Entry<K, V>> entries(K from, boolean fromInclusive, K to, boolean toInclusive) {
+        return () -> new EntryIterator(from, fromInclusive, to, toInclusive);
+    }
+
+    /**
+     * An in-order iterator that lazily descends the tree, starting at the lower bound.
+     */
+    private class EntryIterator implements Iterator<Entry<K, V>> {
+        private final ArrayDeque<Node<K, V>> stack = new ArrayDeque<>();
+        private final K to;
+        private final boolean toInclusive;
+
+        private EntryIterator(K from, boolean fromInclusive, K to, boolean toInclusive) {
+            this.to = to;
+            this.toInclusive = toInclusive;
+
+            Node<K, V> node = root;
+            while (node != null) {
+                int cmp = from == null ? -1 : comparator.compare(from, node.key);
+                if (cmp < 0 || (cmp == 0 && fromInclusive)) {
+                    stack.push(node);
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (stack.isEmpty()) {
+                return false;
+            }
+
+            if (this.to == null) {
+                return true;
+            }
+
+            int cmp = comparator.compare(stack.peek().key, this.to);
+            return cmp < 0 || (cmp == 0 && this.toInclusive);
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            Node<K, V> node = stack.pop();
+            Node<K, V> child = node.right;
+            while (child != null) {
+                stack.push(child);
+                child = child.left;
+            }
+
+            return new Entry<>(node.key, node.value);
+        }
+    }
+
+    private Node<K, V> nodeAt(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+
+        Node<K, V> node = this.root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node<K, V> put(Node<K, V> node, K key, V value) {
+        if (node == null) {
+            return new Node<>(key, value, null, null);
+        }
+
+        int cmp = this.comparator.compare(key, node.key);
+        if (cmp < 0) {
+            return balance(node.key, node.value, put(node.left, key, value), node.right);
+        } else if (cmp > 0) {
+            return balance(node.key, node.value, node.left, put(node.right, key, value));
+        } else {
+            return new Node<>(key, value, node.left, node.right);
+        }
+    }
+
+    private Node<K, V> remove(Node<K, V> node, K key) {
+        if (node == null) {
+            return null;
+        }
+
+        int cmp = this.comparator.compare(key, node.key);
+        if (cmp < 0) {
+            Node<K, V> left = remove(node.left, key);
+            return left == node.left ? node : balance(node.key, node.value, left, node.right);
+        } else if (cmp > 0) {
+            Node<K, V> right = remove(node.right, key);
+            return right == node.right ? node : balance(node.key, node.value, node.left, right);
+        } else if (node.left == null) {
+            return node.right;
+        } else if (node.right == null) {
+            return node.left;
+        } else {
+            Node<K, V> successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            return balance(successor.key, successor.value, node.left, removeFirst(node.right));
+        }
+    }
+
+    private Node<K, V> removeFirst(Node<K, V> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        return balance(node.key, node.value, removeFirst(node.left), node.right);
+    }
+
+    private static <K, V> Node<K, V> balance(K key, V value, Node<K, V> left, Node<K, V> right) {
+        int diff = height(left) - height(right);
+
+        if (diff > 1) {
+            if (height(left.left) >= height(left.right)) {
+                return new Node<>(left.key, left.value, left.left, new Node<>(key, value, left.right, right));
+            } else {
+                Node<K, V> pivot = left.right;
+                return new Node<>(pivot.key, pivot.value, new Node<>(left.key, left.value, left.left, pivot.left),
+                        new Node<>(key, value, pivot.right, right));
+            }
+        } else if (diff < -1) {
+            if (height(right.right) >= height(right.left)) {
+                return new Node<>(right.key, right.value, new Node<>(key, value, left, right.left), right.right);
+            } else {
+                Node<K, V> pivot = right.left;
+                return new Node<>(pivot.key, pivot.value, new Node<>(key, value, left, pivot.left),
+                        new Node<>(right.key, right.value, pivot.right, right.right));
+            }
+        }
+
+        return new Node<>(key, value, left, right);
+    }
+
+    private static <K, V> Node<K, V> build(ArrayList<K> keys, ArrayList<V> values, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+
+        int mid = (from + to) >>> 1;
+        return new Node<>(keys.get(mid), values.get(mid), build(keys, values, from, mid),
+                build(keys, values, mid + 1, to));
+    }
+
+    private static int height(Node<?, ?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node<?, ?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,66 @@
+package linenux.util;
+
+import java.lang.ref.WeakReference;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//@@author A0135788M
+/**
+ * Canonicalizes strings that are repeated across many objects, such as tags and reminder notes, so that equal strings
+ * share a single instance. Tags come from a small vocabulary and are pooled for the life of the program. Free text,
+ * such as reminder notes, is pooled weakly, so a string leaves the pool once nothing else refers to it.
+ *
+ * Strings which are compared case-insensitively, such as tags, can also be given the id of their lower-cased form.
+ * Two strings are equal ignoring case if and only if their ids are equal, so comparing them only compares integers.
+ */
+public class StringPool {
+    private static final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Integer> foldedIds = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextFoldedId = new AtomicInteger();
+    private static final WeakHashMap<String, WeakReference<String>> weakPool = new WeakHashMap<>();
+
+    /**
+     * @param string The string to canonicalize.
+     * @return The pooled instance equal to {@code string}.
+     */
+    public static String intern(String string) {
+        String pooled = pool.putIfAbsent(string, string);
+        return pooled == null ? string : pooled;
+    }
+
+    /**
+     * Like {@code intern}, but without keeping {@code string} alive. Suits strings which are mostly unique.
+     * @param string The string to canonicalize.
+     * @return The pooled instance equal to {@code string}.
+     */
+    public static String internWeakly(String string) {
+        synchronized (weakPool) {
+            WeakReference<String> reference = weakPool.get(string);
+            String pooled = reference == null ? null : reference.get();
+            if (pooled == null) {
+                weakPool.put(string, new WeakReference<>(string));
+                return string;
+            }
+            return pooled;
+        }
+    }
+
+    /**
+     * @param string The string to identify.
+     * @return The id of the lower-cased form of {@code string}, which is assigned on first use.
+     */
+    public static int foldedId(String string) {
+        return foldedIds.computeIfAbsent(string.toLowerCase(), folded -> nextFoldedId.getAndIncrement());
+    }
+
+    /**
+     * @param string The string to identify.
+     * @return The id of the lower-cased form of {@code string}, or -1 if it was never assigned. Unlike
+     * {@code foldedId}, this never adds to the pool, so it suits strings typed by the user.
+     */
+    public static int findFoldedId(String string) {
+        Integer id = foldedIds.get(string.toLowerCase());
+        return id == null ? -1 : id;
+    }
+}
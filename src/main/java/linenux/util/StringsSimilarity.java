@@ -5,34 +5,144 @@ package linenux.util;
  * Computes the similarity between two strings.
  */
 public class StringsSimilarity {
+    //@@author A0135788M
+    private static final int WORD_SIZE = 64;
+    private static final int ASCII_SIZE = 128;
+    private static final ThreadLocal<long[]> ASCII_MASKS = ThreadLocal.withInitial(() -> new long[ASCII_SIZE]);
+
+    //@@author A0144915A
     /**
      * Computes the similarity between two strings.
      * @param a The first string.
      * @param b The second string.
-     * @return The Levenshtein distance between {@code a} and {@code b}.
+     * @return The Levenshtein distance between {@code a} and {@code b}, where a substitution costs as much as a
+     * deletion followed by an insertion.
      */
     public static int compute(String a, String b) {
-        int l1 = a.length();
-        int l2 = b.length();
-        int[][] dp = new int[l1+1][l2+1];
+        return compute(a, b, Integer.MAX_VALUE);
+    }
+
+    //@@author A0135788M
+    /**
+     * Computes the similarity between two strings, giving up as soon as it exceeds {@code maxDistance}. Since a
+     * substitution costs 2, the distance is the total length of the strings less twice the length of their longest
+     * common subsequence. When the shorter string fits in 64 characters, that subsequence is computed 64 cells at a
+     * time with bit operations, without allocating. Otherwise only the cells within {@code maxDistance} of the
+     * diagonal are computed.
+     * @param a The first string.
+     * @param b The second string.
+     * @param maxDistance The largest distance of interest.
+     * @return The distance between {@code a} and {@code b} if it is at most {@code maxDistance}, or
+     * {@code maxDistance + 1} otherwise.
+     */
+    public static int compute(String a, String b, int maxDistance) {
+        String shorter = a.length() <= b.length() ? a : b;
+        String longer = a.length() <= b.length() ? b : a;
+
+        if (longer.length() - shorter.length() > maxDistance) {
+            return maxDistance + 1;
+        } else if (shorter.isEmpty()) {
+            return longer.length();
+        } else if (shorter.length() <= WORD_SIZE) {
+            return computeBitParallel(shorter, longer, maxDistance);
+        } else {
+            return computeBanded(shorter, longer, maxDistance);
+        }
+    }
+
+    /**
+     * Computes the distance from the longest common subsequence of {@code a} and {@code b}, which is kept as a bit
+     * vector over the characters of {@code a} whose zero bits count the length of the subsequence so far.
+     */
+    private static int computeBitParallel(String a, String b, int maxDistance) {
+        int m = a.length();
+        int n = b.length();
+        long[] asciiMasks = ASCII_MASKS.get();
+        for (int i = 0; i < m; i++) {
+            char c = a.charAt(i);
+            if (c < ASCII_SIZE) {
+                asciiMasks[c] |= 1L << i;
+            }
+        }
+
+        long all = m == WORD_SIZE ? -1L : (1L << m) - 1;
+        long v = all;
+        int output = -1;
+        for (int j = 0; j < n && output < 0; j++) {
+            char c = b.charAt(j);
+            long u = v & (c < ASCII_SIZE ? asciiMasks[c] : maskOf(a, c));
+            v = ((v + u) | (v - u)) & all;
+
+            // The rest of b can add at most one character each to the subsequence.
+            int bestLength = Math.min(m, m - Long.bitCount(v) + n - j - 1);
+            if (m + n - 2 * bestLength > maxDistance) {
+                output = maxDistance + 1;
+            }
+        }
 
-        for (int i = 1; i <= l1; i++) {
-            dp[i][0] = i;
+        for (int i = 0; i < m; i++) {
+            char c = a.charAt(i);
+            if (c < ASCII_SIZE) {
+                asciiMasks[c] = 0;
+            }
         }
+        return output >= 0 ? output : m + n - 2 * (m - Long.bitCount(v));
+    }
 
-        for (int i = 1; i <= l2; i++) {
-            dp[0][i] = i;
+    /**
+     * @return The bits of the positions of {@code c} in {@code a}.
+     */
+    private static long maskOf(String a, char c) {
+        long output = 0;
+        for (int i = 0; i < a.length(); i++) {
+            if (a.charAt(i) == c) {
+                output |= 1L << i;
+            }
         }
+        return output;
+    }
+
+    /**
+     * Computes the distance row by row, only keeping the cells within {@code maxDistance} of the diagonal, since
+     * the others are further than {@code maxDistance} from the start.
+     */
+    private static int computeBanded(String a, String b, int maxDistance) {
+        int m = a.length();
+        int n = b.length();
+        int band = (int) Math.min(maxDistance, (long) m + n);
+        int outside = band + 1;
+
+        int[] previous = new int[n + 1];
+        int[] current = new int[n + 1];
+        for (int j = 0; j <= n; j++) {
+            previous[j] = Math.min(j, outside);
+        }
+
+        for (int i = 1; i <= m; i++) {
+            int from = Math.max(1, i - band);
+            int to = Math.min(n, i + band);
+            current[from - 1] = from == 1 ? Math.min(i, outside) : outside;
+            int rowMinimum = current[from - 1];
+
+            for (int j = from; j <= to; j++) {
+                int value = a.charAt(i - 1) == b.charAt(j - 1)
+                        ? previous[j - 1]
+                        : Math.min(previous[j], current[j - 1]) + 1;
+                current[j] = Math.min(value, outside);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (to < n) {
+                current[to + 1] = outside;
+            }
 
-        for (int i = 1; i <= l1; i++) {
-            for (int j = 1; j <= l2; j++) {
-                int add = dp[i-1][j] + 1;
-                int delete = dp[i][j-1] + 1;
-                int swap = dp[i-1][j-1] + (a.charAt(i-1) == b.charAt(j-1) ? 0 : 2);
-                dp[i][j] = Math.min(Math.min(add, delete), swap);
+            if (rowMinimum > band) {
+                return maxDistance + 1;
             }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
         }
 
-        return dp[l1][l2];
+        return previous[n] > band ? maxDistance + 1 : previous[n];
     }
 }
@@ -10,7 +10,6 @@ import javafx.scene.control.ListView;
 import linenux.control.ControlUnit;
 import linenux.model.State;
 import linenux.model.Task;
-import linenux.util.ArrayListUtil;
 import linenux.view.components.DeadlineCell;
 
 //@@author A0140702X
@@ -23,6 +22,7 @@ public class DeadlineBoxController {
 
     private ControlUnit controlUnit;
     private ObservableList<Task> deadlines = FXCollections.observableArrayList();
+    private TaskListModel model;
 
     /**
      * Initializes subviews.
@@ -39,48 +39,13 @@ public class DeadlineBoxController {
      */
     public void setControlUnit(ControlUnit controlUnit) {
         this.controlUnit = controlUnit;
-        updateDeadlines();
+        this.model = new TaskListModel(this.controlUnit.getSchedule(), State::getUndoneDeadlines, Task::isDeadline,
+                State.DEADLINE_ORDER, this.deadlines);
         this.controlUnit.getSchedule().getStates().addListener((ListChangeListener<? super State>) c -> {
-            updateDeadlines();
+            this.model.update();
         });
         this.controlUnit.getSchedule().getFilteredTaskList().addListener((ListChangeListener<? super ArrayList<Task>>) c -> {
-            updateFilteredDeadlines();
+            this.model.showFilteredTasks(this.controlUnit.getSchedule().getFilteredTasks());
         });
     }
-
-    /**
-     * Render new deadlines.
-     */
-    private void updateDeadlines() {
-        ArrayList<Task> tasks = this.controlUnit.getSchedule().getTaskList();
-        ArrayList<Task> undoneTasks = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
-                .filter(Task::isNotDone)
-                .value();
-        ArrayList<Task> deadlines = filterDeadlines(undoneTasks);
-        this.deadlines.setAll(deadlines);
-    }
-
-    /**
-     * Render filtered deadlines.
-     */
-    private void updateFilteredDeadlines() {
-        ArrayList<Task> filteredTasks = this.controlUnit.getSchedule().getFilteredTasks();
-        ArrayList<Task> deadlines = filterDeadlines(filteredTasks);
-        this.deadlines.setAll(deadlines);
-    }
-
-    /**
-     * Sieve out only deadlines.
-     * @param tasks The original {@code ArrayList} of {@code Task}.
-     * @return An {@code ArrayList} of {@code Task} which are deadlines.
-     */
-    private ArrayList<Task> filterDeadlines(ArrayList<Task> tasks) {
-        ArrayList<Task> deadlines = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
-                .filter(Task::isDeadline)
-                .sortBy(Task::getTaskName)
-                .sortBy(Task::getEndTime)
-                .value();
-
-        return deadlines;
-    }
 }
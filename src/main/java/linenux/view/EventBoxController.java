@@ -10,7 +10,6 @@ import javafx.scene.control.ListView;
 import linenux.control.ControlUnit;
 import linenux.model.State;
 import linenux.model.Task;
-import linenux.util.ArrayListUtil;
 import linenux.view.components.EventCell;
 
 //@@author A0127694U
@@ -23,6 +22,7 @@ public class EventBoxController {
 
     private ControlUnit controlUnit;
     private ObservableList<Task> events = FXCollections.observableArrayList();
+    private TaskListModel model;
 
     /**
      * Initializes subviews.
@@ -39,48 +39,13 @@ public class EventBoxController {
      */
     public void setControlUnit(ControlUnit controlUnit) {
         this.controlUnit = controlUnit;
-        updateEvents();
+        this.model = new TaskListModel(this.controlUnit.getSchedule(), State::getUndoneEvents, Task::isEvent,
+                State.EVENT_ORDER, this.events);
         this.controlUnit.getSchedule().getStates().addListener((ListChangeListener<? super State>) c -> {
-            updateEvents();
+            this.model.update();
         });
         this.controlUnit.getSchedule().getFilteredTaskList().addListener((ListChangeListener<? super ArrayList<Task>>) c -> {
-            updateFilteredEvents();
+            this.model.showFilteredTasks(this.controlUnit.getSchedule().getFilteredTasks());
         });
     }
-
-    /**
-     * Render new events.
-     */
-    private void updateEvents() {
-        ArrayList<Task> tasks = this.controlUnit.getSchedule().getTaskList();
-        ArrayList<Task> undoneTasks = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
-                .filter(Task::isNotDone)
-                .value();
-        ArrayList<Task> events = filterEvents(undoneTasks);
-        this.events.setAll(events);
-    }
-
-    /**
-     * Render filtered events.
-     */
-    private void updateFilteredEvents() {
-        ArrayList<Task> filteredTasks = this.controlUnit.getSchedule().getFilteredTasks();
-        ArrayList<Task> events = filterEvents(filteredTasks);
-        this.events.setAll(events);
-    }
-
-    /**
-     * Sieve out only events.
-     * @param tasks The original {@code ArrayList} of {@code Task}.
-     * @return An {@code ArrayList} of {@code Task} which are events.
-     */
-    private ArrayList<Task> filterEvents(ArrayList<Task> tasks) {
-        ArrayList<Task> events = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
-                .filter(Task::isEvent)
-                .sortBy(Task::getTaskName)
-                .sortBy(Task::getStartTime)
-                .value();
-
-        return events;
-    }
 }
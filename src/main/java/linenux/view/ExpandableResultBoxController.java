@@ -6,7 +6,9 @@ import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.scene.control.TextArea;
 import linenux.control.ControlUnit;
+import linenux.model.ChangeFeed;
 import linenux.model.Reminder;
+import linenux.model.ScheduleChange;
 import linenux.model.State;
 import linenux.model.Task;
 import linenux.util.ArrayListUtil;
@@ -33,6 +35,7 @@ public class ExpandableResultBoxController {
     private UserAction lastUserAction = UserAction.HIDE;
     private Clock clock = Clock.systemDefaultZone();
     private boolean isShowingFilteredTasks = false;
+    private ChangeFeed.Cursor cursor;
 
     /**
      * Update the application {@code ControlUnit}.
@@ -44,8 +47,11 @@ public class ExpandableResultBoxController {
             this.setText(this.controlUnit.getLastCommandResultProperty().get().getFeedback());
         });
         this.renderInitialReminders();
+        this.cursor = this.controlUnit.getSchedule().getChangeFeed().cursor();
         this.controlUnit.getSchedule().getStates().addListener((ListChangeListener<? super State>) change -> {
-            this.onTaskListChange();
+            if (this.isShowingFilteredTasks || affectsReminders(this.cursor.poll())) {
+                this.onTaskListChange();
+            }
         });
         this.controlUnit.getSchedule().getFilteredTaskList().addListener((ListChangeListener<? super ArrayList<Task>>) (change) -> {
             this.onFilteredTaskListChange();
@@ -106,10 +112,7 @@ public class ExpandableResultBoxController {
     }
 
     private void onTaskListChange() {
-        ArrayList<Task> tasks = this.controlUnit.getSchedule().getTaskList();
-        ArrayList<Task> undoneTasks = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
-                .filter(Task::isNotDone)
-                .value();
+        ArrayList<Task> undoneTasks = this.controlUnit.getSchedule().getSnapshot().getUndoneTasks();
 
         this.isShowingFilteredTasks = false;
 
@@ -118,6 +121,35 @@ public class ExpandableResultBoxController {
         }
     }
 
+    /**
+     * @param changes The changes made to the schedule.
+     * @return {@code true} if and only if {@code changes} may change the reminders shown.
+     */
+    private boolean affectsReminders(ArrayList<ScheduleChange> changes) {
+        for (ScheduleChange change : changes) {
+            Task task = change.getTask();
+            Task previousTask = change.getPreviousTask();
+
+            if (change.getKind() == ScheduleChange.Kind.TASK_ADDED) {
+                if (task.hasReminders()) {
+                    return true;
+                }
+            } else if (change.getKind() == ScheduleChange.Kind.TASK_REMOVED) {
+                if (previousTask.hasReminders()) {
+                    return true;
+                }
+            } else if (change.getKind() == ScheduleChange.Kind.TASK_UPDATED) {
+                // Edits to the reminders themselves come as separate changes.
+                if (task.hasReminders() && task.isDone() != previousTask.isDone()) {
+                    return true;
+                }
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Callback when filtered task changes.
      */
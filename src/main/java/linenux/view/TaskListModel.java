@@ -0,0 +1,155 @@
+package linenux.view;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import javafx.collections.ObservableList;
+import linenux.model.ChangeFeed;
+import linenux.model.Schedule;
+import linenux.model.ScheduleChange;
+import linenux.model.State;
+import linenux.model.Task;
+import linenux.util.ArrayListUtil;
+
+//@@author A0135788M
+/**
+ * Keeps the undone tasks of one kind sorted for display. The list starts from the sorted tasks memoized by the current
+ * {@code State}, and is then kept up to date by replaying the schedule's {@code ChangeFeed}, so each change only costs
+ * a binary search and an insertion or removal.
+ */
+class TaskListModel {
+    /**
+     * A displayed task along with its position in the schedule, which breaks ties in the display order.
+     */
+    private static class Entry {
+        private final long position;
+        private final Task task;
+
+        private Entry(long position, Task task) {
+            this.position = position;
+            this.task = task;
+        }
+    }
+
+    private final Schedule schedule;
+    private final Function<State, ArrayList<Task>> shownTasks;
+    private final Predicate<Task> kind;
+    private final Comparator<Task> order;
+    private final Comparator<Entry> entryOrder;
+    private final ObservableList<Task> items;
+    private final ArrayList<Entry> entries = new ArrayList<>();
+    private ChangeFeed.Cursor cursor;
+    private boolean isShowingFilteredTasks = false;
+
+    /**
+     * @param schedule The {@code Schedule} to display.
+     * @param shownTasks Gives the undone tasks selected by {@code kind} from a {@code State}, sorted by
+     * {@code order} and then by schedule order.
+     * @param kind Selects the tasks to display.
+     * @param order The display order. Tasks which compare equal are displayed in schedule order.
+     * @param items The list rendered on screen.
+     */
+    TaskListModel(Schedule schedule, Function<State, ArrayList<Task>> shownTasks, Predicate<Task> kind,
+                  Comparator<Task> order, ObservableList<Task> items) {
+        this.schedule = schedule;
+        this.shownTasks = shownTasks;
+        this.kind = kind;
+        this.order = order;
+        this.entryOrder = Comparator.<Entry, Task>comparing(entry -> entry.task, order)
+                .thenComparingLong(entry -> entry.position);
+        this.items = items;
+        this.reset();
+    }
+
+    /**
+     * Applies the changes made to the schedule since the last update, and shows every matching task again.
+     */
+    void update() {
+        ArrayList<ScheduleChange> changes = this.cursor.poll();
+
+        for (ScheduleChange change : changes) {
+            if (change.getKind() == ScheduleChange.Kind.RESET) {
+                this.reset();
+                return;
+            }
+        }
+
+        boolean wasShowingFilteredTasks = this.isShowingFilteredTasks;
+        this.isShowingFilteredTasks = false;
+        for (ScheduleChange change : changes) {
+            apply(change, !wasShowingFilteredTasks);
+        }
+
+        if (wasShowingFilteredTasks) {
+            this.items.setAll(tasks());
+        }
+    }
+
+    /**
+     * Shows the matching tasks among {@code filteredTasks} until the schedule changes.
+     * @param filteredTasks The tasks to show, whether done or not.
+     */
+    void showFilteredTasks(ArrayList<Task> filteredTasks) {
+        this.isShowingFilteredTasks = true;
+        this.items.setAll(new ArrayListUtil.ChainableArrayListUtil<>(filteredTasks)
+                .filter(this.kind)
+                .sort(this.order)
+                .value());
+    }
+
+    /**
+     * Rebuilds the list from the current state of the schedule.
+     */
+    private void reset() {
+        this.cursor = this.schedule.getChangeFeed().cursor();
+        this.isShowingFilteredTasks = false;
+        this.entries.clear();
+
+        State state = this.schedule.getSnapshot();
+        ArrayList<Task> tasks = this.shownTasks.apply(state);
+        for (Task task : tasks) {
+            this.entries.add(new Entry(state.getPosition(task), task));
+        }
+        this.items.setAll(tasks);
+    }
+
+    private void apply(ScheduleChange change, boolean updateItems) {
+        Task previousTask = change.getPreviousTask();
+        if (previousTask != null && isShown(previousTask)) {
+            int index = Collections.binarySearch(this.entries, new Entry(change.getPosition(), previousTask),
+                    this.entryOrder);
+            assert index >= 0;
+            this.entries.remove(index);
+            if (updateItems) {
+                this.items.remove(index);
+            }
+        }
+
+        Task task = change.getTask();
+        boolean isTaskChange = change.getKind() == ScheduleChange.Kind.TASK_ADDED
+                || change.getKind() == ScheduleChange.Kind.TASK_UPDATED;
+        if (isTaskChange && isShown(task)) {
+            int index = -Collections.binarySearch(this.entries, new Entry(change.getPosition(), task),
+                    this.entryOrder) - 1;
+            this.entries.add(index, new Entry(change.getPosition(), task));
+            if (updateItems) {
+                this.items.add(index, task);
+            }
+        }
+    }
+
+    private boolean isShown(Task task) {
+        return task.isNotDone() && this.kind.test(task);
+    }
+
+    private ArrayList<Task> tasks() {
+        ArrayList<Task> output = new ArrayList<>(this.entries.size());
+        for (Entry entry : this.entries) {
+            output.add(entry.task);
+        }
+        return output;
+    }
+}
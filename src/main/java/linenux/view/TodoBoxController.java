@@ -1,7 +1,6 @@
 package linenux.view;
 
 import java.util.ArrayList;
-import java.util.function.Predicate;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
@@ -11,7 +10,6 @@ import javafx.scene.control.ListView;
 import linenux.control.ControlUnit;
 import linenux.model.State;
 import linenux.model.Task;
-import linenux.util.ArrayListUtil;
 import linenux.view.components.TodoCell;
 
 //@@author A0127694U
@@ -24,6 +22,7 @@ public class TodoBoxController {
 
     private ControlUnit controlUnit;
     private ObservableList<Task> todos = FXCollections.observableArrayList();
+    private TaskListModel model;
 
     /**
      * Initializes subviews.
@@ -40,47 +39,13 @@ public class TodoBoxController {
      */
     public void setControlUnit(ControlUnit controlUnit) {
         this.controlUnit = controlUnit;
-        updateTodos();
+        this.model = new TaskListModel(this.controlUnit.getSchedule(), State::getUndoneTodos, Task::isTodo,
+                State.TODO_ORDER, this.todos);
         this.controlUnit.getSchedule().getStates().addListener((ListChangeListener<? super State>) c -> {
-            updateTodos();
+            this.model.update();
         });
         this.controlUnit.getSchedule().getFilteredTaskList().addListener((ListChangeListener<? super ArrayList<Task>>) c -> {
-            updateFilteredTodos();
+            this.model.showFilteredTasks(this.controlUnit.getSchedule().getFilteredTasks());
         });
     }
-
-    /**
-     * Render new todos.
-     */
-    private void updateTodos() {
-        ArrayList<Task> tasks = this.controlUnit.getSchedule().getTaskList();
-        ArrayList<Task> undoneTasks = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
-                .filter(((Predicate<Task>) Task::isDone).negate())
-                .value();
-        ArrayList<Task> todos = filterToDos(undoneTasks);
-        this.todos.setAll(todos);
-    }
-
-    /**
-     * Render filtered todos.
-     */
-    private void updateFilteredTodos() {
-        ArrayList<Task> filteredTasks = this.controlUnit.getSchedule().getFilteredTasks();
-        ArrayList<Task> todos = filterToDos(filteredTasks);
-        this.todos.setAll(todos);
-    }
-
-    /**
-     * Sieve out only todos.
-     * @param tasks The original {@code ArrayList} of {@code Task}.
-     * @return An {@code ArrayList} of {@code Task} which are todos.
-     */
-    private ArrayList<Task> filterToDos(ArrayList<Task> tasks) {
-        ArrayList<Task> todos = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
-                .filter(Task::isTodo)
-                .sortBy(Task::getTaskName)
-                .value();
-
-        return todos;
-    }
 }
@@ -98,6 +98,39 @@ public class DeleteCommandTest {
         assertEquals("Deleted \"hello\".", result.getFeedback());
     }
 
+    //@@author A0135788M
+    /**
+     * Test that a close match is only deleted once the user picks it.
+     */
+    @Test
+    public void execute_misspeltName_closeMatchPrompted() {
+        this.schedule.addTask(new Task("team meeting"));
+        CommandResult result = assertNoChange(() -> this.schedule.getTaskList().size(),
+                () -> this.deleteCommand.execute("delete meetng"));
+        assertEquals("Which one? (1-1, \"cancel\" to cancel the current operation)\n1. team meeting",
+                result.getFeedback());
+        assertTrue(this.deleteCommand.isAwaitingUserResponse());
+
+        assertChangeBy(() -> this.schedule.getTaskList().size(), -1,
+                () -> this.deleteCommand.processUserResponse("1"));
+    }
+
+    /**
+     * Test that the user is told when only the most relevant matches are offered.
+     */
+    @Test
+    public void execute_tooManyMatches_matchCountShown() {
+        for (int i = 1; i <= 12; i++) {
+            this.schedule.addTask(new Task("chore " + i));
+        }
+        CommandResult result = assertNoChange(() -> this.schedule.getTaskList().size(),
+                () -> this.deleteCommand.execute("delete chore"));
+        assertTrue(result.getFeedback().startsWith("Showing 10 of 12 matches, refine your keywords to see the rest.\n"
+                + "Which one? (1-10, \"cancel\" to cancel the current operation)\n1. chore 1\n"));
+        assertTrue(result.getFeedback().endsWith("\n10. chore 10"));
+    }
+
+    //@@author A0127694U
     /**
      * Test the feedback when multiple matches are found.
      */
@@ -32,11 +32,11 @@ public class DeleteReminderCommandTest {
 
     private void setupMultipleRemindersAndExecuteAmbiguousCommand() {
         Task task1 = new Task("hello world");
-        task1.getReminders().add(new Reminder("wash up", LocalDateTime.of(2016, 11, 1, 17, 0)));
+        task1 = task1.addReminder(new Reminder("wash up", LocalDateTime.of(2016, 11, 1, 17, 0)));
         this.schedule.addTask(task1);
         Task task2 = new Task("hello");
-        task2.getReminders().add(new Reminder("wash laundry", LocalDateTime.of(2016, 12, 1, 3, 0)));
-        task2.getReminders().add(new Reminder("wash car", LocalDateTime.of(2016, 12, 2, 3, 0)));
+        task2 = task2.addReminder(new Reminder("wash laundry", LocalDateTime.of(2016, 12, 1, 3, 0)));
+        task2 = task2.addReminder(new Reminder("wash car", LocalDateTime.of(2016, 12, 2, 3, 0)));
         this.schedule.addTask(task2);
         this.deleteReminderCommand.execute("deleter wash");
     }
@@ -103,26 +103,45 @@ public class DeleteReminderCommandTest {
     public void execute_oneMatch_reminderDeleted() {
         this.schedule.clear();
         Task task1 = new Task("hello");
-        task1.getReminders().add(new Reminder("world", LocalDateTime.of(2016, 12, 1, 18, 0)));
+        task1 = task1.addReminder(new Reminder("world", LocalDateTime.of(2016, 12, 1, 18, 0)));
         this.schedule.addTask(task1);
         Task task2 = new Task("new world");
-        task2.getReminders().add(new Reminder("begins", LocalDateTime.of(2016, 12, 3, 2, 0)));
+        task2 = task2.addReminder(new Reminder("begins", LocalDateTime.of(2016, 12, 3, 2, 0)));
 
         CommandResult result = assertChangeBy(() -> this.schedule.getReminderList().size(), -1,
                 () -> this.deleteReminderCommand.execute("deleter world"));
         assertEquals("Deleted reminder \"world (On 2016-12-01 6.00PM)\" from task \"hello\".", result.getFeedback());
     }
 
+    //@@author A0135788M
+    /**
+     * Test that a quoted phrase only matches notes with its words next to each other, in order.
+     */
+    @Test
+    public void execute_quotedPhrase_onlyNoteWithPhraseDeleted() {
+        Task task1 = new Task("groceries");
+        task1 = task1.addReminder(new Reminder("buy milk", LocalDateTime.of(2016, 12, 1, 18, 0)));
+        task1 = task1.addReminder(new Reminder("milk to buy", LocalDateTime.of(2016, 12, 2, 18, 0)));
+        this.schedule.addTask(task1);
+
+        CommandResult result = assertChangeBy(() -> this.schedule.getReminderList().size(), -1,
+                () -> this.deleteReminderCommand.execute("deleter \"Buy Milk\""));
+        assertEquals("Deleted reminder \"buy milk (On 2016-12-01 6.00PM)\" from task \"groceries\".",
+                result.getFeedback());
+        assertEquals("milk to buy", this.schedule.getReminderList().get(0).getNote());
+    }
+
+    //@@author A0127694U
     /**
      * Test the feedback when multiple matches are found.
      */
     @Test
     public void execute_multipleMatches_commandResultReturned() {
         Task task1 = new Task("hello world");
-        task1.getReminders().add(new Reminder("hello", LocalDateTime.of(2017, 1, 1, 0, 0)));
+        task1 = task1.addReminder(new Reminder("hello", LocalDateTime.of(2017, 1, 1, 0, 0)));
         this.schedule.addTask(task1);
         Task task2 = new Task("say hello");
-        task2.getReminders().add(new Reminder("hello again", LocalDateTime.of(2017, 1, 5, 3, 0)));
+        task2 = task2.addReminder(new Reminder("hello again", LocalDateTime.of(2017, 1, 5, 3, 0)));
         this.schedule.addTask(task2);
         CommandResult result = assertNoChange(() -> this.schedule.getReminderList().size(),
                 () -> this.deleteReminderCommand.execute("deleter hello"));
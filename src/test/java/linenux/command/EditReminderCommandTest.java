@@ -272,4 +272,22 @@ public class EditReminderCommandTest {
 
         assertEquals("Cannot find reminders with \"hello\".", result.getFeedback());
     }
+
+    //@@author A0135788M
+    /**
+     * Test that a quoted phrase picks out the note with its words in order.
+     */
+    @Test
+    public void execute_quotedPhrase_onlyNoteWithPhraseUpdated() {
+        Task task = new Task("hello");
+        task = task.addReminder(new Reminder("wash the car", LocalDateTime.of(2016, 01, 01, 17, 00)));
+        task = task.addReminder(new Reminder("car wash", LocalDateTime.of(2016, 01, 02, 17, 00)));
+        this.schedule.addTask(task);
+
+        this.editReminderCommand.execute("editr \"car wash\" n/car wash on sunday");
+
+        Task editedTask = this.schedule.getTaskList().get(0);
+        assertEquals("wash the car", editedTask.getReminders().get(0).getNote());
+        assertEquals("car wash on sunday", editedTask.getReminders().get(1).getNote());
+    }
 }
@@ -79,6 +79,31 @@ public class InvalidCommandTest {
         assertEquals("Invalid command.", result.getFeedback());
     }
 
+    //@@author A0135788M
+    /**
+     * Test that aliases are suggested, including the ones added after the first invalid command.
+     */
+    @Test
+    public void execute_aliasAdded_aliasSuggested() {
+        Command list = this.controlUnit.getCommandList().get(0);
+        list.setAlias("show");
+        assertEquals("Invalid command. Did you mean show?", this.invalidCommand.execute("shw").getFeedback());
+
+        list.removeAlias("show");
+        list.setAlias("view");
+        assertEquals("Invalid command. Did you mean view?", this.invalidCommand.execute("viw").getFeedback());
+    }
+
+    /**
+     * Test that nothing is suggested for input unlike any trigger word.
+     */
+    @Test
+    public void execute_farFromEveryTriggerWord_noSuggestion() {
+        CommandResult result = this.invalidCommand.execute("q");
+        assertEquals("Invalid command.", result.getFeedback());
+    }
+
+    //@@author A0144915A
     private static class BaseMockCommand extends AbstractCommand {
         @Override
         public String getTriggerWord() {
@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 
@@ -11,6 +12,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import linenux.command.result.CommandResult;
+import linenux.model.DateRangeQuery;
 import linenux.model.Reminder;
 import linenux.model.Schedule;
 import linenux.model.Task;
@@ -425,6 +427,40 @@ public class ListCommandTest {
         assertTrue(!filteredTasks.contains(todo3));
     }
 
+    //@@author A0135788M
+    /**
+     * Test that list command filters by alternative and negated tags
+     */
+    @Test
+    public void execute_tagAlternativesAndNegation_matchingTasksReturned() {
+        ArrayList<String> tags1 = new ArrayList<>();
+        ArrayList<String> tags2 = new ArrayList<>();
+        ArrayList<String> tags3 = new ArrayList<>();
+
+        tags1.add("hello");
+        tags2.add("hello");
+        tags2.add("world");
+        tags3.add("wat");
+
+        Task todo1 = new Task("todo 1", tags1);
+        Task todo2 = new Task("todo 2", tags2);
+        Task todo3 = new Task("todo 3", tags3);
+
+        this.schedule.addTask(todo1);
+        this.schedule.addTask(todo2);
+        this.schedule.addTask(todo3);
+
+        this.listCommand.execute("list #/hello|wat #/!World");
+
+        ArrayList<Task> filteredTasks = this.schedule.getFilteredTasks();
+
+        assertTrue(filteredTasks.contains(todo1));
+        assertTrue(!filteredTasks.contains(todo2));
+        assertTrue(filteredTasks.contains(todo3));
+        assertTrue(this.listCommand.execute("list #/hello|").getFeedback().startsWith("Invalid arguments."));
+    }
+
+    //@@author A0140702X
     /**
      * Test that default list command does not show done task.
      */
@@ -503,4 +539,59 @@ public class ListCommandTest {
                 + "d/all - View all done and uncompleted tasks.\n" + "d/yes - Show only tasks that are marked done.";
         assertEquals(expectedFeedback, result.getFeedback());
     }
+
+    //@@author A0135788M
+    /**
+     * Test that archived tasks are only listed when done tasks are requested
+     */
+    @Test
+    public void execute_archivedTask_listedOnlyWithDoneFlag() {
+        Task archived = new Task("todo archived").markAsDone(LocalDateTime.of(2016, 1, 1, 17, 0));
+        Task todo = new Task("todo");
+
+        this.schedule.addTask(archived);
+        this.schedule.addTask(todo);
+        this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 2, 1, 0, 0));
+
+        this.listCommand.execute("list d/yes");
+        assertTrue(this.schedule.getFilteredTasks().contains(archived));
+
+        this.listCommand.execute("list todo d/all");
+        assertTrue(this.schedule.getFilteredTasks().contains(archived));
+        assertTrue(this.schedule.getFilteredTasks().contains(todo));
+
+        this.listCommand.execute("list todo");
+        assertFalse(this.schedule.getFilteredTasks().contains(archived));
+    }
+
+    /**
+     * Test that a date range query lists the same tasks as the equivalent start and end times
+     */
+    @Test
+    public void execute_dateRangeQuery_sameTasksAsTimeArguments() {
+        LocalDate day = LocalDate.of(2016, 1, 2);
+        this.schedule.addTask(new Task("todo"));
+        this.schedule.addTask(new Task("deadline", day.atTime(17, 0)));
+        this.schedule.addTask(new Task("event", day.minusDays(1).atTime(17, 0), day.atTime(1, 0)));
+        this.schedule.addTask(new Task("later", day.plusDays(1).atTime(17, 0)));
+        this.schedule.addTask(new Task("done", day.atTime(9, 0)).markAsDone());
+
+        this.listCommand.execute("list st/2016-01-02 12.00AM et/2016-01-02 11.59PM");
+        ArrayList<Task> expected = this.schedule.getFilteredTasks();
+        this.listCommand.execute(DateRangeQuery.onDay(day));
+        assertEquals(expected, this.schedule.getFilteredTasks());
+        assertEquals(3, expected.size());
+    }
+
+    /**
+     * Test that a date range query without tasks in range says so
+     */
+    @Test
+    public void execute_dateRangeQueryWithoutTasks_noTasksFoundReturned() {
+        this.schedule.addTask(new Task("deadline", LocalDateTime.of(2016, 1, 5, 17, 0)));
+
+        CommandResult result = this.listCommand.execute(DateRangeQuery.onDay(LocalDate.of(2016, 1, 2)));
+        assertEquals("There are no tasks and reminders found based on your given inputs!", result.getFeedback());
+        assertTrue(this.schedule.getFilteredTasks().isEmpty());
+    }
 }
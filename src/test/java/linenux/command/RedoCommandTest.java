@@ -0,0 +1,94 @@
+package linenux.command;
+
+import static linenux.helpers.Assert.assertChangeBy;
+import static linenux.helpers.Assert.assertNoChange;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import linenux.model.Schedule;
+import linenux.model.Task;
+
+//@@author A0135788M
+/**
+ * JUnit test for redo command.
+ */
+public class RedoCommandTest {
+    private Schedule schedule;
+    private RedoCommand redoCommand;
+
+    @Before
+    public void setUpRedoCommand() {
+        this.schedule = new Schedule();
+        this.redoCommand = new RedoCommand(this.schedule);
+    }
+
+    /**
+     * Should only return true if the user input is "redo" without any other spaces or characters.
+     */
+    @Test
+    public void respondTo_redo_trueReturned() {
+        assertTrue(redoCommand.respondTo("redo"));
+        assertTrue(redoCommand.respondTo("redo "));
+        assertTrue(redoCommand.respondTo(" redo"));
+    }
+
+    /**
+     * Test that respondTo is case-insensitive.
+     */
+    @Test
+    public void respondTo_upperCase_trueReturned() {
+        assertTrue(redoCommand.respondTo("ReDo"));
+    }
+
+    /**
+     * Test that respondTo will return false for other commands.
+     */
+    @Test
+    public void respondTo_otherCommands_falseReturned() {
+        assertFalse(this.redoCommand.respondTo("undo"));
+    }
+
+    /**
+     * Test that redo reapplies an undone change.
+     */
+    @Test
+    public void execute_undoneChange_changeReapplied() {
+        this.schedule.addTask(new Task("task1"));
+        this.schedule.undo();
+        assertChangeBy(() -> this.schedule.getTaskList().size(),
+                1,
+                () -> this.redoCommand.execute("redo"));
+    }
+
+    /**
+     * Test that redo does nothing if nothing was undone.
+     */
+    @Test
+    public void execute_nothingToRedo_nothingHappens() {
+        this.schedule.addTask(new Task("task1"));
+        assertNoChange(() -> this.schedule.getTaskList().size(),
+                () -> this.redoCommand.execute("redo"));
+    }
+
+    /**
+     * Test successful redo message.
+     */
+    @Test
+    public void execute_validCommand_commandResultReturned() {
+        this.schedule.addTask(new Task("task1"));
+        this.schedule.undo();
+        assertEquals("Successfully redo last undone command.", this.redoCommand.execute("redo").getFeedback());
+    }
+
+    /**
+     * Test no more commands to redo message.
+     */
+    @Test
+    public void execute_invalidCommand_commandResultReturned() {
+        assertEquals("No more commands to redo!", this.redoCommand.execute("redo").getFeedback());
+    }
+}
@@ -53,25 +53,40 @@ public class UndoCommandTest {
     }
 
     /**
-     * Test that undo successfully removes a state if number of states > 1.
+     * Test that undo reverts the last change to the schedule.
      */
     @Test
     public void execute_validInput_lastActionUndone() {
         this.schedule.addTask(new Task("task1"));
-        assertChangeBy(() -> this.schedule.getStates().size(),
+        assertChangeBy(() -> this.schedule.getTaskList().size(),
                 -1,
                 () -> this.undoCommand.execute("undo"));
     }
 
     /**
-     * Test that undo does not remove the last state if number of states = 1.
+     * Test that undo does nothing if there is no change to revert.
      */
     @Test
     public void execute_nothingToUndo_nothingHappens() {
-        assertNoChange(() -> this.schedule.getStates().size(),
+        assertNoChange(() -> this.schedule.getTaskList().size(),
                 () -> this.undoCommand.execute("undo"));
     }
 
+    /**
+     * Test that a deleted task is restored at its original position.
+     */
+    @Test
+    public void execute_deletedTask_taskRestoredInPlace() {
+        Task task1 = new Task("task1");
+        this.schedule.addTask(task1);
+        this.schedule.addTask(new Task("task2"));
+        this.schedule.deleteTask(task1);
+        this.undoCommand.execute("undo");
+
+        assertEquals("task1", this.schedule.getTaskList().get(0).getTaskName());
+        assertEquals(task1.getId(), this.schedule.getTaskList().get(0).getId());
+    }
+
     /**
      * Test successful undo message.
      */
@@ -5,7 +5,6 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -33,13 +32,12 @@ public class ViewCommandTest {
 
     public void setupTaskWithAndWithoutReminders() {
         this.task1 = new Task("Task1");
-        this.task2 = new Task("Task2");
+        this.task2 = new Task("Task2")
+                .addReminder(new Reminder("Attend Workshop 1", LocalDateTime.of(2016, 1, 1, 17, 0)))
+                .addReminder(new Reminder("Attend Workshop 2", LocalDateTime.of(2016, 2, 1, 17, 0)))
+                .addReminder(new Reminder("Attend Workshop 3", LocalDateTime.of(2016, 3, 1, 17, 0)));
         this.schedule.addTask(task1);
         this.schedule.addTask(task2);
-        ArrayList<Reminder> reminders = this.task2.getReminders();
-        reminders.add(new Reminder("Attend Workshop 1", LocalDateTime.of(2016, 1, 1, 17, 0)));
-        reminders.add(new Reminder("Attend Workshop 2", LocalDateTime.of(2016, 2, 1, 17, 0)));
-        reminders.add(new Reminder("Attend Workshop 3", LocalDateTime.of(2016, 3, 1, 17, 0)));
     }
 
     public CommandResult setupMultipleHelloTaskAndExecuteAmbiguousCommand() {
@@ -92,6 +90,20 @@ public class ViewCommandTest {
         assertEquals("Task1" + '\n' + "Reminders:" + '\n' + "You have not set any reminders for this task.", result.getFeedback());
     }
 
+    //@@author A0135788M
+    /**
+     * Test that a close match is shown when no task name matches exactly.
+     */
+    @Test
+    public void execute_misspeltName_closeMatchViewed() {
+        this.setupTaskWithAndWithoutReminders();
+        this.schedule.addTask(new Task("team meeting"));
+        CommandResult result = this.viewCommand.execute("view meetng");
+        assertEquals("team meeting" + '\n' + "Reminders:" + '\n' + "You have not set any reminders for this task.",
+                result.getFeedback());
+    }
+
+    //@@author A0140702X
     /**
      * Test the result when only one match is found and task has reminders.
      */
@@ -171,4 +183,19 @@ public class ViewCommandTest {
         assertEquals(expectedResponse, result.getFeedback());
         assertTrue(this.viewCommand.isAwaitingUserResponse());
     }
+
+    //@@author A0135788M
+    /**
+     * Test that close matches are capped like exact matches.
+     */
+    @Test
+    public void execute_manyCloseMatches_onlyFirstChoicesOffered() {
+        for (int i = 1; i <= 12; i++) {
+            this.schedule.addTask(new Task("chores " + i));
+        }
+        CommandResult result = this.viewCommand.execute("view choree");
+        assertTrue(result.getFeedback().startsWith("Showing 10 of 12 matches, refine your keywords to see the rest.\n"
+                + "Which one? (1-10, \"cancel\" to cancel the current operation)\n"));
+        assertFalse(result.getFeedback().contains("\n11. "));
+    }
 }
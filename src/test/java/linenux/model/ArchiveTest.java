@@ -0,0 +1,158 @@
+package linenux.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import linenux.storage.ArchiveStorage;
+
+//@@author A0135788M
+/**
+ * JUnit test for the archive of done tasks.
+ */
+public class ArchiveTest {
+    private MockArchiveStorage storage;
+    private Schedule schedule;
+
+    @Before
+    public void setUpArchive() {
+        this.storage = new MockArchiveStorage();
+        this.schedule = new Schedule();
+        this.schedule.setArchive(new Archive(this.storage));
+    }
+
+    @Test
+    public void archiveDoneTasks_tasksDoneBeforeCutoff_movedIntoTheirMonth() {
+        this.schedule.addTask(new Task("old").markAsDone(LocalDateTime.of(2016, 1, 5, 12, 0)));
+        this.schedule.addTask(new Task("recent").markAsDone(LocalDateTime.of(2016, 3, 5, 12, 0)));
+        this.schedule.addTask(new Task("undone"));
+
+        int archived = this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0));
+
+        assertEquals(1, archived);
+        assertEquals(2, this.schedule.getTaskList().size());
+        assertEquals(1, this.storage.months.get(YearMonth.of(2016, 1)).size());
+        assertFalse(this.schedule.getArchive().isLoaded());
+        assertFalse(this.schedule.undo());
+    }
+
+    @Test
+    public void getTaskList_archivedTasks_loadedOnFirstUse() {
+        this.schedule.addTask(new Task("january").markAsDone(LocalDateTime.of(2016, 1, 5, 12, 0)));
+        this.schedule.addTask(new Task("february").markAsDone(LocalDateTime.of(2016, 2, 5, 12, 0)));
+        this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0));
+        int loadsBefore = this.storage.loads;
+
+        ArrayList<Task> tasks = this.schedule.getArchive().getTaskList();
+
+        assertEquals(2, tasks.size());
+        assertTrue(this.schedule.getArchive().isLoaded());
+        assertEquals(loadsBefore + 2, this.storage.loads);
+        assertEquals("january", this.schedule.getArchive().searchTasks("JANUARY").get(0).getTaskName());
+    }
+
+    @Test
+    public void archiveDoneTasks_monthAlreadyArchived_tasksMerged() {
+        Task task = new Task("hello").markAsDone(LocalDateTime.of(2016, 1, 5, 12, 0));
+        this.schedule.addTask(task);
+        this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0));
+        this.schedule.getArchive().getTaskList();
+
+        this.schedule.addTask(task.setTaskName("hello again"));
+        this.schedule.addTask(new Task("world").markAsDone(LocalDateTime.of(2016, 1, 6, 12, 0)));
+        this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0));
+
+        assertEquals(2, this.storage.months.get(YearMonth.of(2016, 1)).size());
+        assertEquals(2, this.schedule.getArchive().getTaskList().size());
+        assertEquals("hello again", this.schedule.getArchive().searchTasks("again").get(0).getTaskName());
+    }
+
+    @Test
+    public void archiveDoneTasks_monthNotWritten_taskKept() {
+        this.storage.isWritable = false;
+        this.schedule.addTask(new Task("hello").markAsDone(LocalDateTime.of(2016, 1, 5, 12, 0)));
+
+        assertEquals(0, this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0)));
+        assertEquals(1, this.schedule.getTaskList().size());
+    }
+
+    @Test
+    public void archiveDoneTasks_monthNotReadable_taskKeptAndMonthUntouched() {
+        this.schedule.addTask(new Task("hello").markAsDone(LocalDateTime.of(2016, 1, 5, 12, 0)));
+        this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0));
+        this.storage.isReadable = false;
+        this.schedule.addTask(new Task("world").markAsDone(LocalDateTime.of(2016, 1, 6, 12, 0)));
+
+        assertEquals(0, this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0)));
+        assertEquals(1, this.schedule.getTaskList().size());
+        assertEquals("hello", this.storage.months.get(YearMonth.of(2016, 1)).get(0).getTaskName());
+        assertEquals(1, this.storage.months.get(YearMonth.of(2016, 1)).size());
+    }
+
+    @Test
+    public void moveTo_monthNotCopied_oldStorageKept() {
+        this.schedule.addTask(new Task("january").markAsDone(LocalDateTime.of(2016, 1, 5, 12, 0)));
+        this.schedule.addTask(new Task("february").markAsDone(LocalDateTime.of(2016, 2, 5, 12, 0)));
+        this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0));
+        MockArchiveStorage target = new MockArchiveStorage();
+        target.isWritable = false;
+
+        assertFalse(this.schedule.getArchive().moveTo(target));
+        assertEquals(2, this.schedule.getArchive().searchTasks("january february").size());
+
+        target.isWritable = true;
+        assertTrue(this.schedule.getArchive().moveTo(target));
+        assertEquals(2, target.months.size());
+    }
+
+    @Test
+    public void searchTasks_notLoaded_matchesFoundWithoutLoading() {
+        this.schedule.addTask(new Task("january").markAsDone(LocalDateTime.of(2016, 1, 5, 12, 0)));
+        this.schedule.addTask(new Task("february").markAsDone(LocalDateTime.of(2016, 2, 5, 12, 0)));
+        this.schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0));
+
+        ArrayList<Task> tasks = this.schedule.getArchive().searchTasks("February");
+
+        assertEquals(1, tasks.size());
+        assertEquals("february", tasks.get(0).getTaskName());
+        assertFalse(this.schedule.getArchive().isLoaded());
+    }
+
+    private static class MockArchiveStorage implements ArchiveStorage {
+        private TreeMap<YearMonth, ArrayList<Task>> months = new TreeMap<>();
+        private int loads = 0;
+        private boolean isWritable = true;
+        private boolean isReadable = true;
+
+        @Override
+        public ArrayList<YearMonth> getMonths() {
+            return new ArrayList<>(this.months.keySet());
+        }
+
+        @Override
+        public ArrayList<Task> loadMonth(YearMonth month) throws IOException {
+            if (!this.isReadable) {
+                throw new IOException("Unreadable");
+            }
+            this.loads++;
+            return new ArrayList<>(this.months.getOrDefault(month, new ArrayList<>()));
+        }
+
+        @Override
+        public boolean saveMonth(YearMonth month, ArrayList<Task> tasks) {
+            if (this.isWritable) {
+                this.months.put(month, new ArrayList<>(tasks));
+            }
+            return this.isWritable;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package linenux.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+//@@author A0135788M
+/**
+ * JUnit test for the change feed of a schedule.
+ */
+public class ChangeFeedTest {
+    private Schedule schedule;
+    private ChangeFeed.Cursor cursor;
+
+    @Before
+    public void setUpSchedule() {
+        this.schedule = new Schedule();
+        this.cursor = this.schedule.getChangeFeed().cursor();
+    }
+
+    @Test
+    public void poll_addUpdateDelete_taskChangesReturnedInOrder() {
+        Task task = new Task("hello");
+        this.schedule.addTask(task);
+        Task added = this.schedule.getTaskList().get(0);
+        this.schedule.updateTask(added, added.markAsDone());
+        Task done = this.schedule.getTaskList().get(0);
+        this.schedule.deleteTask(done);
+
+        ArrayList<ScheduleChange> changes = this.cursor.poll();
+        assertEquals(3, changes.size());
+        assertEquals(ScheduleChange.Kind.TASK_ADDED, changes.get(0).getKind());
+        assertEquals(ScheduleChange.Kind.TASK_UPDATED, changes.get(1).getKind());
+        assertTrue(changes.get(1).getPreviousTask() == added);
+        assertTrue(changes.get(1).getTask() == done);
+        assertEquals(ScheduleChange.Kind.TASK_REMOVED, changes.get(2).getKind());
+        assertEquals(changes.get(0).getPosition(), changes.get(2).getPosition());
+        assertEquals(0, this.cursor.poll().size());
+    }
+
+    @Test
+    public void poll_reminderAddedAndUndone_reminderChangesReturned() {
+        Task task = new Task("hello");
+        this.schedule.addTask(task);
+        Reminder reminder = new Reminder("note", LocalDateTime.of(2016, 1, 1, 17, 0));
+        this.schedule.transaction().addReminder(task, reminder).commit();
+        this.cursor.poll();
+
+        this.schedule.undo();
+        ArrayList<ScheduleChange> changes = this.cursor.poll();
+        assertEquals(2, changes.size());
+        assertEquals(ScheduleChange.Kind.TASK_UPDATED, changes.get(0).getKind());
+        assertEquals(ScheduleChange.Kind.REMINDER_REMOVED, changes.get(1).getKind());
+        assertTrue(changes.get(1).getReminder() == reminder);
+    }
+
+    @Test
+    public void poll_scheduleReplaced_resetReturned() {
+        this.schedule.addTask(new Task("hello"));
+        this.schedule.update(new Schedule());
+        this.schedule.addTask(new Task("world"));
+
+        ArrayList<ScheduleChange> changes = this.cursor.poll();
+        assertEquals(1, changes.size());
+        assertEquals(ScheduleChange.Kind.RESET, changes.get(0).getKind());
+        assertEquals(this.schedule.getChangeFeed().getVersion(), changes.get(0).getVersion());
+    }
+
+    @Test
+    public void getVersion_eachChange_versionIncreases() {
+        long version = this.schedule.getChangeFeed().getVersion();
+        this.schedule.addTask(new Task("hello"));
+        assertTrue(this.schedule.getChangeFeed().getVersion() > version);
+        assertEquals(this.schedule.getStates().get(0).getVersion(), this.schedule.getChangeFeed().getVersion());
+    }
+}
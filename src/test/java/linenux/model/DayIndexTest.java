@@ -0,0 +1,73 @@
+package linenux.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import linenux.util.LocalDateTimeUtil;
+
+//@@author A0135788M
+/**
+ * JUnit test for the calendar of deadlines and events.
+ */
+public class DayIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2016, 1, 1, 0, 0);
+
+    @Test
+    public void find_randomTasksAddedAndRemoved_matchesScan() {
+        Random random = new Random(21);
+        DayIndex index = new DayIndex();
+        ArrayList<Task> tasks = new ArrayList<>();
+
+        for (int slot = 0; slot < 300; slot++) {
+            LocalDateTime time = BASE.plusMinutes(random.nextInt(10 * 24 * 60));
+            Task task = random.nextBoolean()
+                    ? new Task("deadline" + slot, time)
+                    : new Task("event" + slot, time, time.plusMinutes(random.nextInt(3000)));
+            tasks.add(task);
+            index = index.add(slot, task);
+        }
+        for (int i = 0; i < 100; i++) {
+            int slot = random.nextInt(tasks.size());
+            if (tasks.get(slot) != null) {
+                index = index.remove(slot, tasks.get(slot));
+                tasks.set(slot, null);
+            }
+        }
+
+        for (int i = 0; i < 50; i++) {
+            long from = LocalDateTimeUtil.toEpochMinute(BASE) + random.nextInt(11 * 24 * 60);
+            long to = from + random.nextInt(3 * 24 * 60);
+            ArrayList<Long> expected = new ArrayList<>();
+            for (int slot = 0; slot < tasks.size(); slot++) {
+                Task task = tasks.get(slot);
+                long time = task == null ? Long.MIN_VALUE
+                        : task.isEvent() ? task.getStartEpochMinute() : task.getEndEpochMinute();
+                if (time >= from && time <= to) {
+                    expected.add((long) slot);
+                }
+            }
+
+            ArrayList<Long> slots = new ArrayList<>();
+            index.find(from, to, slots);
+            slots.sort(Long::compare);
+            assertEquals(expected, slots);
+        }
+    }
+
+    @Test
+    public void find_emptyRange_nothingFound() {
+        DayIndex index = new DayIndex().add(0, new Task("deadline", BASE));
+        ArrayList<Long> slots = new ArrayList<>();
+        long minute = LocalDateTimeUtil.toEpochMinute(BASE);
+
+        index.find(minute + 1, minute, slots);
+        assertEquals(0, slots.size());
+        index.find(Long.MIN_VALUE, minute, slots);
+        assertEquals(1, slots.size());
+    }
+}
@@ -0,0 +1,52 @@
+package linenux.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+//@@author A0135788M
+/**
+ * JUnit test for the index of task time spans.
+ */
+public class IntervalIndexTest {
+    @Test
+    public void findOverlapping_randomSpansAddedAndRemoved_matchesScan() {
+        Random random = new Random(19);
+        IntervalIndex index = new IntervalIndex();
+        ArrayList<long[]> spans = new ArrayList<>();
+
+        for (long slot = 0; slot < 300; slot++) {
+            long start = random.nextInt(1000);
+            long end = start + random.nextInt(100);
+            spans.add(new long[] {start, end, slot});
+            index = index.add(start, end, slot, new Task("task" + slot));
+        }
+        IntervalIndex before = index;
+        for (int i = 0; i < 100; i++) {
+            long[] span = spans.remove(random.nextInt(spans.size()));
+            index = index.remove(span[0], span[1], span[2]);
+        }
+
+        assertEquals(200, index.size());
+        assertEquals(300, before.size());
+        for (int i = 0; i < 50; i++) {
+            long from = random.nextInt(1100);
+            long to = from + random.nextInt(50);
+            ArrayList<Long> expected = new ArrayList<>();
+            for (long[] span : spans) {
+                if (span[0] <= to && span[1] >= from) {
+                    expected.add(span[2]);
+                }
+            }
+
+            ArrayList<Long> slots = new ArrayList<>();
+            index.findOverlapping(from, to, slots);
+            slots.sort(Long::compare);
+            expected.sort(Long::compare);
+            assertEquals(expected, slots);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package linenux.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import linenux.command.util.ReminderSearchResult;
+
+//@@author A0135788M
+/**
+ * JUnit test for the index of reminder notes.
+ */
+public class ReminderIndexTest {
+    private static final LocalDateTime TIME = LocalDateTime.of(2016, 1, 1, 17, 0);
+
+    private Schedule schedule;
+
+    @Before
+    public void setUpSchedule() {
+        this.schedule = new Schedule();
+        this.schedule.addTask(new Task("first")
+                .addReminder(new Reminder("Call the bank", TIME))
+                .addReminder(new Reminder("bank call later", TIME)));
+        this.schedule.addTask(new Task("second").addReminder(new Reminder("call mum", TIME)));
+    }
+
+    @Test
+    public void searchReminders_keywords_anyKeywordMatches() {
+        ArrayList<Reminder> reminders = this.schedule.searchReminders("BANK mum");
+
+        assertEquals(3, reminders.size());
+        assertEquals("Call the bank", reminders.get(0).getNote());
+        assertEquals("bank call later", reminders.get(1).getNote());
+        assertEquals("call mum", reminders.get(2).getNote());
+    }
+
+    @Test
+    public void searchReminders_quotedPhrase_onlyWordsInOrderMatch() {
+        ArrayList<Reminder> reminders = this.schedule.searchReminders("\"bank call\"");
+
+        assertEquals(1, reminders.size());
+        assertEquals("bank call later", reminders.get(0).getNote());
+        assertEquals(0, this.schedule.searchReminders("\"call bank\"").size());
+        assertEquals(2, this.schedule.searchReminders("\"the bank\" mum").size());
+    }
+
+    @Test
+    public void findReminders_reminderEditedAndDeleted_indexPatched() {
+        Task first = this.schedule.getTaskList().get(0);
+        Reminder bank = first.getReminders().get(0);
+        this.schedule.updateTask(first, first.removeReminder(bank).addReminder(bank.setNote("pay the rent")));
+        Task second = this.schedule.getTaskList().get(1);
+        this.schedule.deleteTask(second);
+
+        ArrayList<ReminderSearchResult> results = this.schedule.findReminders("call rent");
+
+        assertEquals(1, results.size());
+        assertEquals("first", results.get(0).getTask().getTaskName());
+        assertEquals(2, results.get(0).getReminders().size());
+        assertEquals("bank call later", results.get(0).getReminders().get(0).getNote());
+        assertEquals("pay the rent", results.get(0).getReminders().get(1).getNote());
+
+        this.schedule.undo();
+        this.schedule.undo();
+        assertEquals(2, this.schedule.findReminders("\"call the bank\" mum").size());
+        assertTrue(this.schedule.findReminders("rent").isEmpty());
+    }
+}
@@ -1,15 +1,17 @@
 package linenux.model;
 
 import static junit.framework.TestCase.assertEquals;
-import static linenux.helpers.Assert.assertNoChange;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Before;
 import org.junit.Test;
 
+import javafx.collections.ListChangeListener;
 import linenux.command.util.ReminderSearchResult;
 
 //@@author A0135788M
@@ -91,7 +93,7 @@ public class ScheduleTest {
         this.schedule.clear();
         Task task = new Task("blah");
         Reminder r = new Reminder("reminder", LocalDateTime.of(2016, 1, 1, 1, 0));
-        task.getReminders().add(r);
+        task = task.addReminder(r);
         this.schedule.addTask(task);
 
         assertEquals("blah", this.schedule.getTaskList().get(0).getTaskName());
@@ -105,11 +107,171 @@ public class ScheduleTest {
     }
 
     @Test
-    public void states_maxStates_statesDoesNotExceedMax() {
-        for (int i = 0; i < Schedule.MAX_STATES; i++) {
+    public void getTaskById_editedTask_sameIdReturnsNewVersion() {
+        Task task = new Task("hello");
+        this.schedule.addTask(task);
+        this.schedule.updateTask(task, task.markAsDone());
+
+        assertTrue(this.schedule.getTaskById(task.getId()).isDone());
+    }
+
+    @Test
+    public void addTask_sameTaskTwice_distinctIdsAssigned() {
+        Task task = new Task("hello");
+        this.schedule.addTask(task);
+        this.schedule.addTask(task);
+
+        assertTrue(this.schedule.getTaskList().get(0).getId() != this.schedule.getTaskList().get(1).getId());
+    }
+
+    @Test
+    public void transaction_mixedEdits_singleStateAndNotificationAdded() {
+        Task first = new Task("first");
+        Task second = new Task("second");
+        this.schedule.addTask(first);
+        this.schedule.addTask(second);
+        int[] notifications = new int[1];
+        this.schedule.getStates().addListener((ListChangeListener<State>) change -> notifications[0]++);
+
+        this.schedule.transaction()
+                .deleteTask(first)
+                .updateTask(second, second.markAsDone())
+                .addTask(new Task("third"))
+                .commit();
+
+        assertEquals(1, this.schedule.getStates().size());
+        assertEquals(1, notifications[0]);
+        assertEquals(2, this.schedule.getTaskList().size());
+        assertTrue(this.schedule.getTaskList().get(0).isDone());
+        assertEquals("third", this.schedule.getTaskList().get(1).getTaskName());
+    }
+
+    @Test
+    public void transaction_noEdits_scheduleUnchanged() {
+        assertFalse(this.schedule.undo());
+        this.schedule.transaction().commit();
+        assertFalse(this.schedule.undo());
+    }
+
+    @Test
+    public void undo_afterRedo_changesReappliedInOrder() {
+        Task task = new Task("hello");
+        this.schedule.addTask(task);
+        this.schedule.updateTask(task, task.markAsDone());
+
+        assertTrue(this.schedule.undo());
+        assertTrue(this.schedule.undo());
+        assertFalse(this.schedule.undo());
+        assertEquals(0, this.schedule.getTaskList().size());
+
+        assertTrue(this.schedule.redo());
+        assertFalse(this.schedule.getTaskList().get(0).isDone());
+        assertTrue(this.schedule.redo());
+        assertTrue(this.schedule.getTaskList().get(0).isDone());
+        assertFalse(this.schedule.redo());
+    }
+
+    @Test
+    public void redo_newChangeAfterUndo_redoHistoryCleared() {
+        this.schedule.addTask(new Task("first"));
+        this.schedule.undo();
+        this.schedule.addTask(new Task("second"));
+
+        assertFalse(this.schedule.redo());
+        assertEquals(1, this.schedule.getTaskList().size());
+    }
+
+    @Test
+    public void undo_historyBudgetExceeded_oldestChangesForgotten() {
+        this.schedule.setHistoryBudget(1000);
+        for (int i = 0; i < 100; i++) {
+            this.schedule.addTask(new Task("task" + Integer.toString(i)));
+        }
+
+        int undone = 0;
+        while (this.schedule.undo()) {
+            undone++;
+        }
+
+        assertTrue(undone >= 1);
+        assertTrue(undone < 100);
+        assertEquals(100 - undone, this.schedule.getTaskList().size());
+    }
+
+    @Test
+    public void setHistoryBudget_undoAndRedoEntries_redoForgottenFirstAndLastUndoKept() {
+        for (int i = 0; i < 4; i++) {
             this.schedule.addTask(new Task("task" + Integer.toString(i)));
         }
-        assertEquals(Schedule.MAX_STATES, this.schedule.getStates().size());
-        assertNoChange(() -> this.schedule.getStates().size(), () -> { this.schedule.addTask(new Task("Hi")); return 0; });
+        this.schedule.undo();
+        this.schedule.undo();
+
+        this.schedule.setHistoryBudget(0);
+
+        assertFalse(this.schedule.redo());
+        assertTrue(this.schedule.undo());
+        assertEquals(1, this.schedule.getTaskList().size());
+        assertTrue(this.schedule.redo());
+        assertEquals(2, this.schedule.getTaskList().size());
+    }
+
+    @Test
+    public void undo_transaction_wholeBatchReverted() {
+        Task first = new Task("first");
+        Task second = new Task("second");
+        this.schedule.addTask(first);
+        this.schedule.addTask(second);
+        this.schedule.transaction().deleteTask(first).deleteTask(second).commit();
+
+        assertTrue(this.schedule.undo());
+        assertEquals(2, this.schedule.getTaskList().size());
+        assertEquals("first", this.schedule.getTaskList().get(0).getTaskName());
+    }
+
+    @Test
+    public void isUniqueTask_afterEditUndoAndUpdate_indexConsistent() {
+        Task task = new Task("Hello", LocalDateTime.of(2016, 1, 1, 17, 0));
+        this.schedule.addTask(task);
+        this.schedule.addTask(task);
+        assertFalse(this.schedule.isUniqueTask(new Task("hello", LocalDateTime.of(2016, 1, 1, 17, 0))));
+
+        this.schedule.deleteTask(task);
+        assertFalse(this.schedule.isUniqueTask(task));
+
+        this.schedule.updateTask(this.schedule.getTaskList().get(0), task.setTaskName("world"));
+        assertTrue(this.schedule.isUniqueTask(task));
+
+        this.schedule.undo();
+        assertFalse(this.schedule.isUniqueTask(task));
+
+        this.schedule.update(new Schedule());
+        assertTrue(this.schedule.isUniqueTask(task));
+    }
+
+    @Test
+    public void getSnapshot_readFromAnotherThread_snapshotsConsistent() throws InterruptedException {
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            int previousSize = 0;
+            while (previousSize < 500 && failure.get() == null) {
+                State snapshot = this.schedule.getSnapshot();
+                int size = snapshot.getTaskList().size();
+                if (size < previousSize || snapshot.getTaskTable().all().cardinality() != size) {
+                    failure.set("inconsistent snapshot of " + size + " tasks");
+                }
+                previousSize = size;
+            }
+        });
+
+        this.schedule.clear();
+        reader.start();
+        for (int i = 0; i < 500; i++) {
+            this.schedule.addTask(new Task("task " + i));
+        }
+        reader.join(10000);
+
+        assertFalse(reader.isAlive());
+        assertEquals(null, failure.get());
+        assertTrue(this.schedule.getSnapshot() == this.schedule.getStates().get(0));
     }
 }
@@ -0,0 +1,368 @@
+package linenux.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import linenux.command.util.ReminderSearchResult;
+import linenux.command.util.TaskSearchResult;
+
+//@@author A0135788M
+/**
+ * JUnit test for the values derived from a state.
+ */
+public class StateTest {
+    @Test
+    public void get_sameDerivedValue_computedOncePerState() {
+        AtomicInteger computations = new AtomicInteger();
+        State.Derived<Integer> size = new State.Derived<>(state -> {
+            computations.incrementAndGet();
+            return state.getTaskList().size();
+        });
+
+        State state = new State().edit().addTask(new Task("hello")).build();
+        assertEquals(1, (int) state.get(size));
+        assertEquals(1, (int) state.get(size));
+        assertEquals(1, computations.get());
+
+        State next = state.edit().addTask(new Task("world")).build();
+        assertEquals(2, (int) next.get(size));
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    public void getUndoneDeadlines_mixedTasks_undoneDeadlinesSortedByEndTime() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("later", LocalDateTime.of(2016, 1, 2, 17, 0)));
+        tasks.add(new Task("todo"));
+        tasks.add(new Task("b earlier", LocalDateTime.of(2016, 1, 1, 17, 0)));
+        tasks.add(new Task("a earlier", LocalDateTime.of(2016, 1, 1, 17, 0)));
+        tasks.add(new Task("done", LocalDateTime.of(2015, 1, 1, 17, 0)).markAsDone());
+        State state = new State(tasks);
+
+        ArrayList<Task> deadlines = state.getUndoneDeadlines();
+
+        assertEquals(3, deadlines.size());
+        assertEquals("a earlier", deadlines.get(0).getTaskName());
+        assertEquals("b earlier", deadlines.get(1).getTaskName());
+        assertEquals("later", deadlines.get(2).getTaskName());
+        assertTrue(deadlines == state.getUndoneDeadlines());
+        assertEquals(4, state.getUndoneTasks().size());
+        assertEquals(1, state.getUndoneTodos().size());
+        assertEquals(0, state.getUndoneEvents().size());
+    }
+
+    @Test
+    public void getReminderList_tasksWithReminders_allRemindersReturned() {
+        Reminder first = new Reminder("first", LocalDateTime.of(2016, 1, 1, 17, 0));
+        Reminder second = new Reminder("second", LocalDateTime.of(2016, 1, 2, 17, 0));
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("hello").addReminder(first));
+        tasks.add(new Task("world"));
+        tasks.add(new Task("again").addReminder(second).markAsDone());
+
+        ArrayList<Reminder> reminders = new State(tasks).getReminderList();
+
+        assertEquals(2, reminders.size());
+        assertTrue(reminders.get(0) == first);
+        assertTrue(reminders.get(1) == second);
+    }
+
+    @Test
+    public void getUndoneDeadlines_addEditDoneAndUndo_indexKeptSorted() {
+        Schedule schedule = new Schedule();
+        schedule.addTask(new Task("second", LocalDateTime.of(2016, 1, 2, 17, 0)));
+        schedule.addTask(new Task("first", LocalDateTime.of(2016, 1, 1, 17, 0)));
+        schedule.addTask(new Task("event", LocalDateTime.of(2016, 1, 1, 9, 0), LocalDateTime.of(2016, 1, 1, 10, 0)));
+        Task second = schedule.getSnapshot().getUndoneDeadlines().get(1);
+
+        schedule.updateTask(second, second.setEndTime(LocalDateTime.of(2015, 12, 31, 17, 0)));
+        assertEquals("second", schedule.getSnapshot().getUndoneDeadlines().get(0).getTaskName());
+        assertEquals("first", schedule.getSnapshot().getUndoneDeadlines().get(1).getTaskName());
+
+        Task first = schedule.getSnapshot().getUndoneDeadlines().get(1);
+        schedule.updateTask(first, first.markAsDone());
+        assertEquals(1, schedule.getSnapshot().getUndoneDeadlines().size());
+        assertEquals(1, schedule.getSnapshot().getUndoneEvents().size());
+
+        schedule.undo();
+        schedule.undo();
+        ArrayList<Task> deadlines = schedule.getSnapshot().getUndoneDeadlines();
+        assertEquals(2, deadlines.size());
+        assertEquals("first", deadlines.get(0).getTaskName());
+        assertEquals("second", deadlines.get(1).getTaskName());
+    }
+
+    @Test
+    public void getUndoneDeadlinesFrom_limit_nextDeadlinesReturned() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int day = 1; day <= 10; day++) {
+            tasks.add(new Task("day " + day, LocalDateTime.of(2016, 1, day, 17, 0)));
+        }
+        State state = new State(tasks);
+
+        ArrayList<Task> deadlines = state.getUndoneDeadlinesFrom(LocalDateTime.of(2016, 1, 4, 17, 0, 30), 3);
+
+        assertEquals(3, deadlines.size());
+        assertEquals("day 5", deadlines.get(0).getTaskName());
+        assertEquals("day 6", deadlines.get(1).getTaskName());
+        assertEquals("day 7", deadlines.get(2).getTaskName());
+        assertEquals(0, state.getUndoneEventsFrom(LocalDateTime.of(2016, 1, 1, 0, 0), 3).size());
+    }
+
+    @Test
+    public void searchTasks_afterRenameAndDelete_matchesSameAsScanning() {
+        Schedule schedule = new Schedule();
+        schedule.addTask(new Task("Buy milk"));
+        schedule.addTask(new Task("buy  eggs and MILK"));
+        schedule.addTask(new Task("walk dog"));
+        Task eggs = schedule.getTaskList().get(1);
+        Task dog = schedule.getTaskList().get(2);
+        schedule.updateTask(eggs, eggs.setTaskName("cook eggs"));
+        schedule.deleteTask(dog);
+
+        State state = schedule.getSnapshot();
+        String[] keywords = {"MILK", "eggs", "dog"};
+        ArrayList<Task> expected = new ArrayList<>();
+        for (Task task : state.getTaskList()) {
+            if (State.matchesKeywords(keywords).test(task)) {
+                expected.add(task);
+            }
+        }
+
+        assertEquals(expected, state.searchTasks(keywords));
+        assertEquals(2, state.searchTasks(keywords).size());
+        assertEquals("Buy milk", state.searchTasks(keywords).get(0).getTaskName());
+        assertEquals(0, state.searchTasks(new String[] {"walk"}).size());
+    }
+
+    @Test
+    public void inRange_afterEdits_matchesTaskTable() {
+        LocalDateTime base = LocalDateTime.of(2016, 1, 1, 0, 0);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(new Task("event " + i, base.plusHours(i), base.plusHours(i + 3)));
+            tasks.add(new Task("deadline " + i, base.plusHours(i)));
+            tasks.add(new Task("todo " + i));
+        }
+        State state = new State(tasks);
+        Task moved = state.getTaskList().get(0);
+        Task deleted = state.getTaskList().get(4);
+        state = state.edit()
+                .updateTask(moved, moved.setStartTime(base.plusHours(20)).setEndTime(base.plusHours(21)))
+                .deleteTask(deleted)
+                .addTask(new Task("new", base.plusHours(30)))
+                .build();
+
+        TaskTable table = state.getTaskTable();
+        LocalDateTime from = base.plusHours(19).plusSeconds(30);
+        LocalDateTime to = base.plusHours(25);
+        assertEquals(table.inRange(from, to), state.inRange(from, to));
+        assertEquals(table.inRange(null, to), state.inRange(null, to));
+        assertEquals(table.inRange(from, null), state.inRange(from, null));
+    }
+
+    @Test
+    public void inRange_dateRangeQuery_matchesTaskTable() {
+        LocalDateTime base = LocalDateTime.of(2016, 1, 1, 0, 0);
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            tasks.add(new Task("event " + i, base.plusHours(5 * i), base.plusHours(5 * i + 30)));
+            tasks.add(new Task("deadline " + i, base.plusHours(5 * i).plusMinutes(1)));
+        }
+        tasks.add(new Task("todo"));
+        State state = new State(tasks);
+        TaskTable table = state.getTaskTable();
+
+        LocalDate day = LocalDate.of(2016, 1, 3);
+        DateRangeQuery onDay = DateRangeQuery.onDay(day);
+        assertEquals(table.inRange(onDay.getFrom(), onDay.getTo()), state.inRange(onDay));
+        DateRangeQuery untilEnd = DateRangeQuery.untilEndOf(day);
+        assertEquals(table.inRange(null, untilEnd.getTo()), state.inRange(untilEnd));
+
+        LocalDateTime withinMinute = base.plusHours(40).plusSeconds(30);
+        assertEquals(table.inRange(withinMinute, withinMinute), state.inRange(withinMinute, withinMinute));
+    }
+
+    @Test
+    public void getReminders_dateRangeQuery_endsIncluded() {
+        LocalDate day = LocalDate.of(2016, 1, 2);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("todo")
+                .addReminder(new Reminder("before", day.atStartOfDay().minusMinutes(1)))
+                .addReminder(new Reminder("first", day.atStartOfDay()))
+                .addReminder(new Reminder("last", day.atTime(23, 59)))
+                .addReminder(new Reminder("after", day.plusDays(1).atStartOfDay())));
+        State state = new State(tasks);
+
+        ArrayList<Reminder> reminders = state.getReminders(DateRangeQuery.onDay(day));
+        assertEquals(2, reminders.size());
+        assertEquals("first", reminders.get(0).getNote());
+        assertEquals("last", reminders.get(1).getNote());
+        assertEquals(3, state.getReminders(DateRangeQuery.untilEndOf(day)).size());
+    }
+
+    @Test
+    public void getEventsOverlapping_touchingEvents_excluded() {
+        LocalDateTime base = LocalDateTime.of(2016, 1, 1, 0, 0);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("before", base, base.plusHours(1)));
+        tasks.add(new Task("inside", base.plusHours(1), base.plusHours(2)));
+        tasks.add(new Task("after", base.plusHours(2), base.plusHours(3)));
+        tasks.add(new Task("deadline", base.plusHours(1).plusMinutes(30)));
+
+        ArrayList<Task> events = new State(tasks).getEventsOverlapping(base.plusHours(1), base.plusHours(2));
+
+        assertEquals(1, events.size());
+        assertEquals("inside", events.get(0).getTaskName());
+    }
+
+    @Test
+    public void getRemindersBetween_remindersEdited_orderedByTimeWithinBounds() {
+        LocalDateTime base = LocalDateTime.of(2016, 1, 1, 0, 0);
+        Reminder late = new Reminder("late", base.plusHours(5));
+        Reminder early = new Reminder("early", base.plusHours(1));
+        Reminder middle = new Reminder("middle", base.plusHours(3));
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("first").addReminder(late).addReminder(early));
+        tasks.add(new Task("second").addReminder(middle));
+        State state = new State(tasks);
+
+        Task first = state.getTaskList().get(0);
+        Reminder moved = early.setTimeOfReminder(base.plusHours(4));
+        state = state.edit().updateTask(first, first.removeReminder(early).addReminder(moved)).build();
+
+        ArrayList<Reminder> all = state.getRemindersByTime();
+        assertEquals(3, all.size());
+        assertTrue(all.get(0) == middle);
+        assertTrue(all.get(1) == moved);
+        assertTrue(all.get(2) == late);
+
+        ArrayList<Reminder> between = state.getRemindersBetween(base.plusHours(3), true, base.plusHours(5), false);
+        assertEquals(2, between.size());
+        assertTrue(between.get(0) == middle);
+        assertTrue(between.get(1) == moved);
+        assertEquals(3, state.getRemindersBetween(null, true, base.plusHours(5), true).size());
+        assertEquals(1, state.getRemindersBetween(base.plusHours(3), false, base.plusHours(5), false).size());
+
+        ArrayList<Reminder> upcoming = state.getUpcomingReminders(base.plusHours(3).plusMinutes(1), 1);
+        assertEquals(1, upcoming.size());
+        assertTrue(upcoming.get(0) == moved);
+    }
+
+    @Test
+    public void fuzzySearchTasks_afterEdits_closeTasksReturned() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("team meeting"));
+        tasks.add(new Task("buy groceries"));
+        State state = new State(tasks);
+        Task meeting = state.getTaskList().get(0);
+
+        State renamed = state.edit().updateTask(meeting, meeting.setTaskName("team lunch")).build();
+        assertEquals(1, state.fuzzySearchTasks("meetng").size());
+        assertTrue(renamed.fuzzySearchTasks("meetng").isEmpty());
+        assertEquals("team lunch", renamed.fuzzySearchTasks("lunhc team").get(0).getTaskName());
+    }
+
+    @Test
+    public void fuzzyFindReminders_misspeltNote_groupedByTask() {
+        LocalDateTime time = LocalDateTime.of(2016, 1, 1, 17, 0);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("first")
+                .addReminder(new Reminder("call mom", time))
+                .addReminder(new Reminder("call dad", time.plusDays(1))));
+        tasks.add(new Task("second").addReminder(new Reminder("water plants", time)));
+        State state = new State(tasks);
+
+        ArrayList<ReminderSearchResult> results = state.fuzzyFindReminders("cal");
+        assertEquals(1, results.size());
+        assertEquals("first", results.get(0).getTask().getTaskName());
+        assertEquals(2, results.get(0).getReminders().size());
+        assertEquals("water plants", state.fuzzyFindReminders("watr").get(0).getReminders().get(0).getNote());
+    }
+
+    @Test
+    public void searchTasks_limit_shortNamesAndTagsRankedFirst() {
+        ArrayList<String> tags = new ArrayList<>();
+        tags.add("report");
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("send the weekly report now"));
+        tasks.add(new Task("late report"));
+        tasks.add(new Task("file report", tags));
+        tasks.add(new Task("report"));
+        State state = new State(tasks);
+        LocalDateTime now = LocalDateTime.of(2016, 1, 1, 12, 0);
+
+        ArrayList<Task> results = state.searchTasks(new String[] {"REPORT"}, task -> true, 10, now).getTasks();
+        assertEquals(4, results.size());
+        assertEquals("report", results.get(0).getTaskName());
+        assertEquals("file report", results.get(1).getTaskName());
+        assertEquals("late report", results.get(2).getTaskName());
+        assertEquals("send the weekly report now", results.get(3).getTaskName());
+        TaskSearchResult firstTwo = state.searchTasks(new String[] {"report"}, task -> true, 2, now);
+        assertEquals(results.subList(0, 2), firstTwo.getTasks());
+        assertEquals(4, firstTwo.getMatchCount());
+    }
+
+    @Test
+    public void searchTasks_sameNameLength_closestDeadlineRankedFirst() {
+        LocalDateTime now = LocalDateTime.of(2016, 1, 1, 12, 0);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("pay bills"));
+        tasks.add(new Task("pay tax", now.plusMonths(2)));
+        tasks.add(new Task("pay rent", now.plusDays(1)));
+        State state = new State(tasks);
+
+        ArrayList<Task> results = state.searchTasks(new String[] {"pay"}, task -> true, 10, now).getTasks();
+        assertEquals("pay rent", results.get(0).getTaskName());
+        assertEquals("pay tax", results.get(1).getTaskName());
+        assertEquals("pay bills", results.get(2).getTaskName());
+    }
+
+    @Test
+    public void searchTasks_deadlinesOnSameDay_orderSameAllDay() {
+        LocalDate today = LocalDate.of(2016, 1, 1);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("pay rent", today.atTime(18, 0)));
+        tasks.add(new Task("pay tax", today.atTime(9, 0)));
+        State state = new State(tasks);
+
+        for (LocalDateTime now : new LocalDateTime[] {today.atTime(8, 0), today.atTime(17, 0)}) {
+            ArrayList<Task> results = state.searchTasks(new String[] {"pay"}, task -> true, 10, now).getTasks();
+            assertEquals("pay rent", results.get(0).getTaskName());
+            assertEquals("pay tax", results.get(1).getTaskName());
+        }
+    }
+
+    @Test
+    public void searchTasks_conditionAfterEdits_onlyMatchingTasksInScheduleOrder() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            tasks.add(new Task("chore " + i));
+        }
+        State state = new State(tasks);
+        Task first = state.getTaskList().get(0);
+        Task second = state.getTaskList().get(1);
+        state = state.edit()
+                .updateTask(first, first.markAsDone())
+                .updateTask(second, second.setTaskName("chore two"))
+                .build();
+        LocalDateTime now = LocalDateTime.of(2016, 1, 1, 12, 0);
+
+        TaskSearchResult found = state.searchTasks(new String[] {"chore"}, Task::isNotDone, 10, now);
+        ArrayList<Task> results = found.getTasks();
+        assertEquals(11, found.getMatchCount());
+        assertEquals(10, results.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(state.getTaskList().get(i + 1), results.get(i));
+        }
+        assertTrue(state.searchTasks(new String[] {"chore"}, Task::isDone, 10, now).getTasks().get(0).isDone());
+        assertTrue(state.searchTasks(new String[] {"nothing"}, task -> true, 10, now).getTasks().isEmpty());
+    }
+}
@@ -0,0 +1,129 @@
+package linenux.model;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Random;
+
+import org.junit.Test;
+
+import linenux.util.ArrayListUtil;
+
+//@@author A0135788M
+/**
+ * JUnit test for the columnar task table.
+ */
+public class TaskTableTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2016, 1, 1, 0, 0);
+
+    private ArrayList<Task> randomTasks(Random random, int count) {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = BASE.plusMinutes(random.nextInt(1000));
+            LocalDateTime end = start.plusMinutes(random.nextInt(300));
+            ArrayList<String> tags = new ArrayList<>();
+            if (random.nextBoolean()) {
+                tags.add(random.nextBoolean() ? "Work" : "home");
+            }
+
+            Task task;
+            switch (random.nextInt(3)) {
+            case 0:
+                task = new Task("todo" + i, tags);
+                break;
+            case 1:
+                task = new Task("deadline" + i, end, tags);
+                break;
+            default:
+                task = new Task("event" + i, start, end, tags);
+                break;
+            }
+            tasks.add(random.nextBoolean() ? task.markAsDone() : task);
+        }
+        return tasks;
+    }
+
+    /**
+     * The filter that {@code inRange} replaces, written over {@code LocalDateTime}.
+     */
+    private boolean isInRange(Task task, LocalDateTime from, LocalDateTime to) {
+        if (task.isTodo()) {
+            return true;
+        }
+        boolean endInRange = !task.getEndTime().isBefore(from) && !task.getEndTime().isAfter(to);
+        if (!task.isEvent()) {
+            return endInRange;
+        }
+        boolean startInRange = !task.getStartTime().isBefore(from) && !task.getStartTime().isAfter(to);
+        boolean covers = task.getStartTime().isBefore(from) && task.getEndTime().isAfter(to);
+        return endInRange || startInRange || covers;
+    }
+
+    @Test
+    public void inRange_randomTasks_matchesTimeComparisons() {
+        Random random = new Random(7);
+        ArrayList<Task> tasks = randomTasks(random, 500);
+        TaskTable table = new TaskTable(tasks);
+
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime from = BASE.plusMinutes(random.nextInt(1000)).plusSeconds(random.nextInt(2) * 30);
+            LocalDateTime to = from.plusMinutes(random.nextInt(300));
+            ArrayList<Task> expected = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
+                    .filter(task -> isInRange(task, from, to))
+                    .value();
+            assertEquals(expected, table.select(table.inRange(from, to)));
+        }
+    }
+
+    @Test
+    public void withTag_differentCase_taggedTasksReturned() {
+        Random random = new Random(11);
+        ArrayList<Task> tasks = randomTasks(random, 200);
+        TaskTable table = new TaskTable(tasks);
+
+        ArrayList<Task> expected = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
+                .filter(task -> task.hasTag("work"))
+                .value();
+        assertEquals(expected, table.select(table.withTag("WORK")));
+        assertEquals(0, table.withTag("missing").cardinality());
+    }
+
+    @Test
+    public void withTags_alternativesAndNegation_matchesHasTag() {
+        Random random = new Random(17);
+        ArrayList<Task> tasks = randomTasks(random, 200);
+        TaskTable table = new TaskTable(tasks);
+
+        ArrayList<Task> expected = new ArrayListUtil.ChainableArrayListUtil<>(tasks)
+                .filter(task -> task.hasTag("work") || !task.hasTag("home"))
+                .value();
+        assertEquals(expected, table.select(table.withTags("WORK | !Home")));
+        assertEquals(table.withTag("home"), table.withTags("home|missing"));
+    }
+
+    @Test
+    public void getTaskTable_stateEdited_patchedTableMatchesRebuiltTable() {
+        Random random = new Random(13);
+        ArrayList<Task> tasks = randomTasks(random, 100);
+        State state = new State(tasks);
+        state.getTaskTable();
+
+        Task edited = state.getTaskList().get(42);
+        ArrayList<String> tags = new ArrayList<>();
+        tags.add("work");
+        State newState = state.edit()
+                .updateTask(edited, edited.markAsDone().setTags(tags))
+                .addTask(new Task("new", BASE, BASE.plusHours(1)))
+                .build();
+
+        TaskTable patched = newState.getTaskTable();
+        TaskTable rebuilt = new TaskTable(newState.getTaskList());
+        assertEquals(rebuilt.size(), patched.size());
+        assertEquals(rebuilt.done(), patched.done());
+        assertEquals(rebuilt.withTag("work"), patched.withTag("work"));
+        assertEquals(rebuilt.withTag("home"), patched.withTag("home"));
+        assertEquals(new TaskTable(tasks).withTag("work"), state.getTaskTable().withTag("work"));
+        assertEquals(rebuilt.inRange(BASE, BASE.plusHours(5)), patched.inRange(BASE, BASE.plusHours(5)));
+    }
+}
@@ -81,4 +81,72 @@ public class TaskTest {
         Task task = new Task("hello", null, null, tags);
         assertEquals("hello [ Tags: \"tag\" ]", task.toString());
     }
+
+    /**
+     * Test that tasks differing only in the case of their names are equal and share a hash code.
+     */
+    @Test
+    public void hashCode_todosDifferingInCase_equalHashCodes() {
+        Task task = new Task("Hello World");
+        Task other = new Task("hello world");
+        assertEquals(task, other);
+        assertEquals(task.hashCode(), other.hashCode());
+    }
+
+    /**
+     * Test that the times of a task survive the compact encoding.
+     */
+    @Test
+    public void getStartTime_event_sameTimesReturned() {
+        LocalDateTime start = LocalDateTime.of(2016, 1, 1, 17, 0);
+        LocalDateTime end = LocalDateTime.of(2016, 1, 2, 17, 30);
+        Task task = new Task("hello", start, end).markAsDone();
+        assertEquals(start, task.getStartTime());
+        assertEquals(end, task.getEndTime());
+        assertTrue(task.isDone());
+        assertTrue(task.isEvent());
+    }
+
+    /**
+     * Test that modifying the list of tags returned does not modify the task.
+     */
+    @Test
+    public void getTags_listModified_taskUnchanged() {
+        ArrayList<String> tags = new ArrayList<>();
+        tags.add("tag");
+        Task task = new Task("hello", tags);
+        task.getTags().set(0, "other");
+        assertTrue(task.hasTag("TAG"));
+        assertFalse(task.hasTag("other"));
+    }
+
+    /**
+     * Test that adding a reminder leaves the original task and its copies unchanged.
+     */
+    @Test
+    public void addReminder_copiedTask_originalUnchanged() {
+        Task task = new Task("hello");
+        Task copy = new Task(task);
+        Task withReminder = copy.addReminder(new Reminder("note", LocalDateTime.of(2016, 1, 1, 17, 0)));
+        withReminder.getReminders().clear();
+
+        assertFalse(task.hasReminders());
+        assertFalse(copy.hasReminders());
+        assertEquals(1, withReminder.getReminders().size());
+        assertEquals(0, withReminder.removeReminder(withReminder.getReminders().get(0)).getReminders().size());
+    }
+
+    /**
+     * Test that the done time is kept by modified copies and cleared when the task is marked as undone.
+     */
+    @Test
+    public void markAsDone_doneTime_keptUntilUndone() {
+        LocalDateTime doneTime = LocalDateTime.of(2016, 1, 2, 9, 30);
+        Task task = new Task("hello", LocalDateTime.of(2016, 1, 1, 17, 0)).markAsDone(doneTime);
+
+        assertEquals(doneTime, task.setEndTime(LocalDateTime.of(2016, 1, 3, 17, 0)).getDoneTime());
+        assertEquals(doneTime, task.setTaskName("world").getDoneTime());
+        assertEquals(null, task.markAsUndone().getDoneTime());
+        assertFalse(task.markAsUndone().isDone());
+    }
 }
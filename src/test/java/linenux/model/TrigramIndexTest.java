@@ -0,0 +1,50 @@
+package linenux.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+//@@author A0135788M
+/**
+ * JUnit test for the trigram index of texts.
+ */
+public class TrigramIndexTest {
+    @Test
+    public void trigramsOf_word_paddedTrigramsReturned() {
+        assertEquals(3, TrigramIndex.trigramsOf("ABC").size());
+        assertTrue(TrigramIndex.trigramsOf("ABC").contains(" ab"));
+        assertTrue(TrigramIndex.trigramsOf("ABC").contains("bc "));
+        assertTrue(TrigramIndex.trigramsOf(null).isEmpty());
+        assertTrue(TrigramIndex.trigramsOf("   ").isEmpty());
+    }
+
+    @Test
+    public void search_misspeltWord_closestTextsFirst() {
+        TrigramIndex<Long> index = new TrigramIndex<Long>(Long::compare)
+                .add(0L, "buy groceries")
+                .add(1L, "weekly team meeting")
+                .add(2L, "meeting")
+                .add(3L, "meet");
+
+        ArrayList<Long> matches = index.search("Meetng");
+        assertEquals(Arrays.asList(1L, 2L, 3L), matches);
+        assertEquals(Arrays.asList(0L), index.search("grocerys"));
+        assertTrue(index.search("xyz").isEmpty());
+        assertTrue(index.search("").isEmpty());
+    }
+
+    @Test
+    public void remove_addedText_noLongerFound() {
+        TrigramIndex<Long> empty = new TrigramIndex<>(Long::compare);
+        TrigramIndex<Long> index = empty.add(0L, "meeting").add(1L, "meeting");
+
+        TrigramIndex<Long> removed = index.remove(0L, "meeting");
+        assertEquals(Arrays.asList(1L), removed.search("meetng"));
+        assertEquals(Arrays.asList(0L, 1L), index.search("meetng"));
+        assertTrue(removed.remove(1L, "meeting").search("meetng").isEmpty());
+    }
+}
@@ -0,0 +1,205 @@
+package linenux.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import linenux.model.Archive;
+import linenux.model.Reminder;
+import linenux.model.Schedule;
+import linenux.model.Task;
+
+//@@author A0135788M
+public class MappedArchiveStorageTest {
+    private Path tempDir;
+    private MappedArchiveStorage storage;
+
+    @Before
+    public void setupTestEnvironment() throws Exception {
+        this.tempDir = Files.createTempDirectory("tmp");
+        this.storage = new MappedArchiveStorage(this.tempDir.resolve("hello.xml"));
+    }
+
+    @After
+    public void teardown() {
+        File archiveDir = this.tempDir.resolve("hello.xml.archive").toFile();
+        File[] files = archiveDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        archiveDir.delete();
+        this.tempDir.toFile().delete();
+    }
+
+    @Test
+    public void saveAndLoad_tasksOfEveryKind_fieldsPreserved() throws Exception {
+        ArrayList<String> tags = new ArrayList<>();
+        tags.add("work");
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("todo", tags).markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        tasks.add(new Task("deadline", LocalDateTime.of(2016, 1, 1, 17, 0), tags)
+                .addReminder(new Reminder("soon", LocalDateTime.of(2016, 1, 1, 9, 0)))
+                .markAsDone(LocalDateTime.of(2016, 1, 3, 9, 30)));
+        tasks.add(new Task("événement", LocalDateTime.of(2016, 1, 1, 9, 0), LocalDateTime.of(2016, 1, 1, 10, 0)));
+
+        assertTrue(this.storage.saveMonth(YearMonth.of(2016, 1), tasks));
+        ArrayList<Task> loadedTasks = this.storage.loadMonth(YearMonth.of(2016, 1));
+
+        assertEquals(tasks, loadedTasks);
+        assertEquals(tasks.get(1).getId(), loadedTasks.get(1).getId());
+        assertEquals(LocalDateTime.of(2016, 1, 3, 9, 30), loadedTasks.get(1).getDoneTime());
+        assertEquals("soon", loadedTasks.get(1).getReminders().get(0).getNote());
+        assertEquals(LocalDateTime.of(2016, 1, 1, 9, 0), loadedTasks.get(1).getReminders().get(0).getTimeOfReminder());
+        assertTrue(loadedTasks.get(0).hasTag("WORK"));
+        assertNull(loadedTasks.get(2).getDoneTime());
+        assertFalse(loadedTasks.get(2).isDone());
+    }
+
+    @Test
+    public void loadMonth_monthSavedAsXml_readAndConvertedOnSave() throws Exception {
+        XmlArchiveStorage xmlStorage = new XmlArchiveStorage(this.tempDir.resolve("hello.xml"));
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("hello").markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        xmlStorage.saveMonth(YearMonth.of(2016, 1), tasks);
+
+        assertEquals(1, this.storage.getMonths().size());
+        assertEquals("hello", this.storage.loadMonth(YearMonth.of(2016, 1)).get(0).getTaskName());
+
+        assertTrue(this.storage.saveMonth(YearMonth.of(2016, 1), tasks));
+        assertEquals(0, xmlStorage.getMonths().size());
+        assertEquals(1, this.storage.getMonths().size());
+    }
+
+    @Test
+    public void scanMonth_manyTasks_eachTaskReadInOrder() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new Task("task " + i).markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        }
+        this.storage.saveMonth(YearMonth.of(2016, 1), tasks);
+
+        int index = 0;
+        for (Task task : this.storage.scanMonth(YearMonth.of(2016, 1))) {
+            assertEquals("task " + index, task.getTaskName());
+            index++;
+        }
+        assertEquals(1000, index);
+    }
+
+    @Test(expected = IOException.class)
+    public void scanMonth_truncatedFile_exceptionThrown() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(new Task("task " + i).markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        }
+        this.storage.saveMonth(YearMonth.of(2016, 1), tasks);
+
+        Path path = this.tempDir.resolve("hello.xml.archive").resolve("2016-01.1.tasks");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 8);
+        }
+
+        this.storage.scanMonth(YearMonth.of(2016, 1));
+    }
+
+    @Test(expected = IOException.class)
+    public void scanMonth_offsetOutOfFile_exceptionThrown() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("hello").markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        this.storage.saveMonth(YearMonth.of(2016, 1), tasks);
+
+        // Points the name of the first task past the end of the file.
+        Path path = this.tempDir.resolve("hello.xml.archive").resolve("2016-01.1.tasks");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, Integer.MAX_VALUE - 2), 52);
+        }
+
+        this.storage.scanMonth(YearMonth.of(2016, 1));
+    }
+
+    @Test
+    public void saveMonth_monthAlreadyScanned_newGenerationWrittenAndOlderRemoved() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("first").markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        this.storage.saveMonth(YearMonth.of(2016, 1), tasks);
+        Iterable<Task> scanned = this.storage.scanMonth(YearMonth.of(2016, 1));
+
+        tasks.add(new Task("second").markAsDone(LocalDateTime.of(2016, 1, 3, 9, 30)));
+        assertTrue(this.storage.saveMonth(YearMonth.of(2016, 1), tasks));
+
+        Path archiveDir = this.tempDir.resolve("hello.xml.archive");
+        assertFalse(Files.exists(archiveDir.resolve("2016-01.1.tasks")));
+        assertTrue(Files.exists(archiveDir.resolve("2016-01.2.tasks")));
+        assertEquals(tasks, this.storage.loadMonth(YearMonth.of(2016, 1)));
+        assertEquals("first", scanned.iterator().next().getTaskName());
+    }
+
+    @Test
+    public void loadMonth_olderGenerationLeftBehind_latestGenerationRead() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("old").markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        this.storage.saveMonth(YearMonth.of(2016, 1), tasks);
+        Path archiveDir = this.tempDir.resolve("hello.xml.archive");
+        Files.copy(archiveDir.resolve("2016-01.1.tasks"), archiveDir.resolve("2016-01.tasks"));
+
+        tasks.set(0, new Task("new").markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        MappedTaskStore.write(archiveDir.resolve("2016-01.3.tasks"), tasks);
+
+        assertEquals(1, this.storage.getMonths().size());
+        assertEquals("new", this.storage.loadMonth(YearMonth.of(2016, 1)).get(0).getTaskName());
+    }
+
+    @Test
+    public void saveMonth_generationNeverRead_kept() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("first").markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        this.storage.saveMonth(YearMonth.of(2016, 1), tasks);
+
+        MappedArchiveStorage otherStorage = new MappedArchiveStorage(this.tempDir.resolve("hello.xml"));
+        assertTrue(otherStorage.saveMonth(YearMonth.of(2016, 1), new ArrayList<>()));
+
+        Path archiveDir = this.tempDir.resolve("hello.xml.archive");
+        assertTrue(Files.exists(archiveDir.resolve("2016-01.1.tasks")));
+        assertTrue(Files.exists(archiveDir.resolve("2016-01.2.tasks")));
+    }
+
+    @Test
+    public void archiveDoneTasks_monthFileCorrupted_fileKeptAndTaskNotArchived() throws Exception {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Task("archived").markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30)));
+        this.storage.saveMonth(YearMonth.of(2016, 1), tasks);
+        Path path = this.tempDir.resolve("hello.xml.archive").resolve("2016-01.1.tasks");
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 8);
+        }
+        byte[] corrupted = Files.readAllBytes(path);
+
+        Schedule schedule = new Schedule();
+        schedule.setArchive(new Archive(new MappedArchiveStorage(this.tempDir.resolve("hello.xml"))));
+        schedule.addTask(new Task("hello").markAsDone(LocalDateTime.of(2016, 1, 5, 12, 0)));
+
+        assertEquals(0, schedule.archiveDoneTasks(LocalDateTime.of(2016, 3, 1, 0, 0)));
+        assertEquals(1, schedule.getTaskList().size());
+        assertArrayEquals(corrupted, Files.readAllBytes(path));
+        assertFalse(Files.exists(path.resolveSibling("2016-01.2.tasks")));
+    }
+}
@@ -0,0 +1,82 @@
+package linenux.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import linenux.model.Task;
+
+//@@author A0135788M
+public class XmlArchiveStorageTest {
+    private Path tempDir;
+    private XmlArchiveStorage storage;
+
+    @Before
+    public void setupTestEnvironment() throws Exception {
+        this.tempDir = Files.createTempDirectory("tmp");
+        this.storage = new XmlArchiveStorage(this.tempDir.resolve("hello.xml"));
+    }
+
+    @After
+    public void teardown() {
+        File archiveDir = this.tempDir.resolve("hello.xml.archive").toFile();
+        File[] files = archiveDir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        archiveDir.delete();
+        this.tempDir.toFile().delete();
+    }
+
+    @Test
+    public void saveAndLoad_doneTasks_doneTimePreserved() throws Exception {
+        Task task = new Task("deadline", LocalDateTime.of(2016, 1, 1, 17, 0))
+                .markAsDone(LocalDateTime.of(2016, 1, 2, 9, 30));
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(task);
+
+        assertTrue(this.storage.saveMonth(YearMonth.of(2016, 1), tasks));
+        ArrayList<Task> loadedTasks = this.storage.loadMonth(YearMonth.of(2016, 1));
+
+        assertEquals(1, loadedTasks.size());
+        assertEquals(task.getId(), loadedTasks.get(0).getId());
+        assertTrue(loadedTasks.get(0).isDone());
+        assertEquals(LocalDateTime.of(2016, 1, 2, 9, 30), loadedTasks.get(0).getDoneTime());
+    }
+
+    @Test
+    public void getMonths_severalMonthsSaved_sortedMonthsReturned() throws Exception {
+        this.storage.saveMonth(YearMonth.of(2016, 11), new ArrayList<>());
+        this.storage.saveMonth(YearMonth.of(2015, 3), new ArrayList<>());
+
+        ArrayList<YearMonth> months = this.storage.getMonths();
+
+        assertEquals(2, months.size());
+        assertEquals(YearMonth.of(2015, 3), months.get(0));
+        assertEquals(YearMonth.of(2016, 11), months.get(1));
+        assertEquals(0, this.storage.loadMonth(YearMonth.of(2014, 1)).size());
+    }
+
+    @Test(expected = IOException.class)
+    public void loadMonth_corruptedFile_exceptionThrown() throws Exception {
+        Path archiveDir = this.tempDir.resolve("hello.xml.archive");
+        Files.createDirectories(archiveDir);
+        Files.write(archiveDir.resolve("2016-01.xml"), "<state><tasks>".getBytes(StandardCharsets.UTF_8));
+
+        this.storage.loadMonth(YearMonth.of(2016, 1));
+    }
+}
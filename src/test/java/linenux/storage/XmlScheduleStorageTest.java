@@ -75,6 +75,38 @@ public class XmlScheduleStorageTest {
         assertEquals(LocalDateTime.of(2016, 1, 2, 17, 00), event.getEndTime());
     }
 
+    @Test
+    public void saveAndLoad_taskIdsPreserved() {
+        Schedule schedule = new Schedule();
+        Task task = new Task("todo");
+        schedule.addTask(task);
+
+        this.storage.saveScheduleToFile(schedule);
+        Schedule loadedSchedule = this.storage.loadScheduleFromFile();
+
+        assertEquals(task.getId(), loadedSchedule.getTaskList().get(0).getId());
+        assertEquals("todo", loadedSchedule.getTaskById(task.getId()).getTaskName());
+    }
+
+    @Test
+    public void saveAndLoad_repeatedTagsAndNotes_stringsShared() {
+        Schedule schedule = new Schedule();
+        ArrayList<String> tags = new ArrayList<>();
+        tags.add("work");
+        for (int i = 0; i < 2; i++) {
+            schedule.addTask(new Task("task " + i, tags)
+                    .addReminder(new Reminder("standup", LocalDateTime.of(2016, 1, 1, 9, 0))));
+        }
+
+        this.storage.saveScheduleToFile(schedule);
+        ArrayList<Task> loadedTasks = this.storage.loadScheduleFromFile().getTaskList();
+
+        assertTrue(loadedTasks.get(0).getTags().get(0) == loadedTasks.get(1).getTags().get(0));
+        assertTrue(loadedTasks.get(0).getReminders().get(0).getNote()
+                == loadedTasks.get(1).getReminders().get(0).getNote());
+        assertTrue(loadedTasks.get(1).hasTag("WORK"));
+    }
+
     private static class MockConfig implements Config {
         private String scheduleFilePath;
 
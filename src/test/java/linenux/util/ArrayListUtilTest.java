@@ -71,6 +71,14 @@ public class ArrayListUtilTest {
         assertEquals(3, uniqueNumbers.size());
     }
 
+    //@@author A0135788M
+    @Test
+    public void take_countBelowAndAboveSize_firstElementsReturned() {
+        assertEquals(ArrayListUtil.fromArray(new String[]{"1", "2"}), ArrayListUtil.take(2, this.list));
+        assertEquals(this.list, ArrayListUtil.take(5, this.list));
+    }
+
+    //@@author A0144915A
     public void fromSingleton_listCreatedFromSingleValue() {
         ArrayList<String> strings = ArrayListUtil.fromSingleton("hello");
         assertEquals(1, strings.size());
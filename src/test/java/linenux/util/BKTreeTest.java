@@ -0,0 +1,75 @@
+package linenux.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+//@@author A0135788M
+/**
+ * JUnit test for BK-tree.
+ */
+public class BKTreeTest {
+    /**
+     * The search that {@code findNearest} replaces.
+     */
+    private static String scan(ArrayList<String> words, String word, int maxDistance) {
+        String output = null;
+        int bestDistance = maxDistance + 1;
+        for (String candidate : words) {
+            int distance = StringsSimilarity.compute(word, candidate);
+            if (distance < bestDistance) {
+                output = candidate;
+                bestDistance = distance;
+            }
+        }
+        return output;
+    }
+
+    private static String randomWord(Random random) {
+        StringBuilder builder = new StringBuilder();
+        int length = 1 + random.nextInt(8);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(6)));
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void findNearest_randomWords_matchesScan() {
+        Random random = new Random(23);
+        ArrayList<String> words = new ArrayList<>();
+        BKTree tree = new BKTree();
+        for (int i = 0; i < 300; i++) {
+            String word = randomWord(random);
+            if (!words.contains(word)) {
+                words.add(word);
+            }
+            tree.addString(word);
+        }
+
+        assertEquals(words.size(), tree.size());
+        for (int i = 0; i < 200; i++) {
+            String word = randomWord(random);
+            int maxDistance = random.nextInt(6);
+            assertEquals(scan(words, word, maxDistance), tree.findNearest(word, maxDistance));
+        }
+    }
+
+    @Test
+    public void findNearest_tie_firstAddedWordReturned() {
+        BKTree tree = new BKTree(Arrays.asList("list", "exit"));
+        assertEquals("list", tree.findNearest("yes", 5));
+        assertEquals("exit", new BKTree(Arrays.asList("exit", "list")).findNearest("yes", 5));
+    }
+
+    @Test
+    public void findNearest_nothingWithinDistance_nullReturned() {
+        assertNull(new BKTree().findNearest("list", 10));
+        assertNull(new BKTree(Arrays.asList("list")).findNearest("exit", 3));
+    }
+}
@@ -30,4 +30,14 @@ public class LocalDateTimeUtilTest {
         assertEquals(second, LocalDateTimeUtil.max(first, second));
         assertEquals(second, LocalDateTimeUtil.max(second, first));
     }
+
+    //@@author A0135788M
+    @Test
+    public void toEpochMinute_roundTrip_sameTimeReturned() {
+        assertEquals(first, LocalDateTimeUtil.fromEpochMinute(LocalDateTimeUtil.toEpochMinute(first)));
+        assertEquals(1, LocalDateTimeUtil.toEpochMinute(second) - LocalDateTimeUtil.toEpochMinute(first));
+
+        LocalDateTime beforeEpoch = LocalDateTime.of(1969, 12, 31, 23, 59, 30);
+        assertEquals(-1, LocalDateTimeUtil.toEpochMinute(beforeEpoch));
+    }
 }
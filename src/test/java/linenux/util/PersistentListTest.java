@@ -0,0 +1,72 @@
+package linenux.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+//@@author A0135788M
+public class PersistentListTest {
+    @Test
+    public void add_newElement_originalUnchanged() {
+        PersistentList<String> original = PersistentList.<String>empty().add("a");
+        PersistentList<String> updated = original.add("b");
+
+        assertEquals(1, original.size());
+        assertEquals(Arrays.asList("a"), original.toArrayList());
+        assertEquals(Arrays.asList("a", "b"), updated.toArrayList());
+        assertEquals("b", updated.get(1));
+    }
+
+    @Test
+    public void remove_duplicateElement_firstOccurrenceRemoved() {
+        PersistentList<String> list = PersistentList.fromList(Arrays.asList("a", "b", "a", "c"));
+        PersistentList<String> updated = list.remove("a");
+
+        assertEquals(Arrays.asList("b", "a", "c"), updated.toArrayList());
+        assertEquals(4, list.size());
+        assertTrue(list.remove("d") == list);
+    }
+
+    @Test
+    public void toArrayList_modified_listUnchanged() {
+        PersistentList<String> list = PersistentList.fromList(Arrays.asList("a", "b"));
+        list.toArrayList().clear();
+
+        assertEquals(2, list.size());
+        assertTrue(list.contains("b"));
+        assertFalse(list.contains("c"));
+    }
+
+    @Test
+    public void remove_manyRandomOperations_matchesArrayList() {
+        ArrayList<Integer> expected = new ArrayList<>();
+        PersistentList<Integer> actual = PersistentList.empty();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 1000; i++) {
+            Integer value = random.nextInt(20);
+            if (random.nextBoolean()) {
+                expected.add(value);
+                actual = actual.add(value);
+            } else {
+                expected.remove(value);
+                actual = actual.remove(value);
+            }
+
+            assertEquals(expected.size(), actual.size());
+        }
+
+        ArrayList<Integer> iterated = new ArrayList<>();
+        for (Integer value : actual) {
+            iterated.add(value);
+        }
+        assertEquals(expected, iterated);
+        assertEquals(expected, actual.toArrayList());
+    }
+}
@@ -0,0 +1,92 @@
+package linenux.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+//@@author A0135788M
+public class PersistentTreeMapTest {
+    @Test
+    public void put_newKey_originalUnchanged() {
+        PersistentTreeMap<Integer, String> original = PersistentTreeMap.<Integer, String>empty().put(1, "a");
+        PersistentTreeMap<Integer, String> updated = original.put(2, "b");
+
+        assertEquals(1, original.size());
+        assertNull(original.get(2));
+        assertEquals(2, updated.size());
+        assertEquals("b", updated.get(2));
+    }
+
+    @Test
+    public void remove_existingKey_keyRemoved() {
+        PersistentTreeMap<Integer, String> map = PersistentTreeMap.<Integer, String>empty().put(1, "a").put(2, "b");
+        PersistentTreeMap<Integer, String> updated = map.remove(1);
+
+        assertFalse(updated.containsKey(1));
+        assertTrue(map.containsKey(1));
+        assertTrue(map.remove(3) == map);
+    }
+
+    @Test
+    public void getKeyAt_manyRandomOperations_matchesTreeMap() {
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        PersistentTreeMap<Integer, Integer> actual = PersistentTreeMap.empty();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 2000; i++) {
+            int key = random.nextInt(300);
+            if (random.nextBoolean()) {
+                expected.put(key, i);
+                actual = actual.put(key, i);
+            } else {
+                expected.remove(key);
+                actual = actual.remove(key);
+            }
+        }
+
+        assertEquals(expected.size(), actual.size());
+        ArrayList<Integer> keys = new ArrayList<>(expected.keySet());
+        for (int i = 0; i < keys.size(); i++) {
+            assertEquals(keys.get(i), actual.getKeyAt(i));
+            assertEquals(i, actual.indexOfKey(keys.get(i)));
+            assertEquals(expected.get(keys.get(i)), actual.get(keys.get(i)));
+        }
+        assertEquals(new ArrayList<>(expected.values()), actual.values());
+    }
+
+    @Test
+    public void entries_range_entriesInRangeReturned() {
+        PersistentTreeMap<Integer, Integer> map = PersistentTreeMap.empty();
+        for (int i = 0; i < 10; i++) {
+            map = map.put(i, i * i);
+        }
+
+        ArrayList<Integer> keys = new ArrayList<>();
+        for (PersistentTreeMap.Entry<Integer, Integer> entry : map.entries(3, false, 6, true)) {
+            keys.add(entry.getKey());
+        }
+
+        assertEquals(ArrayListUtil.fromArray(new Integer[] {4, 5, 6}), keys);
+    }
+
+    @Test
+    public void fromSorted_sortedKeys_balancedMapBuilt() {
+        ArrayList<Integer> keys = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            keys.add(i);
+        }
+        PersistentTreeMap<Integer, Integer> map = PersistentTreeMap.fromSorted(Integer::compare, keys, keys);
+
+        assertEquals(100, map.size());
+        assertEquals(Integer.valueOf(0), map.firstKey());
+        assertEquals(Integer.valueOf(99), map.lastKey());
+        assertEquals(Integer.valueOf(42), map.getValueAt(42));
+    }
+}
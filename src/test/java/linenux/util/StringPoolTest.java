@@ -0,0 +1,42 @@
+package linenux.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+//@@author A0135788M
+public class StringPoolTest {
+    @Test
+    public void intern_equalStrings_sameInstanceReturned() {
+        String first = new String("pooled tag");
+        String second = new String("pooled tag");
+
+        assertTrue(StringPool.intern(first) == StringPool.intern(second));
+    }
+
+    @Test
+    public void internWeakly_equalStrings_sameInstanceReturned() {
+        String first = new String("pooled note");
+        String second = new String("pooled note");
+
+        assertTrue(StringPool.internWeakly(first) == StringPool.internWeakly(second));
+        assertTrue(StringPool.internWeakly(second) == first);
+    }
+
+    @Test
+    public void foldedId_stringsEqualIgnoringCase_sameIdReturned() {
+        int id = StringPool.foldedId("Folded Tag");
+
+        assertEquals(id, StringPool.foldedId("folded tag"));
+        assertEquals(id, StringPool.findFoldedId("FOLDED TAG"));
+        assertNotEquals(id, StringPool.foldedId("other folded tag"));
+    }
+
+    @Test
+    public void findFoldedId_unknownString_negativeReturned() {
+        assertEquals(-1, StringPool.findFoldedId("never pooled 84c1a"));
+        assertEquals(-1, StringPool.findFoldedId("never pooled 84c1a"));
+    }
+}
@@ -2,6 +2,9 @@ package linenux.util;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Collections;
+import java.util.Random;
+
 import org.junit.Test;
 
 //@@author A0144915A
@@ -11,4 +14,56 @@ public class StringsSimilarityTest {
         assertEquals(5, StringsSimilarity.compute("kitten", "sitting"));
         assertEquals(0, StringsSimilarity.compute("hello", "hello"));
     }
+
+    //@@author A0135788M
+    /**
+     * The dynamic programming table that {@code compute} replaces.
+     */
+    private static int computeTable(String a, String b) {
+        int[][] dp = new int[a.length() + 1][b.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            for (int j = 0; j <= b.length(); j++) {
+                if (i == 0 || j == 0) {
+                    dp[i][j] = i + j;
+                } else {
+                    int swap = dp[i - 1][j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 2);
+                    dp[i][j] = Math.min(Math.min(dp[i - 1][j], dp[i][j - 1]) + 1, swap);
+                }
+            }
+        }
+        return dp[a.length()][b.length()];
+    }
+
+    private static String randomString(Random random, int maxLength) {
+        StringBuilder builder = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            builder.append("abc\u00e9\u4e2d".charAt(random.nextInt(5)));
+        }
+        return builder.toString();
+    }
+
+    @Test
+    public void compute_randomStrings_matchesTable() {
+        Random random = new Random(24);
+        for (int i = 0; i < 500; i++) {
+            String a = randomString(random, i % 2 == 0 ? 70 : 140);
+            String b = randomString(random, i % 2 == 0 ? 70 : 140);
+            int expected = computeTable(a, b);
+            int maxDistance = random.nextInt(120);
+
+            assertEquals(expected, StringsSimilarity.compute(a, b));
+            assertEquals(Math.min(expected, maxDistance + 1), StringsSimilarity.compute(a, b, maxDistance));
+        }
+    }
+
+    @Test
+    public void compute_sixtyFourCharacters_bitParallelDistanceReturned() {
+        String a = String.join("", Collections.nCopies(16, "abcd"));
+        String b = String.join("", Collections.nCopies(16, "abce"));
+        assertEquals(32, StringsSimilarity.compute(a, b));
+        assertEquals(11, StringsSimilarity.compute(a, b, 10));
+        assertEquals(64, StringsSimilarity.compute("", a));
+        assertEquals(0, StringsSimilarity.compute(a, a, 0));
+    }
 }